@@ -0,0 +1,135 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLBinder;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generated {@link XMLBinder} of the <code>&lt;car&gt;</code> records with JAXB, on already loaded
+ * elements and end-to-end from the document URL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BindBenchmark {
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Car {
+
+        @XMLEasyPath("@color")
+        @XmlAttribute(name = "color")
+        String color;
+
+        @XMLEasyPath("@wash-date")
+        @XmlAttribute(name = "wash-date")
+        String washDate;
+
+        @XMLEasyPath("brand")
+        @XmlElement(name = "brand")
+        String brand;
+
+        @XMLEasyPath("model")
+        @XmlElement(name = "model")
+        int model;
+
+    }
+
+    @XmlRootElement(name = "Carwash")
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Carwash {
+
+        @XmlElementWrapper(name = "cars")
+        @XmlElement(name = "car")
+        List<Car> cars;
+
+    }
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private URL carwash;
+    private List<Element> cars;
+    private XMLBinder<Car> binder;
+    private JAXBContext context;
+
+    @Setup
+    public void setup() throws IOException, JAXBException {
+
+        carwash = Documents.carwash(size);
+        cars = new XMLEasy(carwash).freeze().child("cars").listChildren("car");
+        binder = XMLEasy.binder(Car.class);
+        context = JAXBContext.newInstance(Carwash.class,Car.class);
+
+    }
+
+    @Benchmark
+    public List<Car> generatedBinder(){
+
+        List<Car> bound = new ArrayList<>(cars.size());
+        for(Element car: cars)
+            bound.add(binder.bind(car));
+        return bound;
+
+    }
+
+    @Benchmark
+    public List<Car> jaxbElements() throws JAXBException {
+
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        List<Car> bound = new ArrayList<>(cars.size());
+        for(Element car: cars)
+            bound.add(unmarshaller.unmarshal(car,Car.class).getValue());
+        return bound;
+
+    }
+
+    @Benchmark
+    public List<Car> streamAndBind(){
+
+        List<Car> bound = new ArrayList<>();
+        XMLEasy.stream(carwash).each("cars/car",car -> bound.add(binder.bind(car.getElement())));
+        return bound;
+
+    }
+
+    @Benchmark
+    public List<Car> jaxbDocument() throws JAXBException, IOException {
+
+        try(InputStream input = carwash.openStream()){
+            return ((Carwash) context.createUnmarshaller().unmarshal(input)).cars;
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLDocumentCache;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading a document on every use with getting it from an {@link XMLDocumentCache}, revalidated against the
+ * file on every lookup or served until its time to live elapses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private URL carwash;
+    private XMLDocumentCache revalidating;
+    private XMLDocumentCache expiring;
+
+    @Setup
+    public void setup() throws IOException {
+
+        carwash = Documents.carwash(size);
+        revalidating = XMLDocumentCache.builder().timeToLive(0,TimeUnit.SECONDS).build();
+        expiring = XMLDocumentCache.builder().timeToLive(1,TimeUnit.MINUTES).build();
+
+    }
+
+    @Benchmark
+    public String load(){
+
+        return new XMLEasy(carwash).child("cars").getTag();
+
+    }
+
+    @Benchmark
+    public String cachedRevalidated(){
+
+        return revalidating.get(carwash).child("cars").getTag();
+
+    }
+
+    @Benchmark
+    public String cachedWithTimeToLive(){
+
+        return expiring.get(carwash).child("cars").getTag();
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Generates the synthetic benchmark documents, shaped like the <code>test-cases/carwash</code> and
+ * <code>test-cases/person</code> documents, and extracts the benchmark schemas.
+ * Files are written once to <code>${java.io.tmpdir}/xmleasy-benchmarks</code> and reused by later forks and runs.
+ */
+public final class Documents {
+
+    private static final File DIRECTORY = new File(System.getProperty("java.io.tmpdir"),"xmleasy-benchmarks");
+
+    private static final String[] BRANDS = {"Toyota","BMW","Mazda","Volvo","Ford"};
+    private static final String[] COLORS = {"red","black","white","blue","yellow"};
+
+    private Documents(){
+
+    }
+
+    /**
+     * Parses a document size such as <code>1KB</code>, <code>1MB</code> or <code>500MB</code>.
+     */
+    public static long bytes(String size){
+
+        String value = size.trim().toUpperCase();
+        if(value.endsWith("KB"))
+            return Long.parseLong(value.substring(0,value.length()-2))*1024;
+        if(value.endsWith("MB"))
+            return Long.parseLong(value.substring(0,value.length()-2))*1024*1024;
+        if(value.endsWith("GB"))
+            return Long.parseLong(value.substring(0,value.length()-2))*1024*1024*1024;
+        return Long.parseLong(value);
+
+    }
+
+    /**
+     * Gets a <code>&lt;Carwash&gt;</code> document of approximately the given size: 80% cars, 15% washers and
+     * 5% clients.
+     */
+    public static URL carwash(String size) throws IOException {
+
+        long target = bytes(size);
+        File file = new File(DIRECTORY,"carwash-"+size+".xml");
+        if(file.isFile())
+            return file.toURI().toURL();
+
+        File partial = new File(DIRECTORY,file.getName()+".partial");
+        try(Writer writer = writer(partial)){
+
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<Carwash>\n    <cars>\n");
+            long written = 60;
+            int i = 0;
+            do {
+                String car = String.format("        <car%s color=\"%s\">\n            <brand>%s</brand>\n            <model>%d</model>\n        </car>\n",
+                        i%2==0 ? " wash-date=\"12/12/2014\"" : "",COLORS[i%COLORS.length],BRANDS[i%BRANDS.length],i);
+                writer.write(car);
+                written += car.length();
+                i++;
+            }while(written<target*0.8);
+
+            writer.write("    </cars>\n    <clients>\n");
+            i = 0;
+            do {
+                String client = String.format("        <client>\n            <name>Client %d</name>\n        </client>\n",i++);
+                writer.write(client);
+                written += client.length();
+            }while(written<target*0.85);
+
+            writer.write("    </clients>\n    <washers>\n");
+            i = 0;
+            do {
+                String washer = String.format("        <washer>\n            <name>\n                <first-name>Washer%d</first-name>\n"
+                        + "                <surname>Surname%d</surname>\n            </name>\n            <age>%d</age>\n        </washer>\n",
+                        i,i,18+i%50);
+                writer.write(washer);
+                written += washer.length();
+                i++;
+            }while(written<target);
+
+            writer.write("    </washers>\n</Carwash>\n");
+
+        }
+
+        Files.move(partial.toPath(),file.toPath(),StandardCopyOption.REPLACE_EXISTING);
+        return file.toURI().toURL();
+
+    }
+
+    /**
+     * Gets a <code>&lt;People&gt;</code> document of approximately the given size, made of <code>&lt;p:Person&gt;</code>
+     * records valid against <code>test-cases/person</code> schemas.
+     */
+    public static URL people(String size) throws IOException {
+
+        long target = bytes(size);
+        File file = new File(DIRECTORY,"people-"+size+".xml");
+        if(file.isFile())
+            return file.toURI().toURL();
+
+        File partial = new File(DIRECTORY,file.getName()+".partial");
+        try(Writer writer = writer(partial)){
+
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n<People xmlns=\"http://examples/people\" "
+                    + "xmlns:p=\"http://examples/case1\" xmlns:d=\"http://examples/person/details\">\n");
+            long written = 150;
+            int i = 0;
+            do {
+                String person = String.format("    <p:Person>\n        <p:name>\n            <p:first-name>Mario%d</p:first-name>\n"
+                        + "            <p:last-name>Junior%d</p:last-name>\n        </p:name>\n        <d:info>\n"
+                        + "            <d:age>%d</d:age>\n            <d:height>1.%d</d:height>\n        </d:info>\n    </p:Person>\n",
+                        i,i,10+i%80,50+i%40);
+                writer.write(person);
+                written += person.length();
+                i++;
+            }while(written<target);
+
+            writer.write("</People>\n");
+
+        }
+
+        Files.move(partial.toPath(),file.toPath(),StandardCopyOption.REPLACE_EXISTING);
+        return file.toURI().toURL();
+
+    }
+
+    /**
+     * Extracts a benchmark schema from the classpath, so that it is validated from a <code>file:</code> URL.
+     */
+    public static URL schema(String name) throws IOException {
+
+        File file = new File(DIRECTORY,name);
+        try(InputStream input = Documents.class.getResourceAsStream("/"+name)){
+            if(input==null)
+                throw new IOException("Schema not found: "+name);
+            DIRECTORY.mkdirs();
+            Files.copy(input,file.toPath(),StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return file.toURI().toURL();
+
+    }
+
+    private static Writer writer(File file) throws IOException {
+
+        DIRECTORY.mkdirs();
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),StandardCharsets.UTF_8),1<<16);
+
+    }
+
+}
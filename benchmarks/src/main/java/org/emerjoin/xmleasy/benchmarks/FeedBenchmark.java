@@ -0,0 +1,79 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyFeeder;
+import org.emerjoin.xmleasy.XMLPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares pushing a document held in memory to an {@link XMLEasyFeeder} in network-sized chunks with pulling it
+ * through an {@link org.emerjoin.xmleasy.XMLEasyStream}, both supplying each car record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private byte[] carwash;
+    private XMLPath path;
+
+    @Setup
+    public void setup() throws IOException {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(InputStream input = Documents.carwash(size).openStream()){
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while((read = input.read(buffer))>0)
+                output.write(buffer,0,read);
+        }
+
+        carwash = output.toByteArray();
+        path = XMLPath.compile("cars/car");
+
+    }
+
+    @Benchmark
+    public void feedRecords(Blackhole blackhole){
+
+        XMLEasyFeeder feeder = XMLEasy.feeder(path,car -> blackhole.consume(car.attribute("color")));
+        for(int offset=0;offset<carwash.length;offset+=CHUNK_SIZE)
+            feeder.feed(ByteBuffer.wrap(carwash,offset,Math.min(CHUNK_SIZE,carwash.length-offset)));
+        feeder.end();
+
+    }
+
+    @Benchmark
+    public void streamRecords(Blackhole blackhole){
+
+        XMLEasy.stream(new ByteArrayInputStream(carwash)).each(path,car -> blackhole.consume(car.attribute("color")));
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyHistogramMetrics;
+import org.emerjoin.xmleasy.XMLEasyMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the metrics listener on navigation and parsing: no listener installed against the in-memory
+ * histograms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    @Param({"none","histogram"})
+    public String metrics;
+
+    private URL document;
+    private XMLEasy root;
+
+    @Setup
+    public void setup() throws IOException {
+
+        XMLEasyMetrics.install(metrics.equals("none") ? XMLEasyMetrics.NONE : new XMLEasyHistogramMetrics());
+        document = Documents.carwash(size);
+        root = new XMLEasy(document).freeze();
+
+    }
+
+    @TearDown
+    public void tearDown(){
+
+        XMLEasyMetrics.install(XMLEasyMetrics.NONE);
+
+    }
+
+    @Benchmark
+    public String navigate(){
+
+        return root.child("washers").lastChild("washer").child("name").child("first-name").getContent();
+
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public XMLEasy parse(){
+
+        return new XMLEasy(document);
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLCursor;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.emerjoin.xmleasy.XMLEasy.easy;
+
+/**
+ * Measures navigation and attribute access on a loaded carwash document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NavigationBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private XMLEasy root;
+    private XMLCursor cursor;
+    private XMLEasy cars;
+    private Element firstCar;
+
+    @Setup
+    public void setup() throws IOException {
+
+        root = new XMLEasy(Documents.carwash(size)).freeze();
+        cars = root.child("cars");
+        firstCar = cars.firstChild().getElement();
+        cursor = root.cursor();
+
+    }
+
+    @Benchmark
+    public Element child(){
+
+        return root.child("washers").getElement();
+
+    }
+
+    @Benchmark
+    public String frozenNavigation(){
+
+        return root.child("washers").lastChild("washer").child("name").child("first-name").getContent();
+
+    }
+
+    @Benchmark
+    public String cursorNavigation(){
+
+        return cursor.moveTo(root.getElement()).child("washers").lastChild("washer").child("name").child("first-name").getContent();
+
+    }
+
+    @Benchmark
+    public String mutableNavigation(){
+
+        return easy(root.getElement()).child("cars").firstChild("car").child("brand").getContent();
+
+    }
+
+    @Benchmark
+    public List<Element> listChildren(){
+
+        return cars.listChildren("car");
+
+    }
+
+    @Benchmark
+    public Optional<Element> streamChildrenFindFirst(){
+
+        return cars.streamChildren("car")
+                .filter(el -> el.getAttribute("color").equals("black"))
+                .findFirst();
+
+    }
+
+    @Benchmark
+    public long streamChildrenCount(){
+
+        return root.child("washers").streamChildren().count();
+
+    }
+
+    @Benchmark
+    public String attribute(){
+
+        return easy(firstCar).attribute("color");
+
+    }
+
+    @Benchmark
+    public Optional<String> optionalAttribute(){
+
+        return easy(firstCar).optionalAttribute("wash-date");
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLCursor;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the typed numeric accessors with parsing the String values, on DOM and compact documents.
+ * Every method sums the <code>&lt;model&gt;</code> numbers of the cars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NumericBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private List<Element> domCars;
+    private List<Element> compactCars;
+    private XMLCursor domCursor;
+    private XMLCursor compactCursor;
+
+    @Setup
+    public void setup() throws IOException {
+
+        XMLEasy dom = new XMLEasy(Documents.carwash(size)).freeze();
+        XMLEasy compact = XMLEasy.compact(Documents.carwash(size)).freeze();
+        domCars = dom.child("cars").listChildren("car");
+        compactCars = compact.child("cars").listChildren("car");
+        domCursor = dom.cursor();
+        compactCursor = compact.cursor();
+
+    }
+
+    @Benchmark
+    public long domParseContent(){
+
+        return parseContent(domCursor,domCars);
+
+    }
+
+    @Benchmark
+    public long domIntContent(){
+
+        return intContent(domCursor,domCars);
+
+    }
+
+    @Benchmark
+    public long compactParseContent(){
+
+        return parseContent(compactCursor,compactCars);
+
+    }
+
+    @Benchmark
+    public long compactIntContent(){
+
+        return intContent(compactCursor,compactCars);
+
+    }
+
+    private static long parseContent(XMLCursor cursor, List<Element> cars){
+
+        long sum = 0;
+        for(Element car : cars)
+            sum += Integer.parseInt(cursor.moveTo(car).child("model").getContent().trim());
+        return sum;
+
+    }
+
+    private static long intContent(XMLCursor cursor, List<Element> cars){
+
+        long sum = 0;
+        for(Element car : cars)
+            sum += cursor.moveTo(car).child("model").intContent();
+        return sum;
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.XMLEasy.easy;
+
+/**
+ * Measures parallel streams of child elements. The DOM benchmarks stream the children of a freshly parsed document,
+ * whose subtrees must still be expanded before they can be read concurrently.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelChildrenBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private URL carwash;
+    private XMLEasy cars;
+    private XMLEasy compactCars;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+
+        carwash = Documents.carwash(size);
+        compactCars = XMLEasy.compact(carwash).child("cars");
+
+    }
+
+    @Setup(Level.Invocation)
+    public void parse(){
+
+        cars = new XMLEasy(carwash).child("cars");
+
+    }
+
+    @Benchmark
+    public List<String> domBrands(){
+
+        return cars.parallelStreamChildren("car")
+                .map(car -> easy(car).child("brand").getContent())
+                .collect(Collectors.toList());
+
+    }
+
+    @Benchmark
+    public Optional<String> domFindAnyRed(){
+
+        return cars.parallelStreamChildren("car")
+                .filter(car -> "red".equals(car.getAttribute("color")))
+                .map(car -> easy(car).child("model").getContent())
+                .findAny();
+
+    }
+
+    @Benchmark
+    public List<String> compactBrands(){
+
+        return compactCars.parallelStreamChildren("car")
+                .map(car -> easy(car).child("brand").getContent())
+                .collect(Collectors.toList());
+
+    }
+
+}
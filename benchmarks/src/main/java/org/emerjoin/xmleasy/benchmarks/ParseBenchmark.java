@@ -0,0 +1,69 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of {@link XMLEasy} instances from a document URL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private URL carwash;
+    private URL people;
+    private XMLEasyParser withoutSource;
+
+    @Setup
+    public void setup() throws IOException {
+
+        carwash = Documents.carwash(size);
+        people = Documents.people(size);
+        withoutSource = XMLEasyParser.builder().retainSource(false).build();
+
+    }
+
+    @Benchmark
+    public XMLEasy construct(){
+
+        return new XMLEasy(carwash);
+
+    }
+
+    @Benchmark
+    public XMLEasy constructWithoutSource(){
+
+        return withoutSource.parse(carwash);
+
+    }
+
+    @Benchmark
+    public XMLEasy constructPeople(){
+
+        return new XMLEasy(people);
+
+    }
+
+}
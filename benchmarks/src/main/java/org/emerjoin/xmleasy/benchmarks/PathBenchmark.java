@@ -0,0 +1,86 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.XMLEasy.easy;
+
+/**
+ * Compares compiled {@link XMLPath} selection with hand-chained navigation and javax.xml.xpath on the same query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathBenchmark {
+
+    private static final String EXPRESSION = "washers/washer[age='24']/name/first-name";
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private XMLEasy root;
+    private XMLPath path;
+    private XPathExpression xpath;
+
+    @Setup
+    public void setup() throws IOException, XPathExpressionException {
+
+        root = new XMLEasy(Documents.carwash(size)).freeze();
+        //Expand the deferred DOM and let the collector compact it, so that every method runs on the same heap layout
+        root.listDescendants("*").forEach(Element::getTextContent);
+        System.gc();
+        path = XMLPath.compile(EXPRESSION);
+        xpath = XPathFactory.newInstance().newXPath().compile(EXPRESSION);
+
+    }
+
+    @Benchmark
+    public List<Element> compiledPath(){
+
+        return root.select(path);
+
+    }
+
+    @Benchmark
+    public List<Element> chainedCalls(){
+
+        return root.child("washers").streamChildren("washer")
+                .filter(el -> easy(el).child("age").getContent().equals("24"))
+                .map(el -> easy(el).child("name").child("first-name").getElement())
+                .collect(Collectors.toList());
+
+    }
+
+    @Benchmark
+    public NodeList javaxXPath() throws XPathExpressionException {
+
+        return (NodeList) xpath.evaluate(root.getElement(),XPathConstants.NODESET);
+
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLExtraction;
+import org.emerjoin.xmleasy.XMLPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares extracting a few values of a document in one streaming pass with loading it and selecting the same elements,
+ * and extracting the fields of a report in a single pass with one pass per field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamBenchmark {
+
+    private static final String EXPRESSION = "/Carwash/cars/car[@color='red']/brand";
+    private static final String[] REPORT = {"cars/car/brand", "cars/car/model", "cars/car[@color='red']/brand",
+            "cars/car[@wash-date]/model", "clients/client/name", "washers/washer/age",
+            "washers/washer/name/first-name", "washers/washer/name/last-name"};
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private URL carwash;
+    private XMLPath path;
+    private XMLPath[] report;
+
+    @Setup
+    public void setup() throws IOException {
+
+        carwash = Documents.carwash(size);
+        path = XMLPath.compile(EXPRESSION);
+        report = new XMLPath[REPORT.length];
+        for(int i=0;i<REPORT.length;i++)
+            report[i] = XMLPath.compile(REPORT[i]);
+
+    }
+
+    @Benchmark
+    public void streamValues(Blackhole blackhole){
+
+        XMLEasy.stream(carwash).eachValue(path,blackhole::consume);
+
+    }
+
+    @Benchmark
+    public void streamElements(Blackhole blackhole){
+
+        XMLEasy.stream(carwash).each(path,brand -> blackhole.consume(brand.getContent()));
+
+    }
+
+    @Benchmark
+    public void extractReport(Blackhole blackhole){
+
+        XMLExtraction extraction = XMLEasy.extract(carwash);
+        for(XMLPath field: report)
+            extraction.onValue(field,blackhole::consume);
+        extraction.run();
+
+    }
+
+    @Benchmark
+    public void streamReportFields(Blackhole blackhole){
+
+        for(XMLPath field: report)
+            XMLEasy.stream(carwash).eachValue(field,blackhole::consume);
+
+    }
+
+    @Benchmark
+    public void loadAndSelect(Blackhole blackhole){
+
+        for(Element brand: new XMLEasy(carwash).select(path))
+            blackhole.consume(brand.getTextContent());
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.emerjoin.xmleasy.benchmarks;
+
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validation of loaded documents against their XML Schemas, and the loading of documents followed by
+ * their validation against validation during the parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"1KB","1MB"})
+    public String size;
+
+    private XMLEasy carwash;
+    private XMLEasy people;
+    private URL[] carwashSchemas;
+    private URL[] peopleSchemas;
+    private URL peopleDocument;
+    private XMLEasyParser validatingParser;
+
+    @Setup
+    public void setup() throws IOException {
+
+        carwash = new XMLEasy(Documents.carwash(size));
+        people = new XMLEasy(Documents.people(size));
+        carwashSchemas = new URL[]{Documents.schema("carwash.xsd")};
+        Documents.schema("person.xsd");
+        Documents.schema("details.xsd");
+        peopleSchemas = new URL[]{Documents.schema("people.xsd")};
+        peopleDocument = Documents.people(size);
+        validatingParser = XMLEasyParser.builder().schemas(peopleSchemas).build();
+
+    }
+
+    @Benchmark
+    public XMLEasy validateCarwash(){
+
+        return carwash.validate(carwashSchemas);
+
+    }
+
+    @Benchmark
+    public XMLEasy validatePeople(){
+
+        return people.validate(peopleSchemas);
+
+    }
+
+    @Benchmark
+    public XMLEasy parseThenValidatePeople(){
+
+        return new XMLEasy(peopleDocument).validate(peopleSchemas);
+
+    }
+
+    @Benchmark
+    public XMLEasy parseValidatingPeople(){
+
+        return validatingParser.parse(peopleDocument);
+
+    }
+
+}
@@ -0,0 +1,32 @@
+package org.emerjoin.xmleasy;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default {@link Executor} of the asynchronous loading and validation methods. Documents are fetched with blocking
+ * I/O, so each task gets its own thread: idle threads are reused and expire after one minute. On Java 21 and later,
+ * the multi-release JAR replaces this class with one that starts a virtual thread per task.
+ */
+final class AsyncExecutor {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable,"xmleasy-async-"+THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncExecutor(){
+
+    }
+
+    static Executor get(){
+
+        return EXECUTOR;
+
+    }
+
+}
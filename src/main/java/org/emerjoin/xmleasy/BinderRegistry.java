@@ -0,0 +1,45 @@
+package org.emerjoin.xmleasy;
+
+/**
+ * Looks up the {@link XMLBinder} generated for a class, once per class. The binder class is named after the bound
+ * class, in the same package: <code>CarXMLBinder</code> for <code>Car</code> and <code>Outer_CarXMLBinder</code> for
+ * <code>Outer.Car</code>. Instantiating it is the only reflective operation: binding itself calls the generated code.
+ */
+final class BinderRegistry {
+
+    static final String SUFFIX = "XMLBinder";
+
+    private static final ClassValue<XMLBinder<?>> BINDERS = new ClassValue<XMLBinder<?>>() {
+        @Override
+        protected XMLBinder<?> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private BinderRegistry(){
+
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> XMLBinder<T> binder(Class<T> type){
+
+        return (XMLBinder<T>) BINDERS.get(type);
+
+    }
+
+    private static XMLBinder<?> load(Class<?> type){
+
+        String name = type.getName().replace('$','_')+SUFFIX;
+        try {
+            Class<?> binder = Class.forName(name,true,type.getClassLoader());
+            return (XMLBinder<?>) binder.getConstructor().newInstance();
+        }catch (ClassNotFoundException ex){
+            throw new IllegalArgumentException(String.format("No binder was generated for class %s: annotate its fields with @XMLEasyPath and compile it with the XMLEasy annotation processor",
+                    type.getName()),ex);
+        }catch (ReflectiveOperationException | ClassCastException ex){
+            throw new XMLException(String.format("Failed to create the binder of class %s",type.getName()),ex);
+        }
+
+    }
+
+}
@@ -0,0 +1,200 @@
+package org.emerjoin.xmleasy;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-classed pool of the byte buffers used to read XML documents.
+ * Buffer sizes are powers of two from {@link #MIN_BUFFER_SIZE} to {@link #MAX_POOLED_BUFFER_SIZE}. Released buffers are
+ * kept for reuse as long as the total size of the kept buffers doesn't exceed the pool's retention limit.
+ * Object instances of this class are Thread-safe.
+ */
+public class BufferPool {
+
+    public static final int MIN_BUFFER_SIZE = 8 * 1024;
+    public static final int MAX_POOLED_BUFFER_SIZE = 32 * 1024 * 1024;
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 64 * 1024 * 1024;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final BufferPool DEFAULT = new BufferPool(DEFAULT_MAX_RETAINED_BYTES);
+
+    private final long maxRetainedBytes;
+    private final ConcurrentLinkedQueue<byte[]>[] sizeClasses;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder released = new LongAdder();
+
+    /**
+     * Gets the pool used by the parsers that don't set their own.
+     * @return the default {@link BufferPool} instance.
+     */
+    public static BufferPool getDefault(){
+
+        return DEFAULT;
+
+    }
+
+    /**
+     * Constructs a new {@link BufferPool} instance.
+     * @param maxRetainedBytes the maximum total size of the buffers kept for reuse
+     * @throws IllegalArgumentException if the maximum retained bytes is negative
+     */
+    @SuppressWarnings("unchecked")
+    public BufferPool(long maxRetainedBytes){
+        if(maxRetainedBytes<0)
+            throw new IllegalArgumentException("Maximum retained bytes must not be negative");
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.sizeClasses = new ConcurrentLinkedQueue[sizeClass(MAX_POOLED_BUFFER_SIZE)+1];
+        for(int i=0;i<sizeClasses.length;i++)
+            sizeClasses[i] = new ConcurrentLinkedQueue<>();
+
+    }
+
+    byte[] acquire(int minimumSize){
+
+        acquired.increment();
+        if(minimumSize>MAX_POOLED_BUFFER_SIZE)
+            return new byte[minimumSize];
+
+        int sizeClass = sizeClass(minimumSize);
+        byte[] buffer = sizeClasses[sizeClass].poll();
+        if(buffer==null)
+            return new byte[MIN_BUFFER_SIZE << sizeClass];
+
+        retainedBytes.addAndGet(-buffer.length);
+        reused.increment();
+        return buffer;
+
+    }
+
+    byte[] grow(byte[] buffer, int length){
+
+        if(buffer.length>=MAX_ARRAY_SIZE)
+            throw new OutOfMemoryError("Required buffer size is too large");
+        int newSize = (int) Math.min((long) buffer.length << 1, MAX_ARRAY_SIZE);
+        byte[] grown = acquire(newSize);
+        System.arraycopy(buffer,0,grown,0,length);
+        release(buffer);
+        return grown;
+
+    }
+
+    void release(byte[] buffer){
+
+        released.increment();
+        int size = buffer.length;
+        if(size<MIN_BUFFER_SIZE||size>MAX_POOLED_BUFFER_SIZE||Integer.bitCount(size)!=1)
+            return;
+
+        if(retainedBytes.addAndGet(size)>maxRetainedBytes){
+            retainedBytes.addAndGet(-size);
+            return;
+        }
+
+        sizeClasses[sizeClass(size)].offer(buffer);
+
+    }
+
+    void recordBytesRead(long count){
+
+        bytesRead.add(count);
+
+    }
+
+    private static int sizeClass(int size){
+        if(size<=MIN_BUFFER_SIZE)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(size-1) - Integer.numberOfTrailingZeros(MIN_BUFFER_SIZE);
+    }
+
+    /**
+     * Gets the maximum total size of the buffers kept for reuse.
+     * @return the maximum retained bytes.
+     */
+    public long getMaxRetainedBytes(){
+
+        return maxRetainedBytes;
+
+    }
+
+    /**
+     * Gets a snapshot of this pool's counters.
+     * @return a new {@link Statistics} instance.
+     */
+    public Statistics getStatistics(){
+
+        return new Statistics(bytesRead.sum(),acquired.sum(),reused.sum(),released.sum(),retainedBytes.get());
+
+    }
+
+    /**
+     * Snapshot of the counters of a {@link BufferPool}.
+     */
+    public static class Statistics {
+
+        private final long bytesRead;
+        private final long acquired;
+        private final long reused;
+        private final long released;
+        private final long retainedBytes;
+
+        private Statistics(long bytesRead, long acquired, long reused, long released, long retainedBytes){
+            this.bytesRead = bytesRead;
+            this.acquired = acquired;
+            this.reused = reused;
+            this.released = released;
+            this.retainedBytes = retainedBytes;
+        }
+
+        /**
+         * Gets the total number of document bytes read into buffers of the pool.
+         * @return the number of bytes read.
+         */
+        public long getBytesRead(){
+            return bytesRead;
+        }
+
+        /**
+         * Gets the number of buffers handed out by the pool.
+         * @return the number of acquired buffers.
+         */
+        public long getAcquired(){
+            return acquired;
+        }
+
+        /**
+         * Gets the number of acquired buffers that were reused instead of allocated.
+         * @return the number of reused buffers.
+         */
+        public long getReused(){
+            return reused;
+        }
+
+        /**
+         * Gets the number of buffers given back to the pool.
+         * @return the number of released buffers.
+         */
+        public long getReleased(){
+            return released;
+        }
+
+        /**
+         * Gets the total size of the buffers currently kept for reuse.
+         * @return the retained bytes.
+         */
+        public long getRetainedBytes(){
+            return retainedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("BufferPool.Statistics[bytesRead=%d, acquired=%d, reused=%d, released=%d, retainedBytes=%d]",
+                    bytesRead,acquired,reused,released,retainedBytes);
+        }
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package org.emerjoin.xmleasy;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link InputStream} that reads from a {@link ByteBuffer} without copying it.
+ */
+class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(ByteBuffer buffer){
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        if(!buffer.hasRemaining())
+            return -1;
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if(length==0)
+            return 0;
+        if(!buffer.hasRemaining())
+            return -1;
+        int count = Math.min(length,buffer.remaining());
+        buffer.get(bytes,offset,count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        if(n<=0)
+            return 0;
+        int count = (int) Math.min(n,buffer.remaining());
+        buffer.position(buffer.position()+count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+}
@@ -0,0 +1,387 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-document index of the child elements of each element, grouped by tag name.
+ * The children of an element are indexed the first time a tag name lookup is performed on it, so that repeated lookups
+ * on the same element are answered in constant time. Tag names are interned as ints, and the number of indexed
+ * elements is bounded: the least recently used entries are evicted once the limit is reached.
+ * The index lives in the {@link Document} user data and is collected with it. Indexed documents must not be modified.
+ * The index of an immutable {@link XMLEasy} document is complete instead: the children of every element are indexed
+ * when the document is loaded and never evicted, so lookups read it without locking and are not counted as hits.
+ * Object instances of this class are Thread-safe.
+ */
+public class ChildIndex {
+
+    static final String USER_DATA_KEY = ChildIndex.class.getName();
+
+    private static final Element[] NO_ELEMENTS = new Element[0];
+
+    private final int maxIndexedElements;
+    private final boolean complete;
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final Map<Element, Entry> entries;
+    private long estimatedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private ChildIndex(int maxIndexedElements){
+        this.maxIndexedElements = maxIndexedElements;
+        this.complete = false;
+        this.entries = new LinkedHashMap<Element, Entry>(16,0.75f,true){
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Element, Entry> eldest) {
+                if(size()<=ChildIndex.this.maxIndexedElements)
+                    return false;
+                estimatedBytes -= eldest.getValue().estimatedBytes;
+                evictions++;
+                return true;
+            }
+
+        };
+
+    }
+
+    /**
+     * Indexes the children of every element of a document, which must never be modified.
+     */
+    private ChildIndex(Document document){
+        this.complete = true;
+        this.entries = new HashMap<>();
+        Element root = document.getDocumentElement();
+        List<Element> pending = new ArrayList<>();
+        if(root!=null)
+            pending.add(root);
+        while(!pending.isEmpty()){
+            Element parent = pending.remove(pending.size()-1);
+            Entry entry = new Entry(parent);
+            //Elements without child elements are left out: a missing entry means no children
+            if(entry.children.length==0)
+                continue;
+            entries.put(parent,entry);
+            estimatedBytes += entry.estimatedBytes;
+            pending.addAll(Arrays.asList(entry.children));
+        }
+
+        this.maxIndexedElements = Math.max(entries.size(),1);
+
+    }
+
+    /**
+     * Replaces the index of a read-only {@link Document} with a complete index, built before the document is shared.
+     */
+    static ChildIndex complete(Document document){
+
+        synchronized (document){
+            ChildIndex index = of(document);
+            if(index!=null&&index.complete)
+                return index;
+            index = new ChildIndex(document);
+            document.setUserData(USER_DATA_KEY,index,null);
+            return index;
+        }
+
+    }
+
+    /**
+     * Enables child indexing on a {@link Document}. Has no effect if the document is already indexed.
+     * @param document the XML {@link Document}
+     * @param maxIndexedElements the maximum number of elements whose children are kept indexed
+     * @return the {@link ChildIndex} of the document.
+     * @throws IllegalArgumentException if the document is null or the maximum number of elements is not positive
+     */
+    public static ChildIndex enable(Document document, int maxIndexedElements){
+        if(document==null)
+            throw new IllegalArgumentException("Document must not be null");
+        if(maxIndexedElements<1)
+            throw new IllegalArgumentException("Maximum indexed elements must be greater than zero");
+        synchronized (document){
+            ChildIndex index = of(document);
+            if(index!=null)
+                return index;
+            index = new ChildIndex(maxIndexedElements);
+            document.setUserData(USER_DATA_KEY,index,null);
+            return index;
+        }
+
+    }
+
+    /**
+     * Gets the {@link ChildIndex} of a {@link Document}.
+     * @param document the XML {@link Document}
+     * @return the {@link ChildIndex} of the document or null if child indexing is not enabled for it.
+     */
+    public static ChildIndex of(Document document){
+        if(document==null)
+            return null;
+        Object index = document.getUserData(USER_DATA_KEY);
+        return index instanceof ChildIndex ? (ChildIndex) index : null;
+
+    }
+
+    Element first(Element parent, String tag){
+
+        Element[] children = children(parent,tag);
+        return children.length==0 ? null : children[0];
+
+    }
+
+    Element last(Element parent, String tag){
+
+        Element[] children = children(parent,tag);
+        return children.length==0 ? null : children[children.length-1];
+
+    }
+
+    List<Element> list(Element parent, String tag){
+
+        return new ArrayList<>(Arrays.asList(children(parent,tag)));
+
+    }
+
+    /**
+     * Gets the indexed child elements with a specific tag name. The returned array must not be modified.
+     */
+    Element[] children(Element parent, String tag){
+
+        if(complete){
+            //Never written once built
+            Entry entry = entries.get(parent);
+            return entry==null ? NO_ELEMENTS : select(entry,tag);
+        }
+
+        Element[] children;
+        int visitedNodes;
+        synchronized (this){
+            Entry entry = entries.get(parent);
+            if(entry!=null){
+                hits++;
+                return select(entry,tag);
+            }
+            misses++;
+            entry = new Entry(parent);
+            estimatedBytes += entry.estimatedBytes;
+            entries.put(parent,entry);
+            children = select(entry,tag);
+            visitedNodes = entry.visitedNodes;
+        }
+
+        //Hits are hashed lookups: only the lookup that indexes the children visits them
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        if(metrics!=XMLEasyMetrics.NONE)
+            metrics.navigated(visitedNodes);
+        return children;
+
+    }
+
+    private Element[] select(Entry entry, String tag){
+
+        if(tag==null||tag.equals("*"))
+            return entry.children;
+
+        Integer tagId = tagIds.get(tag);
+        if(tagId==null)
+            return NO_ELEMENTS;
+        return entry.get(tagId);
+
+    }
+
+    /**
+     * Checks if the children of every element were indexed up front, in which case lookups don't lock the index.
+     * @return true if the index is complete, otherwise false.
+     */
+    public boolean isComplete(){
+
+        return complete;
+
+    }
+
+    private int intern(String tag){
+
+        Integer id = tagIds.get(tag);
+        if(id==null){
+            id = tagIds.size();
+            tagIds.put(tag,id);
+        }
+
+        return id;
+
+    }
+
+    /**
+     * Removes every indexed entry. Must be invoked after the indexed document is modified.
+     * @throws IllegalStateException if the index is complete: the document it indexes can't be modified
+     */
+    public synchronized void clear(){
+        if(complete)
+            throw new IllegalStateException("Complete indexes of immutable documents can't be cleared");
+
+        entries.clear();
+        estimatedBytes = 0;
+
+    }
+
+    /**
+     * Gets the maximum number of elements whose children are kept indexed.
+     * @return the maximum number of indexed elements.
+     */
+    public int getMaxIndexedElements(){
+
+        return maxIndexedElements;
+
+    }
+
+    /**
+     * Gets the number of elements whose children are currently indexed.
+     * @return the number of indexed elements.
+     */
+    public synchronized int getIndexedElements(){
+
+        return entries.size();
+
+    }
+
+    /**
+     * Gets the number of distinct tag names interned by the index.
+     * @return the number of interned tag names.
+     */
+    public synchronized int getInternedTags(){
+
+        return tagIds.size();
+
+    }
+
+    /**
+     * Gets an estimate of the heap used by the indexed entries, in bytes.
+     * @return the estimated size of the index.
+     */
+    public synchronized long getEstimatedBytes(){
+
+        return estimatedBytes;
+
+    }
+
+    /**
+     * Gets the number of lookups answered by an already indexed element.
+     * @return the number of index hits.
+     */
+    public synchronized long getHits(){
+
+        return hits;
+
+    }
+
+    /**
+     * Gets the number of lookups that required the children of an element to be indexed.
+     * @return the number of index misses.
+     */
+    public synchronized long getMisses(){
+
+        return misses;
+
+    }
+
+    /**
+     * Gets the number of indexed elements evicted to keep the index within its bounds.
+     * @return the number of evictions.
+     */
+    public synchronized long getEvictions(){
+
+        return evictions;
+
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ChildIndex[indexedElements=%d, internedTags=%d, estimatedBytes=%d, hits=%d, misses=%d, evictions=%d]",
+                entries.size(),tagIds.size(),estimatedBytes,hits,misses,evictions);
+    }
+
+    /**
+     * Indexed children of one element: the element children in document order plus an open-addressing table that maps
+     * each tag id to the children with that tag.
+     */
+    private class Entry {
+
+        private final Element[] children;
+        private final int[] keys;
+        private final Element[][] values;
+        private final long estimatedBytes;
+        private final int visitedNodes;
+
+        private Entry(Element parent){
+
+            List<Element> elements = new ArrayList<>();
+            int visited = 0;
+            for(Node node = parent.getFirstChild(); node!=null; node = node.getNextSibling()){
+                visited++;
+                if(node.getNodeType()==Node.ELEMENT_NODE)
+                    elements.add((Element) node);
+            }
+
+            this.children = elements.toArray(NO_ELEMENTS);
+            this.visitedNodes = visited;
+            int[] ids = new int[children.length];
+            int[] counts = new int[children.length];
+            int distinct = 0;
+            int capacity = Integer.highestOneBit(Math.max(children.length,1)*2);
+            this.keys = new int[capacity];
+            int[] slots = new int[capacity];
+            for(int i=0;i<children.length;i++){
+                ids[i] = intern(children[i].getTagName());
+                int slot = slot(ids[i]);
+                if(keys[slot]==0){
+                    keys[slot] = ids[i]+1;
+                    slots[slot] = distinct++;
+                }
+                counts[slots[slot]]++;
+            }
+
+            this.values = new Element[capacity][];
+            for(int slot=0;slot<capacity;slot++){
+                if(keys[slot]!=0)
+                    values[slot] = new Element[counts[slots[slot]]];
+            }
+
+            int[] filled = new int[capacity];
+            for(int i=0;i<children.length;i++){
+                int slot = slot(ids[i]);
+                values[slot][filled[slot]++] = children[i];
+            }
+
+            this.estimatedBytes = 64 + 16L * capacity + 8L * children.length * 2 + 16L * distinct;
+
+        }
+
+        private int slot(int id){
+
+            int mask = keys.length-1;
+            int slot = (id * 0x9E3779B9) >>> 16 & mask;
+            while(keys[slot]!=0&&keys[slot]!=id+1)
+                slot = (slot+1) & mask;
+            return slot;
+
+        }
+
+        private Element[] get(int id){
+
+            int slot = slot(id);
+            return keys[slot]==0 ? NO_ELEMENTS : values[slot];
+
+        }
+
+    }
+
+}
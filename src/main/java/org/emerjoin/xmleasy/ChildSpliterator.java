@@ -0,0 +1,66 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Lazy {@link Spliterator} over the child elements of an element, following the sibling chain.
+ * Children are only visited as the stream consumes them, so short-circuiting operations stop early.
+ */
+class ChildSpliterator implements Spliterator<Element> {
+
+    private final String tag;
+    private Node next;
+
+    ChildSpliterator(Element parent, String tag){
+        this.tag = tag;
+        this.next = parent.getFirstChild();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Element> action) {
+
+        while(next!=null){
+            Node node = next;
+            next = node.getNextSibling();
+            if(XMLEasy.matches(node,tag)){
+                action.accept((Element) node);
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Element> action) {
+
+        Node node = next;
+        next = null;
+        for(; node!=null; node = node.getNextSibling()){
+            if(XMLEasy.matches(node,tag))
+                action.accept((Element) node);
+        }
+
+    }
+
+    @Override
+    public Spliterator<Element> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return next==null ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL;
+    }
+
+}
@@ -0,0 +1,124 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+
+/**
+ * Read-only {@link Attr} view of an attribute of a {@link CompactDocument}. The index of the view is the attribute
+ * index, not a tree index.
+ */
+class CompactAttr extends CompactNode implements Attr {
+
+    private final int owner;
+
+    CompactAttr(CompactDocument document, int attribute, int owner){
+        super(document,attribute);
+        this.owner = owner;
+    }
+
+    @Override
+    int treeIndex() {
+        return owner;
+    }
+
+    @Override
+    public String getNodeName() {
+        return document.attributeName(index);
+    }
+
+    @Override
+    public short getNodeType() {
+        return ATTRIBUTE_NODE;
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return document.attributeValue(index);
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+        return document.attributeValue(index);
+    }
+
+    @Override
+    public Node getParentNode() {
+        return null;
+    }
+
+    @Override
+    public NodeList getChildNodes() {
+        return new CompactNodeList(document,CompactNodeList.NO_NODES);
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return null;
+    }
+
+    @Override
+    public Node getLastChild() {
+        return null;
+    }
+
+    @Override
+    public Node getPreviousSibling() {
+        return null;
+    }
+
+    @Override
+    public Node getNextSibling() {
+        return null;
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return false;
+    }
+
+    @Override
+    public boolean isEqualNode(Node other) {
+        return other!=null&&other.getNodeType()==ATTRIBUTE_NODE&&getName().equals(other.getNodeName())
+                &&getValue().equals(other.getNodeValue());
+    }
+
+    @Override
+    public String getName() {
+        return document.attributeName(index);
+    }
+
+    @Override
+    public boolean getSpecified() {
+        return true;
+    }
+
+    @Override
+    public String getValue() {
+        return document.attributeValue(index);
+    }
+
+    @Override
+    public void setValue(String value) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Element getOwnerElement() {
+        return new CompactElement(document,owner);
+    }
+
+    @Override
+    public TypeInfo getSchemaTypeInfo() {
+        return null;
+    }
+
+    @Override
+    public boolean isId() {
+        return false;
+    }
+
+}
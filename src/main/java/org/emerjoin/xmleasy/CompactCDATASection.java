@@ -0,0 +1,24 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.CDATASection;
+
+/**
+ * Read-only {@link CDATASection} view of a CDATA node of a {@link CompactDocument}.
+ */
+class CompactCDATASection extends CompactText implements CDATASection {
+
+    CompactCDATASection(CompactDocument document, int index){
+        super(document,index);
+    }
+
+    @Override
+    public String getNodeName() {
+        return "#cdata-section";
+    }
+
+    @Override
+    public short getNodeType() {
+        return CDATA_SECTION_NODE;
+    }
+
+}
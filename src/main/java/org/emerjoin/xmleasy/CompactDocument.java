@@ -0,0 +1,394 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Node;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, read-only representation of an XML document as a struct of arrays.
+ * Each node is a fixed-size record of ints: kind, parent, first/last child, previous/next sibling, interned tag name
+ * id and either the offset/length of its text in a single char buffer or the range of its attributes. Attributes are
+ * records of ints as well. The records live in {@link IntBuffer}s and the text in a {@link CharBuffer}, which either wrap
+ * heap arrays or a memory-mapped {@link CompactStore} file. The document is exposed through {@link CompactNode}
+ * flyweights that implement the read-only part of the W3C DOM API, so that {@link XMLEasy} navigates it unchanged.
+ * Object instances of this class are immutable.
+ */
+final class CompactDocument {
+
+    static final int NONE = -1;
+    static final byte ELEMENT = Node.ELEMENT_NODE;
+    static final byte TEXT = Node.TEXT_NODE;
+    static final byte CDATA = Node.CDATA_SECTION_NODE;
+
+    static final int NODE_SIZE = 9;
+    static final int ATTRIBUTE_SIZE = 3;
+
+    private static final int KIND = 0;
+    private static final int PARENT = 1;
+    private static final int FIRST_CHILD = 2;
+    private static final int LAST_CHILD = 3;
+    private static final int PREVIOUS_SIBLING = 4;
+    private static final int NEXT_SIBLING = 5;
+    private static final int NAME = 6;
+    private static final int START = 7;
+    private static final int LENGTH = 8;
+
+    private static final int ATTRIBUTE_NAME = 0;
+    private static final int ATTRIBUTE_OFFSET = 1;
+    private static final int ATTRIBUTE_LENGTH = 2;
+
+    private final int nodeCount;
+    private final IntBuffer nodes;
+    private final IntBuffer attributes;
+    private final CharBuffer chars;
+    private final String[] names;
+    private final CompactDocumentNode documentNode;
+
+    CompactDocument(int nodeCount, IntBuffer nodes, IntBuffer attributes, CharBuffer chars, String[] names){
+
+        this.nodeCount = nodeCount;
+        this.nodes = nodes;
+        this.attributes = attributes;
+        this.chars = chars;
+        this.names = names;
+        this.documentNode = new CompactDocumentNode(this);
+
+    }
+
+    /**
+     * Builds a heap {@link CompactDocument} out of the events of a reader positioned before the root element.
+     * @param reader the reader
+     * @param stripWhitespace whether whitespace-only text nodes must be dropped
+     */
+    static CompactDocument parse(XMLStreamReader reader, boolean stripWhitespace) throws XMLStreamException {
+
+        return read(reader,stripWhitespace).build();
+
+    }
+
+    /**
+     * Reads the events of a reader positioned before the root element into a {@link Builder}.
+     * @param reader the reader
+     * @param stripWhitespace whether whitespace-only text nodes must be dropped
+     */
+    static Builder read(XMLStreamReader reader, boolean stripWhitespace) throws XMLStreamException {
+
+        Builder builder = new Builder();
+        int current = NONE;
+        while(reader.hasNext()){
+
+            switch (reader.next()){
+                case XMLStreamConstants.START_ELEMENT:
+                    current = builder.startElement(reader,current);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = builder.nodes[current*NODE_SIZE+PARENT];
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    if(current!=NONE&&!(stripWhitespace&&reader.isWhiteSpace()))
+                        builder.text(reader,current,TEXT);
+                    break;
+                case XMLStreamConstants.CDATA:
+                    if(current!=NONE)
+                        builder.text(reader,current,CDATA);
+                    break;
+                default:
+                    break;
+            }
+
+        }
+
+        if(builder.nodeCount==0)
+            throw new XMLException("XML Document has no root element");
+        return builder;
+
+    }
+
+    CompactDocumentNode getDocumentNode(){
+        return documentNode;
+    }
+
+    CompactNode node(int index){
+
+        if(index==NONE)
+            return null;
+        switch (kind(index)){
+            case ELEMENT:
+                return new CompactElement(this,index);
+            case CDATA:
+                return new CompactCDATASection(this,index);
+            default:
+                return new CompactText(this,index);
+        }
+
+    }
+
+    private int field(int index, int field){
+        return nodes.get(index*NODE_SIZE+field);
+    }
+
+    int nodeCount(){
+        return nodeCount;
+    }
+
+    byte kind(int index){
+        return (byte) field(index,KIND);
+    }
+
+    int parent(int index){
+        return field(index,PARENT);
+    }
+
+    int firstChild(int index){
+        return field(index,FIRST_CHILD);
+    }
+
+    int lastChild(int index){
+        return field(index,LAST_CHILD);
+    }
+
+    int previousSibling(int index){
+        return field(index,PREVIOUS_SIBLING);
+    }
+
+    int nextSibling(int index){
+        return field(index,NEXT_SIBLING);
+    }
+
+    /**
+     * Nodes are stored in document order, so the descendants of a node are the nodes between its index and the index
+     * returned by this method.
+     * @return the index that follows the last descendant of the node.
+     */
+    int subtreeEnd(int index){
+
+        for(int node=index;node!=NONE;node=parent(node)){
+            int next = nextSibling(node);
+            if(next!=NONE)
+                return next;
+        }
+
+        return nodeCount;
+
+    }
+
+    boolean isAncestor(int ancestor, int index){
+
+        if(ancestor==NONE)
+            return true;
+        return index>ancestor&&index<subtreeEnd(ancestor);
+
+    }
+
+    String name(int index){
+        return names[field(index,NAME)];
+    }
+
+    String text(int index){
+        int offset = field(index,START);
+        return chars.subSequence(offset,offset+field(index,LENGTH)).toString();
+    }
+
+    /**
+     * Gets a view of the text of a node, without copying it.
+     */
+    CharSequence textChars(int index){
+        int offset = field(index,START);
+        return chars.subSequence(offset,offset+field(index,LENGTH));
+    }
+
+    int textLength(int index){
+        return field(index,LENGTH);
+    }
+
+    void appendText(int index, StringBuilder builder){
+        int offset = field(index,START);
+        builder.append(chars,offset,offset+field(index,LENGTH));
+    }
+
+    int attributeCount(int index){
+        return kind(index)==ELEMENT ? field(index,LENGTH) : 0;
+    }
+
+    /**
+     * Finds the attribute of an element with a specific name.
+     * @return the global attribute index or {@link #NONE} if the element has no such attribute.
+     */
+    int attribute(int index, String attribute){
+
+        int start = field(index,START);
+        int end = start+field(index,LENGTH);
+        for(int i=start;i<end;i++){
+            if(attributeName(i).equals(attribute))
+                return i;
+        }
+
+        return NONE;
+
+    }
+
+    int attributeAt(int index, int position){
+        return field(index,START)+position;
+    }
+
+    String attributeName(int attribute){
+        return names[attributes.get(attribute*ATTRIBUTE_SIZE+ATTRIBUTE_NAME)];
+    }
+
+    String attributeValue(int attribute){
+        int offset = attributes.get(attribute*ATTRIBUTE_SIZE+ATTRIBUTE_OFFSET);
+        int length = attributes.get(attribute*ATTRIBUTE_SIZE+ATTRIBUTE_LENGTH);
+        return chars.subSequence(offset,offset+length).toString();
+    }
+
+    /**
+     * Gets a view of the value of an attribute, without copying it.
+     */
+    CharSequence attributeChars(int attribute){
+        int offset = attributes.get(attribute*ATTRIBUTE_SIZE+ATTRIBUTE_OFFSET);
+        int length = attributes.get(attribute*ATTRIBUTE_SIZE+ATTRIBUTE_LENGTH);
+        return chars.subSequence(offset,offset+length);
+    }
+
+    /**
+     * Accumulates the node and attribute records of a document in growable heap arrays.
+     */
+    static final class Builder {
+
+        int nodeCount;
+        int attributeCount;
+        int charCount;
+        int[] nodes = new int[1024*NODE_SIZE];
+        int[] attributes = new int[256*ATTRIBUTE_SIZE];
+        char[] chars = new char[8192];
+        final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> nameIds = new HashMap<>();
+
+        CompactDocument build(){
+
+            return new CompactDocument(nodeCount,
+                    IntBuffer.wrap(Arrays.copyOf(nodes,nodeCount*NODE_SIZE)),
+                    IntBuffer.wrap(Arrays.copyOf(attributes,attributeCount*ATTRIBUTE_SIZE)),
+                    CharBuffer.wrap(Arrays.copyOf(chars,charCount)),
+                    names.toArray(new String[0]));
+
+        }
+
+        private int startElement(XMLStreamReader reader, int parent){
+
+            int index = node(ELEMENT,parent);
+            int record = index*NODE_SIZE;
+            nodes[record+NAME] = intern(FragmentBuilder.qualifiedName(reader.getPrefix(),reader.getLocalName()));
+            nodes[record+START] = attributeCount;
+            for(int i=0;i<reader.getNamespaceCount();i++){
+                String prefix = reader.getNamespacePrefix(i);
+                String uri = reader.getNamespaceURI(i);
+                attribute(prefix==null||prefix.isEmpty() ? "xmlns" : "xmlns:"+prefix, uri==null ? "" : uri);
+            }
+
+            for(int i=0;i<reader.getAttributeCount();i++)
+                attribute(FragmentBuilder.qualifiedName(reader.getAttributePrefix(i),reader.getAttributeLocalName(i)),
+                        reader.getAttributeValue(i));
+
+            nodes[record+LENGTH] = attributeCount-nodes[record+START];
+            return index;
+
+        }
+
+        private void text(XMLStreamReader reader, int parent, byte type){
+
+            int length = reader.getTextLength();
+            int record = node(type,parent)*NODE_SIZE;
+            nodes[record+START] = charCount;
+            nodes[record+LENGTH] = length;
+            ensureChars(length);
+            System.arraycopy(reader.getTextCharacters(),reader.getTextStart(),chars,charCount,length);
+            charCount += length;
+
+        }
+
+        private int node(byte type, int parent){
+
+            if((nodeCount+1)*NODE_SIZE>nodes.length)
+                nodes = Arrays.copyOf(nodes,grow(nodes.length));
+            int index = nodeCount++;
+            int record = index*NODE_SIZE;
+            nodes[record+KIND] = type;
+            nodes[record+PARENT] = parent;
+            nodes[record+FIRST_CHILD] = NONE;
+            nodes[record+LAST_CHILD] = NONE;
+            nodes[record+NEXT_SIBLING] = NONE;
+            nodes[record+NAME] = NONE;
+            nodes[record+PREVIOUS_SIBLING] = NONE;
+            if(parent!=NONE){
+                int parentRecord = parent*NODE_SIZE;
+                int last = nodes[parentRecord+LAST_CHILD];
+                if(last==NONE)
+                    nodes[parentRecord+FIRST_CHILD] = index;
+                else
+                    nodes[last*NODE_SIZE+NEXT_SIBLING] = index;
+                nodes[record+PREVIOUS_SIBLING] = last;
+                nodes[parentRecord+LAST_CHILD] = index;
+            }
+
+            return index;
+
+        }
+
+        private void attribute(String attribute, String value){
+
+            if((attributeCount+1)*ATTRIBUTE_SIZE>attributes.length)
+                attributes = Arrays.copyOf(attributes,grow(attributes.length));
+            int record = attributeCount++*ATTRIBUTE_SIZE;
+            attributes[record+ATTRIBUTE_NAME] = intern(attribute);
+            attributes[record+ATTRIBUTE_OFFSET] = charCount;
+            attributes[record+ATTRIBUTE_LENGTH] = value.length();
+            ensureChars(value.length());
+            value.getChars(0,value.length(),chars,charCount);
+            charCount += value.length();
+
+        }
+
+        private int intern(String value){
+
+            Integer id = nameIds.get(value);
+            if(id==null){
+                id = names.size();
+                nameIds.put(value,id);
+                names.add(value);
+            }
+
+            return id;
+
+        }
+
+        private void ensureChars(int length){
+
+            if(charCount+length<=chars.length)
+                return;
+            chars = Arrays.copyOf(chars,Math.max(grow(chars.length),charCount+length));
+
+        }
+
+        private static int grow(int capacity){
+
+            long grown = (long) capacity*2;
+            if(grown>Integer.MAX_VALUE-8)
+                throw new XMLDocumentTooLargeException(Integer.MAX_VALUE-8);
+            return (int) grown;
+
+        }
+
+    }
+
+}
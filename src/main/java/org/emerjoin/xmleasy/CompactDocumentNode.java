@@ -0,0 +1,258 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMConfiguration;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.EntityReference;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+import org.w3c.dom.UserDataHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only {@link Document} view of a {@link CompactDocument}. Unlike the other views, it supports user data, so that
+ * features such as the {@link ChildIndex} can be attached to compact documents.
+ */
+class CompactDocumentNode extends CompactNode implements Document {
+
+    private static final int ROOT = 0;
+
+    //Read by every XMLEasy instance that resolves the ChildIndex: lookups must not lock
+    private final Map<String, Object> userData = new ConcurrentHashMap<>();
+
+    CompactDocumentNode(CompactDocument document){
+        super(document,CompactDocument.NONE);
+    }
+
+    @Override
+    public String getNodeName() {
+        return "#document";
+    }
+
+    @Override
+    public short getNodeType() {
+        return DOCUMENT_NODE;
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+        return null;
+    }
+
+    @Override
+    public Node getParentNode() {
+        return null;
+    }
+
+    @Override
+    public NodeList getChildNodes() {
+        return new CompactNodeList(document,new int[]{ROOT});
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return document.node(ROOT);
+    }
+
+    @Override
+    public Node getLastChild() {
+        return document.node(ROOT);
+    }
+
+    @Override
+    public Node getPreviousSibling() {
+        return null;
+    }
+
+    @Override
+    public Node getNextSibling() {
+        return null;
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return true;
+    }
+
+    @Override
+    public Document getOwnerDocument() {
+        return null;
+    }
+
+    @Override
+    public Object setUserData(String key, Object data, UserDataHandler handler) {
+        return data==null ? userData.remove(key) : userData.put(key,data);
+    }
+
+    @Override
+    public Object getUserData(String key) {
+        return userData.get(key);
+    }
+
+    @Override
+    public DocumentType getDoctype() {
+        return null;
+    }
+
+    @Override
+    public DOMImplementation getImplementation() {
+        return null;
+    }
+
+    @Override
+    public Element getDocumentElement() {
+        return (Element) document.node(ROOT);
+    }
+
+    @Override
+    public Element createElement(String tagName) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public DocumentFragment createDocumentFragment() {
+        throw readOnly();
+    }
+
+    @Override
+    public Text createTextNode(String data) {
+        throw readOnly();
+    }
+
+    @Override
+    public Comment createComment(String data) {
+        throw readOnly();
+    }
+
+    @Override
+    public CDATASection createCDATASection(String data) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public ProcessingInstruction createProcessingInstruction(String target, String data) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Attr createAttribute(String name) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public EntityReference createEntityReference(String name) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public NodeList getElementsByTagName(String tagname) {
+        return CompactElement.elementsByTagName(document,ROOT,document.nodeCount(),tagname);
+    }
+
+    @Override
+    public Node importNode(Node importedNode, boolean deep) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Element createElementNS(String namespaceURI, String qualifiedName) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Attr createAttributeNS(String namespaceURI, String qualifiedName) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public NodeList getElementsByTagNameNS(String namespaceURI, String localName) {
+        return new CompactNodeList(document,CompactNodeList.NO_NODES);
+    }
+
+    @Override
+    public Element getElementById(String elementId) {
+        return null;
+    }
+
+    @Override
+    public String getInputEncoding() {
+        return null;
+    }
+
+    @Override
+    public String getXmlEncoding() {
+        return null;
+    }
+
+    @Override
+    public boolean getXmlStandalone() {
+        return false;
+    }
+
+    @Override
+    public void setXmlStandalone(boolean xmlStandalone) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public String getXmlVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public void setXmlVersion(String xmlVersion) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean getStrictErrorChecking() {
+        return true;
+    }
+
+    @Override
+    public void setStrictErrorChecking(boolean strictErrorChecking) {
+        throw readOnly();
+    }
+
+    @Override
+    public String getDocumentURI() {
+        return null;
+    }
+
+    @Override
+    public void setDocumentURI(String documentURI) {
+        throw readOnly();
+    }
+
+    @Override
+    public Node adoptNode(Node source) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public DOMConfiguration getDomConfig() {
+        return null;
+    }
+
+    @Override
+    public void normalizeDocument() {
+        //Adjacent text is coalesced while parsing
+    }
+
+    @Override
+    public Node renameNode(Node n, String namespaceURI, String qualifiedName) throws DOMException {
+        throw readOnly();
+    }
+
+}
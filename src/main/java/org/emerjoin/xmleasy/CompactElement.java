@@ -0,0 +1,233 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+
+import java.util.Arrays;
+
+/**
+ * Read-only {@link Element} view of an element of a {@link CompactDocument}.
+ */
+class CompactElement extends CompactNode implements Element {
+
+    CompactElement(CompactDocument document, int index){
+        super(document,index);
+    }
+
+    @Override
+    public String getNodeName() {
+        return document.name(index);
+    }
+
+    @Override
+    public short getNodeType() {
+        return ELEMENT_NODE;
+    }
+
+    @Override
+    public String getTagName() {
+        return document.name(index);
+    }
+
+    @Override
+    public NamedNodeMap getAttributes() {
+        return new Attributes();
+    }
+
+    @Override
+    public boolean hasAttributes() {
+        return document.attributeCount(index)>0;
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        int attribute = document.attribute(index,name);
+        return attribute==CompactDocument.NONE ? "" : document.attributeValue(attribute);
+    }
+
+    @Override
+    public boolean hasAttribute(String name) {
+        return document.attribute(index,name)!=CompactDocument.NONE;
+    }
+
+    @Override
+    public Attr getAttributeNode(String name) {
+        int attribute = document.attribute(index,name);
+        return attribute==CompactDocument.NONE ? null : new CompactAttr(document,attribute,index);
+    }
+
+    @Override
+    public void setAttribute(String name, String value) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAttribute(String name) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Attr setAttributeNode(Attr newAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Attr removeAttributeNode(Attr oldAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public NodeList getElementsByTagName(String name) {
+        return elementsByTagName(document,index+1,document.subtreeEnd(index),name);
+    }
+
+    /**
+     * Lists the elements with a specific tag name within a range of node indexes, in document order.
+     */
+    static NodeList elementsByTagName(CompactDocument document, int from, int to, String name){
+
+        boolean any = "*".equals(name);
+        int[] matches = new int[16];
+        int count = 0;
+        for(int node=from;node<to;node++){
+            if(document.kind(node)!=CompactDocument.ELEMENT||!(any||document.name(node).equals(name)))
+                continue;
+            if(count==matches.length)
+                matches = Arrays.copyOf(matches,count*2);
+            matches[count++] = node;
+        }
+
+        return new CompactNodeList(document,Arrays.copyOf(matches,count));
+
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+
+        int first = document.firstChild(index);
+        if(first==CompactDocument.NONE)
+            return "";
+        if(document.nextSibling(first)==CompactDocument.NONE&&document.kind(first)!=CompactDocument.ELEMENT)
+            return document.text(first);
+
+        StringBuilder builder = new StringBuilder();
+        int end = document.subtreeEnd(index);
+        for(int node=first;node<end;node++){
+            if(document.kind(node)!=CompactDocument.ELEMENT)
+                document.appendText(node,builder);
+        }
+
+        return builder.toString();
+
+    }
+
+    @Override
+    public String getAttributeNS(String namespaceURI, String localName) throws DOMException {
+        return "";
+    }
+
+    @Override
+    public void setAttributeNS(String namespaceURI, String qualifiedName, String value) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeAttributeNS(String namespaceURI, String localName) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Attr getAttributeNodeNS(String namespaceURI, String localName) throws DOMException {
+        return null;
+    }
+
+    @Override
+    public Attr setAttributeNodeNS(Attr newAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public NodeList getElementsByTagNameNS(String namespaceURI, String localName) throws DOMException {
+        return new CompactNodeList(document,CompactNodeList.NO_NODES);
+    }
+
+    @Override
+    public boolean hasAttributeNS(String namespaceURI, String localName) throws DOMException {
+        return false;
+    }
+
+    @Override
+    public TypeInfo getSchemaTypeInfo() {
+        return null;
+    }
+
+    @Override
+    public void setIdAttribute(String name, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void setIdAttributeNS(String namespaceURI, String localName, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void setIdAttributeNode(Attr idAttr, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    /**
+     * Attributes of the element, in document order.
+     */
+    private class Attributes implements NamedNodeMap {
+
+        @Override
+        public Node getNamedItem(String name) {
+            return getAttributeNode(name);
+        }
+
+        @Override
+        public Node setNamedItem(Node arg) throws DOMException {
+            throw readOnly();
+        }
+
+        @Override
+        public Node removeNamedItem(String name) throws DOMException {
+            throw readOnly();
+        }
+
+        @Override
+        public Node item(int position) {
+            if(position<0||position>=getLength())
+                return null;
+            return new CompactAttr(document,document.attributeAt(index,position),index);
+        }
+
+        @Override
+        public int getLength() {
+            return document.attributeCount(index);
+        }
+
+        @Override
+        public Node getNamedItemNS(String namespaceURI, String localName) throws DOMException {
+            return null;
+        }
+
+        @Override
+        public Node setNamedItemNS(Node arg) throws DOMException {
+            throw readOnly();
+        }
+
+        @Override
+        public Node removeNamedItemNS(String namespaceURI, String localName) throws DOMException {
+            throw readOnly();
+        }
+
+    }
+
+}
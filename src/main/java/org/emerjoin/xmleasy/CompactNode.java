@@ -0,0 +1,292 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.UserDataHandler;
+
+/**
+ * Read-only W3C DOM view of one node of a {@link CompactDocument}.
+ * Views are flyweights: they only hold the document and the node index, are created on demand and two views of the
+ * same node are equal. Every mutation method throws a {@link DOMException} with the
+ * {@link DOMException#NO_MODIFICATION_ALLOWED_ERR} code.
+ */
+abstract class CompactNode implements Node {
+
+    final CompactDocument document;
+    final int index;
+
+    CompactNode(CompactDocument document, int index){
+        this.document = document;
+        this.index = index;
+    }
+
+    static DOMException readOnly(){
+
+        return new DOMException(DOMException.NO_MODIFICATION_ALLOWED_ERR,"Compact XML documents are read-only");
+
+    }
+
+    /**
+     * Gets the index of the node that represents this one in the document order.
+     * @return the tree index or {@link CompactDocument#NONE} for the document node.
+     */
+    int treeIndex(){
+        return index;
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return null;
+    }
+
+    @Override
+    public void setNodeValue(String nodeValue) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Node getParentNode() {
+        int parent = document.parent(index);
+        return parent==CompactDocument.NONE ? document.getDocumentNode() : document.node(parent);
+    }
+
+    @Override
+    public NodeList getChildNodes() {
+
+        int count = 0;
+        for(int child=document.firstChild(index);child!=CompactDocument.NONE;child=document.nextSibling(child))
+            count++;
+        if(count==0)
+            return new CompactNodeList(document,CompactNodeList.NO_NODES);
+
+        int[] children = new int[count];
+        int position = 0;
+        for(int child=document.firstChild(index);child!=CompactDocument.NONE;child=document.nextSibling(child))
+            children[position++] = child;
+        return new CompactNodeList(document,children);
+
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return document.node(document.firstChild(index));
+    }
+
+    @Override
+    public Node getLastChild() {
+        return document.node(document.lastChild(index));
+    }
+
+    @Override
+    public Node getPreviousSibling() {
+        return document.node(document.previousSibling(index));
+    }
+
+    @Override
+    public Node getNextSibling() {
+        return document.node(document.nextSibling(index));
+    }
+
+    @Override
+    public NamedNodeMap getAttributes() {
+        return null;
+    }
+
+    @Override
+    public Document getOwnerDocument() {
+        return document.getDocumentNode();
+    }
+
+    @Override
+    public Node insertBefore(Node newChild, Node refChild) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Node replaceChild(Node newChild, Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Node removeChild(Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Node appendChild(Node newChild) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return document.firstChild(index)!=CompactDocument.NONE;
+    }
+
+    @Override
+    public Node cloneNode(boolean deep) {
+        throw new DOMException(DOMException.NOT_SUPPORTED_ERR,"Compact XML nodes can't be cloned");
+    }
+
+    @Override
+    public void normalize() {
+        //Adjacent text is coalesced while parsing
+    }
+
+    @Override
+    public boolean isSupported(String feature, String version) {
+        return false;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return null;
+    }
+
+    @Override
+    public String getPrefix() {
+        return null;
+    }
+
+    @Override
+    public void setPrefix(String prefix) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public String getLocalName() {
+        return null;
+    }
+
+    @Override
+    public boolean hasAttributes() {
+        return false;
+    }
+
+    @Override
+    public String getBaseURI() {
+        return null;
+    }
+
+    @Override
+    public short compareDocumentPosition(Node other) throws DOMException {
+
+        if(!(other instanceof CompactNode)||((CompactNode) other).document!=document)
+            return (short) (DOCUMENT_POSITION_DISCONNECTED | DOCUMENT_POSITION_IMPLEMENTATION_SPECIFIC | DOCUMENT_POSITION_FOLLOWING);
+        if(equals(other))
+            return 0;
+
+        int self = treeIndex();
+        int node = ((CompactNode) other).treeIndex();
+        if(self==node)
+            return (short) (other instanceof CompactAttr ? DOCUMENT_POSITION_FOLLOWING | DOCUMENT_POSITION_CONTAINED_BY
+                    : DOCUMENT_POSITION_PRECEDING | DOCUMENT_POSITION_CONTAINS);
+        if(document.isAncestor(self,node))
+            return (short) (DOCUMENT_POSITION_FOLLOWING | DOCUMENT_POSITION_CONTAINED_BY);
+        if(document.isAncestor(node,self))
+            return (short) (DOCUMENT_POSITION_PRECEDING | DOCUMENT_POSITION_CONTAINS);
+        return node<self ? DOCUMENT_POSITION_PRECEDING : DOCUMENT_POSITION_FOLLOWING;
+
+    }
+
+    @Override
+    public void setTextContent(String textContent) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isSameNode(Node other) {
+        return equals(other);
+    }
+
+    @Override
+    public String lookupPrefix(String namespaceURI) {
+        return null;
+    }
+
+    @Override
+    public boolean isDefaultNamespace(String namespaceURI) {
+        return false;
+    }
+
+    @Override
+    public String lookupNamespaceURI(String prefix) {
+        return null;
+    }
+
+    @Override
+    public boolean isEqualNode(Node other) {
+
+        if(other==null||other.getNodeType()!=getNodeType())
+            return false;
+        if(!equal(getNodeName(),other.getNodeName())||!equal(getNodeValue(),other.getNodeValue()))
+            return false;
+
+        NamedNodeMap attributes = getAttributes();
+        NamedNodeMap otherAttributes = other.getAttributes();
+        int count = attributes==null ? 0 : attributes.getLength();
+        if(count!=(otherAttributes==null ? 0 : otherAttributes.getLength()))
+            return false;
+        for(int i=0;i<count;i++){
+            Node attribute = attributes.item(i);
+            if(!attribute.isEqualNode(otherAttributes.getNamedItem(attribute.getNodeName())))
+                return false;
+        }
+
+        Node child = getFirstChild();
+        Node otherChild = other.getFirstChild();
+        while(child!=null&&otherChild!=null){
+            if(!child.isEqualNode(otherChild))
+                return false;
+            child = child.getNextSibling();
+            otherChild = otherChild.getNextSibling();
+        }
+
+        return child==null&&otherChild==null;
+
+    }
+
+    private static boolean equal(String value, String other){
+        return value==null ? other==null : value.equals(other);
+    }
+
+    @Override
+    public Object getFeature(String feature, String version) {
+        return null;
+    }
+
+    @Override
+    public Object setUserData(String key, Object data, UserDataHandler handler) {
+        throw readOnly();
+    }
+
+    @Override
+    public Object getUserData(String key) {
+        return null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+
+        if(this==other)
+            return true;
+        if(other==null||other.getClass()!=getClass())
+            return false;
+        CompactNode node = (CompactNode) other;
+        return node.document==document&&node.index==index;
+
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(document) + index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s: %s]",getNodeName(),getNodeValue());
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * {@link NodeList} over the indexes of nodes of a {@link CompactDocument}.
+ */
+class CompactNodeList implements NodeList {
+
+    static final int[] NO_NODES = new int[0];
+
+    private final CompactDocument document;
+    private final int[] indexes;
+
+    CompactNodeList(CompactDocument document, int[] indexes){
+        this.document = document;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public Node item(int index) {
+        if(index<0||index>=indexes.length)
+            return null;
+        return document.node(indexes[index]);
+    }
+
+    @Override
+    public int getLength() {
+        return indexes.length;
+    }
+
+}
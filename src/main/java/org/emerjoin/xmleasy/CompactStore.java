@@ -0,0 +1,245 @@
+package org.emerjoin.xmleasy;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary index of a {@link CompactDocument}, stored in a file next to the XML document and memory-mapped when loaded.
+ * The index starts with a header that records the size and CRC32 checksum of the source document, followed by the
+ * node records, the attribute records, the char buffer and the tag name dictionary. Only the dictionary is copied into
+ * the heap: navigation reads the mapped records directly, so loading an existing index costs the checksum of the
+ * source plus a few system calls, and the pages are shared by every process that maps the same index.
+ * Indexes that don't match their source are rebuilt, written to a temporary file and atomically moved into place.
+ */
+final class CompactStore {
+
+    static final String INDEX_EXTENSION = ".xmleasy";
+
+    private static final int MAGIC = 0x58454958;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int STRIP_WHITESPACE = 1;
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private CompactStore(){
+
+    }
+
+    /**
+     * Loads the index of an XML document, building it first if it doesn't exist or doesn't match the document.
+     * @param source the XML document file
+     * @param index the index file
+     * @param stripWhitespace whether whitespace-only text nodes must be dropped
+     * @return the mapped {@link CompactDocument}.
+     */
+    static CompactDocument load(File source, File index, boolean stripWhitespace) throws IOException, XMLStreamException {
+
+        long length = source.length();
+        long checksum = checksum(source);
+        int flags = stripWhitespace ? STRIP_WHITESPACE : 0;
+        if(index.isFile()){
+            CompactDocument document = open(index,length,checksum,flags);
+            if(document!=null)
+                return document;
+        }
+
+        CompactDocument.Builder builder;
+        try(InputStream input = new BufferedInputStream(new FileInputStream(source))){
+            XMLStreamReader reader = XMLEasyStream.createReader(input);
+            try {
+                builder = CompactDocument.read(reader,stripWhitespace);
+            }finally {
+                reader.close();
+            }
+        }
+
+        write(builder,index,length,checksum,flags);
+        CompactDocument document = open(index,length,checksum,flags);
+        if(document==null)
+            throw new XMLException(String.format("Index [%s] was modified while being loaded",index));
+        return document;
+
+    }
+
+    private static long checksum(File file) throws IOException {
+
+        CRC32 crc = new CRC32();
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file,"r");
+            FileChannel channel = randomAccessFile.getChannel()){
+            long size = channel.size();
+            for(long position=0;position<size;position+=Integer.MAX_VALUE)
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY,position,Math.min(Integer.MAX_VALUE,size-position)));
+        }
+
+        return crc.getValue();
+
+    }
+
+    /**
+     * Maps an existing index.
+     * @return the mapped {@link CompactDocument} or null if the index doesn't match the source or is corrupted.
+     */
+    private static CompactDocument open(File index, long length, long checksum, int flags) throws IOException {
+
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(index,"r");
+            FileChannel channel = randomAccessFile.getChannel()){
+
+            if(channel.size()<HEADER_SIZE)
+                return null;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.nativeOrder());
+            while(header.hasRemaining()){
+                if(channel.read(header,header.position())<0)
+                    return null;
+            }
+
+            if(header.getInt(0)!=MAGIC||header.getInt(4)!=VERSION||header.getInt(8)!=flags
+                    ||header.getLong(16)!=length||header.getLong(24)!=checksum)
+                return null;
+
+            int nodeCount = header.getInt(12);
+            int attributeCount = header.getInt(32);
+            int nameCount = header.getInt(36);
+            int nameChars = header.getInt(40);
+            int charCount = header.getInt(44);
+            long nodesSize = 4L*nodeCount*CompactDocument.NODE_SIZE;
+            long attributesSize = 4L*attributeCount*CompactDocument.ATTRIBUTE_SIZE;
+            long charsSize = 2L*charCount;
+            if(channel.size()!=HEADER_SIZE+nodesSize+attributesSize+4L*nameCount+charsSize+2L*nameChars)
+                return null;
+
+            //The mappings remain valid after the channel is closed
+            long position = HEADER_SIZE;
+            IntBuffer nodes = map(channel,position,nodesSize).asIntBuffer();
+            position += nodesSize;
+            IntBuffer attributes = map(channel,position,attributesSize).asIntBuffer();
+            position += attributesSize;
+            IntBuffer nameLengths = map(channel,position,4L*nameCount).asIntBuffer();
+            position += 4L*nameCount;
+            CharBuffer chars = map(channel,position,charsSize).asCharBuffer();
+            position += charsSize;
+            CharBuffer nameBuffer = map(channel,position,2L*nameChars).asCharBuffer();
+
+            String[] names = new String[nameCount];
+            int offset = 0;
+            for(int i=0;i<nameCount;i++){
+                int nameLength = nameLengths.get(i);
+                names[i] = nameBuffer.subSequence(offset,offset+nameLength).toString();
+                offset += nameLength;
+            }
+
+            return new CompactDocument(nodeCount,nodes,attributes,chars,names);
+
+        }
+
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+
+        if(size>Integer.MAX_VALUE)
+            throw new XMLDocumentTooLargeException(Integer.MAX_VALUE);
+        return channel.map(FileChannel.MapMode.READ_ONLY,position,size).order(ByteOrder.nativeOrder());
+
+    }
+
+    private static void write(CompactDocument.Builder builder, File index, long length, long checksum, int flags) throws IOException {
+
+        int nameChars = 0;
+        int[] nameLengths = new int[builder.names.size()];
+        for(int i=0;i<nameLengths.length;i++){
+            nameLengths[i] = builder.names.get(i).length();
+            nameChars += nameLengths[i];
+        }
+
+        char[] names = new char[nameChars];
+        int offset = 0;
+        for(String name: builder.names){
+            name.getChars(0,name.length(),names,offset);
+            offset += name.length();
+        }
+
+        File directory = index.getAbsoluteFile().getParentFile();
+        File temporary = File.createTempFile(index.getName(),".tmp",directory);
+        try {
+
+            try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE)) {
+
+                ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.nativeOrder());
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(builder.nodeCount)
+                        .putLong(length).putLong(checksum)
+                        .putInt(builder.attributeCount).putInt(nameLengths.length).putInt(nameChars).putInt(builder.charCount);
+                buffer.position(HEADER_SIZE);
+                buffer.flip();
+                drain(channel, buffer);
+                writeInts(channel, buffer, builder.nodes, builder.nodeCount * CompactDocument.NODE_SIZE);
+                writeInts(channel, buffer, builder.attributes, builder.attributeCount * CompactDocument.ATTRIBUTE_SIZE);
+                writeInts(channel, buffer, nameLengths, nameLengths.length);
+                writeChars(channel, buffer, builder.chars, builder.charCount);
+                writeChars(channel, buffer, names, nameChars);
+                channel.force(true);
+
+            }
+
+            try {
+                Files.move(temporary.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        }finally {
+
+            Files.deleteIfExists(temporary.toPath());
+
+        }
+
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values, int length) throws IOException {
+
+        for(int offset=0;offset<length;){
+            buffer.clear();
+            int count = Math.min(length-offset,buffer.capacity()/4);
+            buffer.asIntBuffer().put(values,offset,count);
+            buffer.limit(count*4);
+            drain(channel,buffer);
+            offset += count;
+        }
+
+    }
+
+    private static void writeChars(FileChannel channel, ByteBuffer buffer, char[] values, int length) throws IOException {
+
+        for(int offset=0;offset<length;){
+            buffer.clear();
+            int count = Math.min(length-offset,buffer.capacity()/2);
+            buffer.asCharBuffer().put(values,offset,count);
+            buffer.limit(count*2);
+            drain(channel,buffer);
+            offset += count;
+        }
+
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Text;
+
+/**
+ * Read-only {@link Text} view of a text node of a {@link CompactDocument}.
+ */
+class CompactText extends CompactNode implements Text {
+
+    CompactText(CompactDocument document, int index){
+        super(document,index);
+    }
+
+    @Override
+    public String getNodeName() {
+        return "#text";
+    }
+
+    @Override
+    public short getNodeType() {
+        return TEXT_NODE;
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return document.text(index);
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+        return document.text(index);
+    }
+
+    @Override
+    public String getData() throws DOMException {
+        return document.text(index);
+    }
+
+    @Override
+    public int getLength() {
+        return document.textLength(index);
+    }
+
+    @Override
+    public String substringData(int offset, int count) throws DOMException {
+        int length = getLength();
+        if(offset<0||offset>length||count<0)
+            throw new DOMException(DOMException.INDEX_SIZE_ERR,String.format("Invalid offset %d or count %d",offset,count));
+        return getData().substring(offset,(int) Math.min((long) offset+count,length));
+    }
+
+    @Override
+    public void setData(String data) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void appendData(String arg) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void insertData(int offset, String arg) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void deleteData(int offset, int count) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public void replaceData(int offset, int count, String arg) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public Text splitText(int offset) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean isElementContentWhitespace() {
+        return false;
+    }
+
+    @Override
+    public String getWholeText() {
+        return document.text(index);
+    }
+
+    @Override
+    public Text replaceWholeText(String content) throws DOMException {
+        throw readOnly();
+    }
+
+}
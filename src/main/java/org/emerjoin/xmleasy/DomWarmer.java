@@ -0,0 +1,54 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Expands the lazily built state of a DOM subtree, so that it can then be read by multiple threads.
+ * The JDK DOM implementation builds nodes on first access (deferred node expansion), which mutates the document.
+ * Once a subtree is warmed, navigating it through {@link Node#getFirstChild()}, {@link Node#getNextSibling()},
+ * attribute getters and text getters no longer mutates it. {@link org.w3c.dom.NodeList} access still does.
+ */
+final class DomWarmer {
+
+    private DomWarmer(){
+
+    }
+
+    static void warm(Node root){
+
+        Node node = root;
+        while(node!=null){
+
+            warmNode(node);
+            Node child = node.getFirstChild();
+            if(child!=null){
+                node = child;
+                continue;
+            }
+
+            while(node!=root&&node.getNextSibling()==null)
+                node = node.getParentNode();
+            node = node==root ? null : node.getNextSibling();
+
+        }
+
+    }
+
+    private static void warmNode(Node node){
+
+        node.getNodeName();
+        node.getNodeValue();
+        node.getLastChild();
+        NamedNodeMap attributes = node.getAttributes();
+        if(attributes==null)
+            return;
+        for(int i=0;i<attributes.getLength();i++) {
+            Node attribute = attributes.item(i);
+            attribute.getNodeValue();
+            attribute.getFirstChild();
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Builds detached {@link Element} fragments out of {@link XMLStreamReader} events.
+ * Every fragment is owned by the same {@link Document} but never attached to it, so it becomes garbage as soon as its
+ * consumer drops it. Object instances of this class are not Thread-safe.
+ */
+class FragmentBuilder {
+
+    private static final DocumentBuilderFactory FACTORY = DocumentBuilderFactory.newInstance();
+
+    private final Document document;
+
+    FragmentBuilder(){
+
+        try {
+            synchronized (FACTORY) {
+                this.document = FACTORY.newDocumentBuilder().newDocument();
+            }
+        }catch (ParserConfigurationException ex){
+            throw new XMLException("Failed to create the fragments Document",ex);
+        }
+
+    }
+
+    /**
+     * Builds the element at which the reader is positioned, including its whole subtree. The reader is left positioned
+     * at the matching end element.
+     * @param reader the reader positioned at a start element
+     * @return the detached {@link Element}.
+     */
+    Element build(XMLStreamReader reader) throws XMLStreamException {
+
+        Element root = startElement(reader);
+        Node current = root;
+        int depth = 1;
+        while(depth>0){
+
+            switch (reader.next()){
+                case XMLStreamConstants.START_ELEMENT:
+                    current = current.appendChild(startElement(reader));
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                    current.appendChild(document.createTextNode(reader.getText()));
+                    break;
+                case XMLStreamConstants.CDATA:
+                    current.appendChild(document.createCDATASection(reader.getText()));
+                    break;
+                default:
+                    break;
+            }
+
+        }
+
+        return root;
+
+    }
+
+    private Element startElement(XMLStreamReader reader){
+
+        Element element = document.createElement(qualifiedName(reader.getPrefix(),reader.getLocalName()));
+        for(int i=0;i<reader.getNamespaceCount();i++){
+            String prefix = reader.getNamespacePrefix(i);
+            element.setAttribute(prefix==null||prefix.isEmpty() ? "xmlns" : "xmlns:"+prefix,
+                    reader.getNamespaceURI(i));
+        }
+
+        for(int i=0;i<reader.getAttributeCount();i++)
+            element.setAttribute(qualifiedName(reader.getAttributePrefix(i),reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+
+        return element;
+
+    }
+
+    /**
+     * Gets the {@link Document} that owns the fragments.
+     */
+    Document getDocument(){
+
+        return document;
+
+    }
+
+    static String qualifiedName(String prefix, String localName){
+
+        if(prefix==null||prefix.isEmpty())
+            return localName;
+        return prefix+":"+localName;
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.emerjoin.xmleasy;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Holds the installed {@link XMLEasyMetrics} and measures the heap allocated by threads.
+ */
+final class Metrics {
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    //Read on every measured operation: a plain load on most platforms
+    static volatile XMLEasyMetrics installed = discover();
+
+    private Metrics(){
+
+    }
+
+    private static XMLEasyMetrics discover(){
+
+        try {
+            Iterator<XMLEasyMetrics> providers = ServiceLoader.load(XMLEasyMetrics.class).iterator();
+            if(providers.hasNext())
+                return providers.next();
+        }catch (RuntimeException | LinkageError ignored){ }
+
+        return XMLEasyMetrics.NONE;
+
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter(){
+
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if(threads instanceof com.sun.management.ThreadMXBean){
+                com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+                if(counter.isThreadAllocatedMemorySupported()&&counter.isThreadAllocatedMemoryEnabled())
+                    return counter;
+            }
+        }catch (RuntimeException | LinkageError ignored){ }
+
+        return null;
+
+    }
+
+    /**
+     * Gets the number of bytes allocated so far by the calling thread.
+     * @return the allocated bytes, or -1 if the JVM doesn't measure them.
+     */
+    static long allocatedBytes(){
+
+        if(THREADS==null)
+            return -1;
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+    }
+
+    /**
+     * Gets the number of bytes allocated by the calling thread since a previous {@link #allocatedBytes()} call.
+     * @return the allocated bytes, or -1 if the JVM doesn't measure them.
+     */
+    static long allocatedSince(long allocatedBytes){
+
+        if(allocatedBytes<0)
+            return -1;
+        return allocatedBytes()-allocatedBytes;
+
+    }
+
+}
@@ -0,0 +1,238 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Reads numeric attribute values and text contents directly from the character data of an element.
+ * Values are located as {@link CharSequence} instances: the cached strings of DOM elements and views of the char buffer
+ * of compact elements, so no String is copied to read integers. Integers are parsed as XML Schema integers: surrounding
+ * whitespace is ignored and a leading sign is allowed.
+ */
+final class NumericValues {
+
+    private NumericValues(){
+
+    }
+
+    /**
+     * Locates the value of an attribute.
+     * @return the attribute value or null if the element has no such attribute.
+     */
+    static CharSequence attribute(Element element, String name){
+
+        if(element instanceof CompactElement){
+            CompactElement compact = (CompactElement) element;
+            int attribute = compact.document.attribute(compact.index,name);
+            return attribute==CompactDocument.NONE ? null : compact.document.attributeChars(attribute);
+        }
+
+        if(!element.hasAttribute(name))
+            return null;
+        return element.getAttribute(name);
+
+    }
+
+    /**
+     * Locates the value of a non-optional attribute.
+     * @throws IllegalStateException if the element has no such attribute.
+     */
+    static CharSequence requiredAttribute(Element element, String name){
+
+        CharSequence value = attribute(element,name);
+        if(value==null)
+            throw new IllegalStateException(String.format("There is no such attribute : %s",name));
+        return value;
+
+    }
+
+    /**
+     * Locates the text content of an element. The content of compact elements with a single text child is not copied.
+     */
+    static CharSequence content(Element element){
+
+        if(element instanceof CompactElement){
+            CompactElement compact = (CompactElement) element;
+            CompactDocument document = compact.document;
+            int first = document.firstChild(compact.index);
+            if(first!=CompactDocument.NONE&&document.nextSibling(first)==CompactDocument.NONE
+                    &&document.kind(first)!=CompactDocument.ELEMENT)
+                return document.textChars(first);
+        }
+
+        return element.getTextContent();
+
+    }
+
+    static int parseInt(CharSequence value, Element element, String attribute){
+
+        try {
+            return (int) parse(value,Integer.MIN_VALUE,Integer.MAX_VALUE);
+        }catch (NumberFormatException ex){
+            throw invalid("int",value,element,attribute,null);
+        }
+
+    }
+
+    static long parseLong(CharSequence value, Element element, String attribute){
+
+        try {
+            return parse(value,Long.MIN_VALUE,Long.MAX_VALUE);
+        }catch (NumberFormatException ex){
+            throw invalid("long",value,element,attribute,null);
+        }
+
+    }
+
+    static double parseDouble(CharSequence value, Element element, String attribute){
+
+        int start = 0;
+        int end = value.length();
+        while(start<end&&isWhitespace(value.charAt(start)))
+            start++;
+        while(end>start&&isWhitespace(value.charAt(end-1)))
+            end--;
+        String lexical = value.subSequence(start,end).toString();
+        if(!isDouble(lexical))
+            throw invalid("double",value,element,attribute,null);
+
+        switch (lexical){
+            case "INF":
+            case "+INF":
+                return Double.POSITIVE_INFINITY;
+            case "-INF":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return Double.parseDouble(lexical);
+        }
+
+    }
+
+    /**
+     * Checks the xs:double lexical form: decimal digits with an optional fraction and exponent, INF or NaN.
+     * The Java-only forms accepted by {@link Double#parseDouble(String)}, such as the <code>d</code> and <code>f</code>
+     * suffixes, hexadecimal floats and Infinity, are rejected.
+     */
+    private static boolean isDouble(String value){
+
+        if(value.equals("NaN"))
+            return true;
+        int length = value.length();
+        int i = 0;
+        if(i<length&&(value.charAt(i)=='+'||value.charAt(i)=='-'))
+            i++;
+        if(length-i==3&&value.startsWith("INF",i))
+            return true;
+
+        int digits = 0;
+        for(;i<length&&isDigit(value.charAt(i));i++)
+            digits++;
+        if(i<length&&value.charAt(i)=='.'){
+            for(i++;i<length&&isDigit(value.charAt(i));i++)
+                digits++;
+        }
+        if(digits==0)
+            return false;
+
+        if(i<length&&(value.charAt(i)=='e'||value.charAt(i)=='E')){
+            i++;
+            if(i<length&&(value.charAt(i)=='+'||value.charAt(i)=='-'))
+                i++;
+            int exponentDigits = 0;
+            for(;i<length&&isDigit(value.charAt(i));i++)
+                exponentDigits++;
+            if(exponentDigits==0)
+                return false;
+        }
+
+        return i==length;
+
+    }
+
+    private static boolean isDigit(char c){
+
+        return c>='0'&&c<='9';
+
+    }
+
+    /**
+     * Parses a decimal integer within a range, accumulating negatively so that the lower bound can be reached.
+     * @throws NumberFormatException if the value is not a decimal integer within the range.
+     */
+    private static long parse(CharSequence value, long min, long max){
+
+        int start = 0;
+        int end = value.length();
+        while(start<end&&isWhitespace(value.charAt(start)))
+            start++;
+        while(end>start&&isWhitespace(value.charAt(end-1)))
+            end--;
+        if(start==end)
+            throw new NumberFormatException();
+
+        boolean negative = false;
+        char first = value.charAt(start);
+        if(first=='-'||first=='+'){
+            negative = first=='-';
+            if(++start==end)
+                throw new NumberFormatException();
+        }
+
+        long limit = negative ? min : -max;
+        long multiplicationLimit = limit/10;
+        long result = 0;
+        for(int i=start;i<end;i++){
+            int digit = value.charAt(i)-'0';
+            if(digit<0||digit>9||result<multiplicationLimit)
+                throw new NumberFormatException();
+            result *= 10;
+            if(result<limit+digit)
+                throw new NumberFormatException();
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+
+    }
+
+    private static boolean isWhitespace(char c){
+
+        return c==' '||c=='\t'||c=='\n'||c=='\r';
+
+    }
+
+    private static XMLNumberFormatException invalid(String type, CharSequence value, Element element, String attribute,
+                                                     Throwable cause){
+
+        return new XMLNumberFormatException(type,value.toString(),attribute,path(element),cause);
+
+    }
+
+    /**
+     * Builds the path of an element, such as <code>/Carwash/washers/washer[2]/age</code>.
+     */
+    static String path(Element element){
+
+        StringBuilder path = new StringBuilder();
+        for(Node node = element; node!=null&&node.getNodeType()==Node.ELEMENT_NODE; node = node.getParentNode()){
+
+            String tag = ((Element) node).getTagName();
+            int position = 1;
+            boolean siblings = false;
+            for(Node sibling = node.getPreviousSibling(); sibling!=null; sibling = sibling.getPreviousSibling()){
+                if(XMLEasy.matches(sibling,tag))
+                    position++;
+            }
+            for(Node sibling = node.getNextSibling(); sibling!=null&&!siblings; sibling = sibling.getNextSibling())
+                siblings = XMLEasy.matches(sibling,tag);
+
+            String step = position>1||siblings ? String.format("/%s[%d]",tag,position) : "/"+tag;
+            path.insert(0,step);
+
+        }
+
+        return path.toString();
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.emerjoin.xmleasy;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of objects that are expensive to create and can't be shared by threads, such as
+ * {@link javax.xml.parsers.DocumentBuilder} instances. Unlike a {@link ThreadLocal}, the pool is shared by all threads,
+ * so objects are reused by short-lived and virtual threads too, and their number is bounded by the pool capacity
+ * rather than by the number of threads. Objects released while the pool is full are dropped.
+ * Object instances of this class are Thread-safe.
+ */
+final class ObjectPool<T> {
+
+    private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    ObjectPool(int capacity){
+        if(capacity<0)
+            throw new IllegalArgumentException("Capacity must not be negative");
+        this.capacity = capacity;
+
+    }
+
+    /**
+     * Takes an idle object out of the pool.
+     * @return the idle object, or null if the pool is empty.
+     */
+    T poll(){
+
+        T object = idle.poll();
+        if(object!=null)
+            size.decrementAndGet();
+        return object;
+
+    }
+
+    /**
+     * Gives an object back to the pool, or drops it if the pool is full.
+     * @param object the object, which must no longer be used by the caller
+     */
+    void release(T object){
+
+        if(size.incrementAndGet()>capacity){
+            size.decrementAndGet();
+            return;
+        }
+        idle.offer(object);
+
+    }
+
+}
@@ -0,0 +1,366 @@
+package org.emerjoin.xmleasy;
+
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-safe registry of compiled XML Schemas.
+ * Schemas are keyed by the ordered list of their URLs and revalidated against each URL's last-modified date (or ETag),
+ * so a schema is only recompiled when one of its sources changes. Checking the sources takes a file stat or an HTTP HEAD
+ * request, so a compiled schema is trusted for a check interval after each check, or until it's invalidated.
+ * The least recently used schemas are evicted once the registry capacity is reached. The {@link Validator} instances
+ * used by {@link #validate(URL[], Source)} are kept in a bounded pool of each compiled schema, shared by all threads.
+ */
+public class SchemaRegistry {
+
+    public static final int DEFAULT_CAPACITY = 64;
+    public static final long DEFAULT_CHECK_INTERVAL_SECONDS = 5;
+
+    private static final SchemaRegistry DEFAULT = new SchemaRegistry(DEFAULT_CAPACITY);
+    private static final int MAX_POOLED_VALIDATORS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final int capacity;
+    private final long checkInterval;
+    private final Map<List<String>, Entry> entries;
+
+    /**
+     * Gets the registry shared by all the {@link XMLEasy} instances.
+     * @return the default {@link SchemaRegistry} instance.
+     */
+    public static SchemaRegistry getDefault(){
+
+        return DEFAULT;
+
+    }
+
+    /**
+     * Constructs a new {@link SchemaRegistry} instance that checks the XML Schemas for modifications at most every
+     * {@value #DEFAULT_CHECK_INTERVAL_SECONDS} seconds.
+     * @param capacity the maximum number of compiled schemas to keep.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public SchemaRegistry(int capacity){
+        this(capacity,DEFAULT_CHECK_INTERVAL_SECONDS,TimeUnit.SECONDS);
+
+    }
+
+    /**
+     * Constructs a new {@link SchemaRegistry} instance.
+     * @param capacity the maximum number of compiled schemas to keep.
+     * @param checkInterval the minimum time between two checks of the XML Schemas of a compiled schema for
+     * modifications: 0 checks them on every lookup, {@link Long#MAX_VALUE} never checks them again, so compiled schemas
+     * are only recompiled once invalidated or evicted.
+     * @param unit the check interval unit
+     * @throws IllegalArgumentException if the capacity is not positive, the check interval is negative or the unit is null.
+     */
+    public SchemaRegistry(int capacity, long checkInterval, TimeUnit unit){
+        if(capacity<1)
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        if(checkInterval<0)
+            throw new IllegalArgumentException("Check interval must not be negative");
+        if(unit==null)
+            throw new IllegalArgumentException("TimeUnit must not be null");
+        this.capacity = capacity;
+        this.checkInterval = unit.toNanos(checkInterval);
+        this.entries = new LinkedHashMap<List<String>, Entry>(16,0.75f,true){
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, Entry> eldest) {
+                return size()>SchemaRegistry.this.capacity;
+            }
+
+        };
+
+    }
+
+    /**
+     * Gets the compiled {@link Schema} for one or more XML Schemas, compiling it if it is not registered or if any of
+     * the XML Schemas was modified since it was compiled.
+     * @param schemas the XML schemas array
+     * @return the compiled {@link Schema}. Will never return null.
+     * @throws IllegalArgumentException if the xml schemas array is empty or null
+     * @throws XMLValidationException if the XML Schemas can't be read or compiled
+     */
+    public Schema getSchema(URL[] schemas){
+
+        return entry(schemas).schema;
+
+    }
+
+    /**
+     * Creates a new {@link Validator} for one or more XML Schemas. The {@link Validator} belongs to the caller and
+     * must not be shared with other threads. {@link #validate(URL[], Source)} reuses pooled validators instead.
+     * @param schemas the XML schemas array
+     * @return a new {@link Validator} instance. Will never return null.
+     * @throws IllegalArgumentException if the xml schemas array is empty or null
+     * @throws XMLValidationException if the XML Schemas can't be read or compiled
+     */
+    public Validator getValidator(URL[] schemas){
+
+        return entry(schemas).schema.newValidator();
+
+    }
+
+    /**
+     * Validates a document against one or more XML Schemas, with a {@link Validator} taken from the pool of the
+     * compiled schema. The {@link Validator} is reset and given back to the pool once the validation completes.
+     * @param schemas the XML schemas array
+     * @param source the XML document {@link Source}
+     * @throws IllegalArgumentException if the xml schemas array is empty or null, or the source is null
+     * @throws XMLValidationException if the XML Schemas can't be read or compiled
+     * @throws SAXException if the document does not pass the validation
+     * @throws IOException if the document can't be read
+     */
+    public void validate(URL[] schemas, Source source) throws SAXException, IOException {
+        if(source==null)
+            throw new IllegalArgumentException("Source must not be null");
+        Entry entry = entry(schemas);
+        Validator validator = entry.validators.poll();
+        if(validator==null)
+            validator = entry.schema.newValidator();
+        try {
+            validator.validate(source);
+        }finally {
+            validator.reset();
+            entry.validators.release(validator);
+        }
+
+    }
+
+    /**
+     * Removes the compiled schema of one or more XML Schemas.
+     * @param schemas the XML schemas array, in the same order used to compile it
+     * @throws IllegalArgumentException if the xml schemas array is empty or null
+     */
+    public void invalidate(URL[] schemas){
+        List<String> key = key(schemas);
+        synchronized (entries){
+            entries.remove(key);
+        }
+
+    }
+
+    /**
+     * Removes every compiled schema that includes a specific XML Schema.
+     * @param schema the XML Schema
+     * @throws IllegalArgumentException if the xml schema is null
+     */
+    public void invalidate(URL schema){
+        if(schema==null)
+            throw new IllegalArgumentException("XML Schema must not be null");
+        String location = schema.toExternalForm();
+        synchronized (entries){
+            Iterator<List<String>> iterator = entries.keySet().iterator();
+            while(iterator.hasNext()){
+                if(iterator.next().contains(location))
+                    iterator.remove();
+            }
+        }
+
+    }
+
+    /**
+     * Removes every compiled schema.
+     */
+    public void invalidateAll(){
+        synchronized (entries){
+            entries.clear();
+        }
+
+    }
+
+    /**
+     * Gets the number of compiled schemas currently registered.
+     * @return the number of compiled schemas.
+     */
+    public int size(){
+        synchronized (entries){
+            return entries.size();
+        }
+
+    }
+
+    /**
+     * Gets the minimum time between two checks of the XML Schemas of a compiled schema for modifications.
+     * @param unit the unit of the returned interval
+     * @return the check interval.
+     * @throws IllegalArgumentException if the unit is null
+     */
+    public long getCheckInterval(TimeUnit unit){
+        if(unit==null)
+            throw new IllegalArgumentException("TimeUnit must not be null");
+        return unit.convert(checkInterval,TimeUnit.NANOSECONDS);
+
+    }
+
+    /**
+     * Gets the maximum number of compiled schemas kept by this registry.
+     * @return the registry capacity.
+     */
+    public int getCapacity(){
+
+        return capacity;
+
+    }
+
+    private Entry entry(URL[] schemas){
+        List<String> key = key(schemas);
+        Entry entry;
+        synchronized (entries){
+            entry = entries.get(key);
+        }
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        long now = System.nanoTime();
+        if(entry!=null&&now-entry.checked<checkInterval){
+            metrics.schemaCacheHit();
+            return entry;
+        }
+
+        String[] stamps = stamps(schemas);
+        if(entry!=null&&Arrays.equals(entry.stamps,stamps)){
+            entry.checked = now;
+            metrics.schemaCacheHit();
+            return entry;
+        }
+
+        metrics.schemaCacheMiss();
+        long started = metrics==XMLEasyMetrics.NONE ? 0 : System.nanoTime();
+        //Compiled outside the lock: concurrent misses for the same key may compile twice, the last one wins
+        entry = new Entry(compile(schemas),stamps,now);
+        if(metrics!=XMLEasyMetrics.NONE)
+            metrics.schemaCompiled(schemas.length,System.nanoTime()-started);
+        synchronized (entries){
+            entries.put(key,entry);
+        }
+
+        return entry;
+
+    }
+
+    private List<String> key(URL[] schemas){
+        if(schemas==null||schemas.length==0)
+            throw new IllegalArgumentException("XML schemas array must not be empty");
+        //URL.equals() resolves host names, so the external form is used as key
+        List<String> key = new ArrayList<>(schemas.length);
+        for(URL schema: schemas){
+            if(schema==null)
+                throw new IllegalArgumentException("XML Schema must not be null");
+            key.add(schema.toExternalForm());
+        }
+
+        return key;
+
+    }
+
+    private String[] stamps(URL[] schemas){
+
+        String[] stamps = new String[schemas.length];
+        for(int i=0;i<schemas.length;i++)
+            stamps[i] = stamp(schemas[i]);
+
+        return stamps;
+
+    }
+
+    private String stamp(URL schema){
+
+        try {
+
+            File file = XMLSource.file(schema);
+            if (file!=null)
+                return file.lastModified() + ":" + file.length();
+
+            URLConnection connection = schema.openConnection();
+            if(connection instanceof HttpURLConnection) {
+                HttpURLConnection http = (HttpURLConnection) connection;
+                http.setRequestMethod("HEAD");
+                try {
+                    String etag = http.getHeaderField("ETag");
+                    if (etag != null)
+                        return etag;
+                    return String.valueOf(http.getLastModified());
+                }finally {
+                    http.disconnect();
+                }
+            }
+
+            return String.valueOf(connection.getLastModified());
+
+        }catch (IOException | IllegalArgumentException ex){
+
+            throw new XMLValidationException(String.format("Failed to check XML Schema [%s] for modifications",
+                    schema.toString()),ex);
+
+        }
+
+    }
+
+    private Schema compile(URL[] schemas){
+
+        InputStream[] streams = new InputStream[schemas.length];
+        try {
+
+            Source[] schemaSources = new Source[schemas.length];
+            for(int i=0;i<schemaSources.length;i++) {
+                streams[i] = schemas[i].openStream();
+                schemaSources[i] = new StreamSource(streams[i], schemas[i].toExternalForm());
+            }
+
+            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            return factory.newSchema(schemaSources);
+
+        }catch (IOException | SAXException ex){
+
+            throw new XMLValidationException(String.format("Failed to compile XML Schemas %s",
+                    Arrays.toString(schemas)),ex);
+
+        }finally {
+
+            for(InputStream stream: streams){
+                if(stream==null)
+                    continue;
+                try {
+                    stream.close();
+                }catch (IOException ignored){ }
+            }
+
+        }
+
+    }
+
+    private static class Entry {
+
+        private final Schema schema;
+        private final String[] stamps;
+        private final ObjectPool<Validator> validators = new ObjectPool<>(MAX_POOLED_VALIDATORS);
+        private volatile long checked;
+
+        private Entry(Schema schema, String[] stamps, long checked){
+            this.schema = schema;
+            this.stamps = stamps;
+            this.checked = checked;
+        }
+
+    }
+
+}
@@ -0,0 +1,433 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Evaluates any number of compiled {@link XMLPath} queries over {@link XMLStreamReader} events, in one sequential pass.
+ * The queries are merged into a trie of steps, so the steps they share are matched once per element. Each open element
+ * holds the trie states it matched and the states whose descendant steps are still candidates. Subtrees that can't
+ * lead to a match are skipped without being built. Matching elements are built as detached fragments, or only their
+ * text is collected when only values are selected. Elements that are candidates of a step with child predicates are
+ * built before the step is evaluated, and the rest of the trie is then evaluated on the fragment, so only those
+ * elements are ever buffered. Relative paths are relative to the root element. Object instances of this class are not
+ * Thread-safe.
+ */
+final class StreamMatcher {
+
+    private final State relative = new State(null,0);
+    private final State absolute = new State(null,0);
+    private final FragmentBuilder builder = new FragmentBuilder();
+    private final List<State> deferred = new ArrayList<>();
+    private final List<Query> selected = new ArrayList<>();
+    private int slots;
+    private int queries;
+
+    //Index d holds the states of the open element at depth d, the document being at depth 0
+    private final List<List<State>> states = new ArrayList<>();
+    private final List<List<State>> pending = new ArrayList<>();
+    private final List<int[]> positions = new ArrayList<>();
+
+    /**
+     * Adds a query whose matching elements are supplied as detached fragments.
+     */
+    void elements(XMLPath path, Consumer<XMLEasy> consumer){
+
+        state(path).queries.add(new Query(queries++,consumer,null));
+
+    }
+
+    /**
+     * Adds a query whose matching elements text content is supplied.
+     */
+    void values(XMLPath path, Consumer<String> consumer){
+
+        state(path).queries.add(new Query(queries++,null,consumer));
+
+    }
+
+    private State state(XMLPath path){
+
+        State state = path.isAbsolute() ? absolute : relative;
+        for(XMLPath.Step step: path.getSteps())
+            state = state.child(step);
+        return state;
+
+    }
+
+    /**
+     * Reads the whole document and supplies every match to its consumers, in document order. The consumers of the
+     * same element are called in the order their queries were added.
+     * @param reader the reader positioned at the start of the document. It is closed once the document is read.
+     */
+    void evaluate(XMLStreamReader reader) throws XMLStreamException {
+
+        try {
+
+            int depth = 0;
+            push(depth);
+            if(!absolute.children.isEmpty())
+                states.get(0).add(absolute);
+            while (reader.hasNext()) {
+
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && start(reader, depth))
+                    depth++;
+                else if (event == XMLStreamConstants.END_ELEMENT)
+                    depth--;
+
+            }
+
+        }finally {
+            reader.close();
+        }
+
+    }
+
+    /**
+     * Matches the element at which the reader is positioned against the candidate steps of its parent.
+     * @param depth the depth of the parent
+     * @return true if the element was opened, false if its subtree was already consumed.
+     */
+    private boolean start(XMLStreamReader reader, int depth) throws XMLStreamException {
+
+        String name = FragmentBuilder.qualifiedName(reader.getPrefix(),reader.getLocalName());
+        push(depth+1);
+        List<State> parents = states.get(depth);
+        List<State> matched = states.get(depth+1);
+        int[] counters = positions.get(depth);
+        deferred.clear();
+        for(State parent: parents){
+            for(State child: parent.children)
+                match(child,name,reader,counters,matched);
+        }
+
+        for(State parent: pending.get(depth)){
+            if(parents.contains(parent))
+                continue;
+            for(State child: parent.descendants)
+                match(child,name,reader,counters,matched);
+        }
+
+        if(depth==0&&!relative.children.isEmpty())
+            matched.add(relative);
+        List<State> inherited = inherit(depth);
+
+        boolean selected = false;
+        boolean elements = false;
+        boolean open = !inherited.isEmpty();
+        for(State state: matched){
+            for(Query query: state.queries){
+                selected = true;
+                elements |= query.elements!=null;
+            }
+            open |= !state.children.isEmpty();
+        }
+
+        if(deferred.isEmpty()&&!selected){
+            if(matched.isEmpty()&&inherited.isEmpty()){
+                skip(reader);
+                return false;
+            }
+            return true;
+        }
+
+        if(deferred.isEmpty()&&!elements&&!open){
+            supply(matched,null,text(reader));
+            return false;
+        }
+
+        Element element = builder.build(reader);
+        for(State state: deferred){
+            if(state.step.matches(element,counters,state.offset))
+                matched.add(state);
+        }
+
+        visit(element,depth+1);
+        return false;
+
+    }
+
+    private void match(State state, String name, XMLStreamReader reader, int[] counters, List<State> matched){
+
+        XMLPath.Step step = state.step;
+        if(!step.matchesTag(name))
+            return;
+        if(step.hasChildPredicates()){
+            if(!excluded(step,reader))
+                deferred.add(state);
+        }else if(matches(step,reader,counters,state.offset)){
+            matched.add(state);
+        }
+
+    }
+
+    /**
+     * Supplies a built element to the consumers of the states it matched and matches its subtree.
+     * @param element the element
+     * @param depth the depth of the element, whose states must already be set
+     */
+    private void visit(Element element, int depth){
+
+        List<State> matched = states.get(depth);
+        supply(matched,element,null);
+
+        int[] counters = positions.get(depth);
+        for(Node node = element.getFirstChild(); node!=null; node = node.getNextSibling()){
+
+            if(node.getNodeType()!=Node.ELEMENT_NODE)
+                continue;
+            Element child = (Element) node;
+            push(depth+1);
+            List<State> next = states.get(depth+1);
+            for(State parent: matched){
+                for(State state: parent.children){
+                    if(state.step.matches(child,counters,state.offset))
+                        next.add(state);
+                }
+            }
+
+            for(State parent: pending.get(depth)){
+                if(matched.contains(parent))
+                    continue;
+                for(State state: parent.descendants){
+                    if(state.step.matches(child,counters,state.offset))
+                        next.add(state);
+                }
+            }
+
+            List<State> inherited = inherit(depth);
+            if(!next.isEmpty()||!inherited.isEmpty())
+                visit(child,depth+1);
+
+        }
+
+    }
+
+    /**
+     * Supplies an element to the queries of the states it matched, in the order the queries were added.
+     * @param element the built element, or null if only its text was collected
+     * @param text the text content of the element, or null if it must be read from the element
+     */
+    private void supply(List<State> matched, Element element, String text){
+
+        selected.clear();
+        for(State state: matched)
+            selected.addAll(state.queries);
+        if(selected.size()>1)
+            selected.sort(Comparator.comparingInt(query -> query.order));
+
+        XMLEasy easy = null;
+        for(Query query: selected){
+            if(query.elements!=null){
+                if(easy==null)
+                    easy = XMLEasy.easy(element);
+                query.elements.accept(easy);
+            }else{
+                if(text==null)
+                    text = element.getTextContent();
+                query.values.accept(text);
+            }
+        }
+
+    }
+
+    /**
+     * Sets the pending states of the children of the element at a depth: the pending states of the element and the
+     * states it matched that have descendant steps.
+     * @return the pending states of the children.
+     */
+    private List<State> inherit(int depth){
+
+        List<State> inherited = pending.get(depth+1);
+        inherited.addAll(pending.get(depth));
+        for(State state: states.get(depth)){
+            if(!state.descendants.isEmpty()&&!inherited.contains(state))
+                inherited.add(state);
+        }
+
+        return inherited;
+
+    }
+
+    private void push(int depth){
+
+        if(depth==states.size()){
+            states.add(new ArrayList<>());
+            pending.add(new ArrayList<>());
+            positions.add(new int[slots]);
+        }
+
+        states.get(depth).clear();
+        pending.get(depth).clear();
+        Arrays.fill(positions.get(depth),0);
+
+    }
+
+    private static boolean matches(XMLPath.Step step, XMLStreamReader reader, int[] positions, int offset){
+
+        for(XMLPath.Predicate predicate: step.getPredicates()){
+            if(predicate.getType()==XMLPath.Predicate.POSITION){
+                if(++positions[offset+predicate.getSlot()]!=predicate.getPosition())
+                    return false;
+            }else if(!matchesAttribute(predicate,reader)){
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Checks whether an element can be excluded from a step with child predicates before its subtree is read. Only
+     * attribute predicates that precede every positional predicate can exclude it: the others would leave the
+     * positions of the following siblings undetermined.
+     */
+    private static boolean excluded(XMLPath.Step step, XMLStreamReader reader){
+
+        for(XMLPath.Predicate predicate: step.getPredicates()){
+            if(predicate.getType()==XMLPath.Predicate.POSITION)
+                return false;
+            if(predicate.getType()==XMLPath.Predicate.ATTRIBUTE&&!matchesAttribute(predicate,reader))
+                return true;
+        }
+
+        return false;
+
+    }
+
+    private static boolean matchesAttribute(XMLPath.Predicate predicate, XMLStreamReader reader){
+
+        for(int i=0;i<reader.getAttributeCount();i++){
+            if(predicate.getName().equals(FragmentBuilder.qualifiedName(reader.getAttributePrefix(i),reader.getAttributeLocalName(i))))
+                return predicate.getValue()==null||predicate.getValue().equals(reader.getAttributeValue(i));
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Skips the subtree of the element at which the reader is positioned. The reader is left positioned at the
+     * matching end element.
+     */
+    private static void skip(XMLStreamReader reader) throws XMLStreamException {
+
+        int depth = 1;
+        while(depth>0){
+            int event = reader.next();
+            if(event==XMLStreamConstants.START_ELEMENT)
+                depth++;
+            else if(event==XMLStreamConstants.END_ELEMENT)
+                depth--;
+        }
+
+    }
+
+    /**
+     * Collects the text content of the element at which the reader is positioned, without building it. The reader is
+     * left positioned at the matching end element.
+     */
+    private static String text(XMLStreamReader reader) throws XMLStreamException {
+
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while(depth>0){
+            switch (reader.next()){
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.CDATA:
+                    text.append(reader.getTextCharacters(),reader.getTextStart(),reader.getTextLength());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return text.toString();
+
+    }
+
+    /**
+     * Consumer of the elements, or of the text content of the elements, matching a path.
+     */
+    private static final class Query {
+
+        private final int order;
+        private final Consumer<XMLEasy> elements;
+        private final Consumer<String> values;
+
+        private Query(int order, Consumer<XMLEasy> elements, Consumer<String> values){
+            this.order = order;
+            this.elements = elements;
+            this.values = values;
+        }
+
+    }
+
+    /**
+     * Trie node: the state reached once the steps from the root to the node are matched.
+     */
+    private final class State {
+
+        private final XMLPath.Step step;
+        private final int offset;
+        private final List<State> children = new ArrayList<>();
+        private final List<State> descendants = new ArrayList<>();
+        private final List<Query> queries = new ArrayList<>();
+
+        private State(XMLPath.Step step, int offset){
+            this.step = step;
+            this.offset = offset;
+        }
+
+        /**
+         * Gets the state reached by matching a step from this state, adding it to the trie if needed.
+         */
+        private State child(XMLPath.Step step){
+
+            for(State child: children){
+                if(child.step.getSource().equals(step.getSource()))
+                    return child;
+            }
+
+            //The positional predicates of the step get their own counters, after those of the other states
+            int first = Integer.MAX_VALUE;
+            int count = 0;
+            for(XMLPath.Predicate predicate: step.getPredicates()){
+                if(predicate.getType()==XMLPath.Predicate.POSITION){
+                    first = Math.min(first,predicate.getSlot());
+                    count++;
+                }
+            }
+
+            State child = new State(step,count==0 ? 0 : slots-first);
+            slots += count;
+            for(int i=0;i<positions.size();i++)
+                positions.set(i,new int[slots]);
+            children.add(child);
+            if(step.isDescendant())
+                descendants.add(child);
+            return child;
+
+        }
+
+    }
+
+}
@@ -0,0 +1,247 @@
+package org.emerjoin.xmleasy;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Loads, and optionally validates, many XML documents in parallel.
+ * Documents are parsed on an {@link Executor} while the results are supplied to a consumer in the calling thread, in
+ * completion order. At most {@link #maxInFlight(int)} documents are loaded or waiting to be consumed at any time, so
+ * memory usage stays flat regardless of the number of documents. All the documents share the same
+ * {@link XMLEasyParser} and compiled schema. Object instances of this class are not Thread-safe.
+ */
+public class XMLBatch {
+
+    private final List<URL> urls;
+    private XMLEasyParser parser = XMLEasyParser.getDefault();
+    private Executor executor;
+    private int maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+    private URL[] schemas;
+
+    XMLBatch(Collection<URL> urls){
+        if(urls==null)
+            throw new IllegalArgumentException("URL collection must not be null");
+        this.urls = new ArrayList<>(urls);
+        for(URL url: this.urls){
+            if(url==null)
+                throw new IllegalArgumentException("URL must not be null");
+        }
+
+    }
+
+    /**
+     * Sets the parser of the documents. {@link XMLEasyParser#getDefault()} by default.
+     * @param parser the {@link XMLEasyParser} instance
+     * @return the current {@link XMLBatch} instance.
+     * @throws IllegalArgumentException if the parser is null
+     */
+    public XMLBatch parser(XMLEasyParser parser){
+        if(parser==null)
+            throw new IllegalArgumentException("XMLEasyParser instance must not be null");
+        this.parser = parser;
+        return this;
+    }
+
+    /**
+     * Sets the {@link Executor} on which the documents are loaded. By default, a pool with one thread per available
+     * processor is created for each {@link #forEach(Consumer)} invocation. Documents rejected by the executor fail with
+     * an {@link XMLException}, but the executor must run every task it accepts: a task accepted and then discarded
+     * leaves {@link #forEach(Consumer)} waiting for its result.
+     * @param executor the {@link Executor} instance
+     * @return the current {@link XMLBatch} instance.
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public XMLBatch executor(Executor executor){
+        if(executor==null)
+            throw new IllegalArgumentException("Executor instance must not be null");
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of documents being loaded or waiting to be consumed. Twice the number of available
+     * processors by default.
+     * @param maxInFlight the maximum number of in-flight documents
+     * @return the current {@link XMLBatch} instance.
+     * @throws IllegalArgumentException if the maximum is not positive
+     */
+    public XMLBatch maxInFlight(int maxInFlight){
+        if(maxInFlight<1)
+            throw new IllegalArgumentException("Maximum in-flight documents must be greater than zero");
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Validates every document against one or more XML Schemas, compiled once for the whole batch.
+     * @param schemas the XML schemas array
+     * @return the current {@link XMLBatch} instance.
+     * @throws IllegalArgumentException if the xml schemas array is empty or null
+     */
+    public XMLBatch validate(URL[] schemas){
+        if(schemas==null||schemas.length==0)
+            throw new IllegalArgumentException("XML schemas array must not be empty");
+        this.schemas = schemas.clone();
+        return this;
+    }
+
+    /**
+     * Loads every document and supplies the results to a {@link Consumer<Result>}, in completion order.
+     * The consumer is invoked in the calling thread and this method only returns once every result was consumed.
+     * @param consumer results consumer
+     * @throws IllegalArgumentException if the consumer instance is null
+     * @throws XMLValidationException if the XML Schemas can't be compiled
+     * @throws XMLException if the calling thread is interrupted
+     */
+    public void forEach(Consumer<Result> consumer){
+        if(consumer==null)
+            throw new IllegalArgumentException("Consumer instance must not be null");
+        if(schemas!=null)
+            SchemaRegistry.getDefault().getSchema(schemas);
+
+        ExecutorService ownExecutor = null;
+        Executor runner = executor;
+        if(runner==null){
+            AtomicInteger threads = new AtomicInteger();
+            ownExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),runnable -> {
+                Thread thread = new Thread(runnable,"xmleasy-batch-"+threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            runner = ownExecutor;
+        }
+
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        Iterator<URL> pending = urls.iterator();
+        int inFlight = 0;
+        try {
+
+            while (pending.hasNext() || inFlight > 0) {
+
+                if (pending.hasNext() && inFlight < maxInFlight) {
+                    URL url = pending.next();
+                    inFlight++;
+                    try {
+                        runner.execute(() -> load(url,results));
+                    }catch (RejectedExecutionException ex){
+                        results.add(new Result(url,null,new XMLException("Document loading rejected by the Executor",ex)));
+                    }
+                    continue;
+                }
+
+                Result result = results.take();
+                inFlight--;
+                consumer.accept(result);
+
+            }
+
+        }catch (InterruptedException ex){
+
+            Thread.currentThread().interrupt();
+            throw new XMLException("Interrupted while waiting for documents",ex);
+
+        }finally {
+
+            if(ownExecutor!=null)
+                ownExecutor.shutdownNow();
+
+        }
+
+    }
+
+    /**
+     * Loads a document and posts its result, even if the loading fails with an {@link Error}. The failure is delivered
+     * through the result, so only a {@link VirtualMachineError} is rethrown.
+     */
+    private void load(URL url, BlockingQueue<Result> results){
+
+        try {
+            results.add(load(url));
+        }catch (Throwable ex){
+            results.add(new Result(url,null,new XMLException("Failed to load XML",ex)));
+            if(ex instanceof VirtualMachineError)
+                throw (VirtualMachineError) ex;
+        }
+
+    }
+
+    private Result load(URL url){
+
+        try {
+            XMLEasy document = parser.parse(url);
+            if (schemas != null)
+                document.validate(schemas);
+            return new Result(url, document, null);
+        }catch (XMLException ex){
+            return new Result(url, null, ex);
+        }catch (RuntimeException ex){
+            return new Result(url, null, new XMLException("Failed to load XML", ex));
+        }
+
+    }
+
+    /**
+     * Outcome of loading one document of an {@link XMLBatch}.
+     */
+    public static class Result {
+
+        private final URL url;
+        private final XMLEasy document;
+        private final XMLException failure;
+
+        private Result(URL url, XMLEasy document, XMLException failure){
+            this.url = url;
+            this.document = document;
+            this.failure = failure;
+        }
+
+        /**
+         * Gets the document URL.
+         * @return the document URL. Will never return null.
+         */
+        public URL getURL(){
+            return url;
+        }
+
+        /**
+         * Checks if the document was loaded, and validated if requested, successfully.
+         * @return true if the document was loaded successfully, otherwise false.
+         */
+        public boolean isSuccess(){
+            return failure==null;
+        }
+
+        /**
+         * Gets the loaded document.
+         * @return an {@link XMLEasy} instance with the document root element set as current {@link org.w3c.dom.Element}.
+         * @throws IllegalStateException if the document failed to load.
+         */
+        public XMLEasy getDocument(){
+            if(failure!=null)
+                throw new IllegalStateException(String.format("Document [%s] failed to load",url),failure);
+            return document;
+        }
+
+        /**
+         * Gets the failure of the document.
+         * @return the {@link XMLException} that caused the document to fail, or null if it loaded successfully.
+         * {@link InvalidXMLDocumentException} for documents that don't pass the validation.
+         */
+        public XMLException getFailure(){
+            return failure;
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Element;
+
+/**
+ * Creates objects out of XML elements. Implementations are generated at build time by the
+ * {@link XMLEasyPathProcessor} for the classes with {@link XMLEasyPath} fields: they read the bound values in a single
+ * pass over the children of the element, without reflection. Generated binders are stateless and Thread-safe, and work
+ * on any {@link Element}: DOM elements, compact elements and the fragments supplied by {@link XMLEasyStream}.
+ * @param <T> the type of the bound objects
+ * @see XMLEasy#binder(Class)
+ */
+public interface XMLBinder<T> {
+
+    /**
+     * Creates an object out of an element.
+     * @param element the element to bind
+     * @return a new bound object. Will never return null.
+     * @throws XMLNumberFormatException if a numeric field is bound to an invalid value
+     */
+    T bind(Element element);
+
+}
@@ -0,0 +1,81 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Element;
+
+/**
+ * Value accessors used by the generated {@link XMLBinder} implementations. Values are located as {@link CharSequence}
+ * instances over the character data of the element and numbers are parsed in place, as the typed accessors of
+ * {@link XMLEasy} do. This class is not meant to be used directly.
+ */
+public final class XMLBinding {
+
+    private XMLBinding(){
+
+    }
+
+    /**
+     * Locates the value of an attribute.
+     * @param element the element
+     * @param name the attribute's name
+     * @return the attribute's value, or null if the element has no such attribute.
+     */
+    public static CharSequence attribute(Element element, String name){
+
+        return NumericValues.attribute(element,name);
+
+    }
+
+    /**
+     * Locates the text content of an element.
+     * @param element the element
+     * @return the text content of the element. Will never return null.
+     */
+    public static CharSequence content(Element element){
+
+        return NumericValues.content(element);
+
+    }
+
+    /**
+     * Parses an int value.
+     * @param value the value
+     * @param element the element holding the value
+     * @param attribute the attribute holding the value, or null for the text content of the element
+     * @return the parsed value.
+     * @throws XMLNumberFormatException if the value is not a valid int
+     */
+    public static int parseInt(CharSequence value, Element element, String attribute){
+
+        return NumericValues.parseInt(value,element,attribute);
+
+    }
+
+    /**
+     * Parses a long value.
+     * @param value the value
+     * @param element the element holding the value
+     * @param attribute the attribute holding the value, or null for the text content of the element
+     * @return the parsed value.
+     * @throws XMLNumberFormatException if the value is not a valid long
+     */
+    public static long parseLong(CharSequence value, Element element, String attribute){
+
+        return NumericValues.parseLong(value,element,attribute);
+
+    }
+
+    /**
+     * Parses a double value.
+     * @param value the value
+     * @param element the element holding the value
+     * @param attribute the attribute holding the value, or null for the text content of the element
+     * @return the parsed value.
+     * @throws XMLNumberFormatException if the value is not a valid double
+     */
+    public static double parseDouble(CharSequence value, Element element, String attribute){
+
+        return NumericValues.parseDouble(value,element,attribute);
+
+    }
+
+}
@@ -0,0 +1,401 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, allocation-free navigation cursor over XML elements.
+ * Unlike a frozen {@link XMLEasy}, which returns a new instance on every navigation, a cursor always moves itself.
+ * Positions can be saved with {@link #mark()} and restored with {@link #reset()}, and the cursor can be moved to
+ * another element with {@link #moveTo(Element)}, so one cursor can serve every record of a hot mapping path.
+ * Only {@link #snapshot()} creates an {@link XMLEasy} instance.
+ * Object instances of this class are not Thread-safe.
+ */
+public class XMLCursor {
+
+    private Element current;
+    private ChildIndex childIndex;
+    private Element[] marks = new Element[8];
+    private int markCount;
+
+    XMLCursor(Element element, ChildIndex childIndex){
+        this.current = element;
+        this.childIndex = childIndex;
+    }
+
+    /**
+     * Moves the cursor to another {@link Element} and discards every mark.
+     * @param element the XML {@link Element}
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalArgumentException if the element is null
+     */
+    public XMLCursor moveTo(Element element){
+        if(element==null)
+            throw new IllegalArgumentException("Element must not be null");
+        if(element.getOwnerDocument()!=current.getOwnerDocument())
+            childIndex = ChildIndex.of(element.getOwnerDocument());
+        current = element;
+        Arrays.fill(marks,0,markCount,null);
+        markCount = 0;
+        return this;
+    }
+
+    /**
+     * Saves the current position, so that it can be restored by {@link #reset()}. Marks are nested.
+     * @return the current {@link XMLCursor} instance.
+     */
+    public XMLCursor mark(){
+
+        if(markCount==marks.length)
+            marks = Arrays.copyOf(marks,marks.length*2);
+        marks[markCount++] = current;
+        return this;
+
+    }
+
+    /**
+     * Moves the cursor back to the most recently marked position and removes that mark.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if there is no mark.
+     */
+    public XMLCursor reset(){
+
+        if(markCount==0)
+            throw new IllegalStateException("No marked position to reset to");
+        current = marks[--markCount];
+        marks[markCount] = null;
+        return this;
+
+    }
+
+    /**
+     * Moves the cursor to the first child element with a specific tag name.
+     * @param tag the child element tag name.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no matching child element.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public XMLCursor child(String tag){
+
+        return firstChild(tag);
+
+    }
+
+    /**
+     * Moves the cursor to the first child element.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no child element.
+     */
+    public XMLCursor child(){
+
+        return firstChild();
+
+    }
+
+    /**
+     * Moves the cursor to the first child element with a specific tag name.
+     * @param tag the child element tag name.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no matching child element.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public XMLCursor firstChild(String tag){
+        validateTagName(tag);
+        return moveToChild(XMLEasy.firstElement(current,tag,childIndex),tag);
+    }
+
+    /**
+     * Moves the cursor to the first child element.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no child element.
+     */
+    public XMLCursor firstChild(){
+
+        return moveToChild(XMLEasy.firstElement(current,null,childIndex),null);
+
+    }
+
+    /**
+     * Moves the cursor to the last child element with a specific tag name.
+     * @param tag the child element tag name.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no matching child element.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public XMLCursor lastChild(String tag){
+        validateTagName(tag);
+        return moveToChild(XMLEasy.lastElement(current,tag,childIndex),tag);
+    }
+
+    /**
+     * Moves the cursor to the last child element.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no child element.
+     */
+    public XMLCursor lastChild(){
+
+        return moveToChild(XMLEasy.lastElement(current,null,childIndex),null);
+
+    }
+
+    /**
+     * Moves the cursor to the first child element with a specific tag name, if there is one.
+     * @param tag the child element tag name.
+     * @return true if the cursor moved, otherwise false, in which case the cursor stays where it was.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public boolean tryChild(String tag){
+        validateTagName(tag);
+        Element element = XMLEasy.firstElement(current,tag,childIndex);
+        if(element==null)
+            return false;
+        current = element;
+        return true;
+    }
+
+    /**
+     * Moves the cursor to the parent element.
+     * @return the current {@link XMLCursor} instance.
+     * @throws IllegalStateException if the current {@link Element} has no parent element.
+     */
+    public XMLCursor parent(){
+
+        Node parent = current.getParentNode();
+        if(parent==null||parent.getNodeType()!=Node.ELEMENT_NODE)
+            throw new IllegalStateException(String.format("Element [%s] has no parent element",current.getTagName()));
+        current = (Element) parent;
+        return this;
+
+    }
+
+    /**
+     * Checks if the current {@link Element} has child elements with a specific tag name.
+     * @param tag the child elements tag name
+     * @return true if the current {@link Element} has child elements with the specified tag name, otherwise false.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public boolean hasChild(String tag){
+        validateTagName(tag);
+        return XMLEasy.firstElement(current,tag,childIndex)!=null;
+    }
+
+    /**
+     * Checks if the current {@link Element} has at least one child element.
+     * @return true if the current {@link Element} has one or more child elements, otherwise false.
+     */
+    public boolean hasChild(){
+
+        return XMLEasy.firstElement(current,null,childIndex)!=null;
+
+    }
+
+    /**
+     * Gets the value of a non-optional attribute of the current {@link Element}.
+     * @param name the attribute's name
+     * @return the attribute's value. Will never be null.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     */
+    public String attribute(String name){
+        validateAttributeName(name);
+        if(!current.hasAttribute(name))
+            throw new IllegalStateException(String.format("There is no such attribute : %s",name));
+        return current.getAttribute(name);
+    }
+
+    /**
+     * Gets the value of an optional attribute of the current {@link Element}, without wrapping it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     */
+    public String attribute(String name, String defaultValue){
+        validateAttributeName(name);
+        if(!current.hasAttribute(name))
+            return defaultValue;
+        return current.getAttribute(name);
+    }
+
+    /**
+     * Gets the value of a non-optional attribute of the current {@link Element} as an int.
+     * @param name the attribute's name
+     * @return the attribute's value.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid int
+     */
+    public int intAttribute(String name){
+        validateAttributeName(name);
+        return NumericValues.parseInt(NumericValues.requiredAttribute(current,name),current,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute of the current {@link Element} as an int, without boxing it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid int
+     */
+    public int intAttribute(String name, int defaultValue){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(current,name);
+        return value==null ? defaultValue : NumericValues.parseInt(value,current,name);
+    }
+
+    /**
+     * Gets the value of a non-optional attribute of the current {@link Element} as a long.
+     * @param name the attribute's name
+     * @return the attribute's value.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid long
+     */
+    public long longAttribute(String name){
+        validateAttributeName(name);
+        return NumericValues.parseLong(NumericValues.requiredAttribute(current,name),current,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute of the current {@link Element} as a long, without boxing it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid long
+     */
+    public long longAttribute(String name, long defaultValue){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(current,name);
+        return value==null ? defaultValue : NumericValues.parseLong(value,current,name);
+    }
+
+    /**
+     * Gets the value of a non-optional attribute of the current {@link Element} as a double.
+     * @param name the attribute's name
+     * @return the attribute's value.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid double
+     */
+    public double doubleAttribute(String name){
+        validateAttributeName(name);
+        return NumericValues.parseDouble(NumericValues.requiredAttribute(current,name),current,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute of the current {@link Element} as a double, without boxing it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid double
+     */
+    public double doubleAttribute(String name, double defaultValue){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(current,name);
+        return value==null ? defaultValue : NumericValues.parseDouble(value,current,name);
+    }
+
+    /**
+     * Gets the text content of the current XML {@link Element}.
+     * @return the text content of the current XML {@link Element}.
+     */
+    public String getContent(){
+
+        return current.getTextContent();
+
+    }
+
+    /**
+     * Gets the text content of the current XML {@link Element} as an int, ignoring surrounding whitespace.
+     * @return the text content of the current XML {@link Element}.
+     * @throws XMLNumberFormatException if the text content is not a valid int
+     */
+    public int intContent(){
+
+        return NumericValues.parseInt(NumericValues.content(current),current,null);
+
+    }
+
+    /**
+     * Gets the text content of the current XML {@link Element} as a long, ignoring surrounding whitespace.
+     * @return the text content of the current XML {@link Element}.
+     * @throws XMLNumberFormatException if the text content is not a valid long
+     */
+    public long longContent(){
+
+        return NumericValues.parseLong(NumericValues.content(current),current,null);
+
+    }
+
+    /**
+     * Gets the text content of the current XML {@link Element} as a double, ignoring surrounding whitespace.
+     * @return the text content of the current XML {@link Element}.
+     * @throws XMLNumberFormatException if the text content is not a valid double
+     */
+    public double doubleContent(){
+
+        return NumericValues.parseDouble(NumericValues.content(current),current,null);
+
+    }
+
+    /**
+     * Gets the tag name of the current XML element.
+     * @return the tag name of the current XML element. Will never return null.
+     */
+    public String getTag(){
+
+        return current.getTagName();
+
+    }
+
+    /**
+     * Gets the current XML {@link Element}.
+     * @return the current XML {@link Element}. Will never return null.
+     */
+    public Element getElement(){
+
+        return current;
+
+    }
+
+    /**
+     * Creates an immutable (frozen) {@link XMLEasy} instance for the current {@link Element}. The instance shares the
+     * child index of the cursor, and is immutable if the cursor was opened on an immutable document.
+     * @return a new frozen {@link XMLEasy} instance.
+     */
+    public XMLEasy snapshot(){
+
+        return XMLEasy.snapshot(current,childIndex);
+
+    }
+
+    private XMLCursor moveToChild(Element element, String tag){
+
+        if(element==null){
+            if(tag==null)
+                throw new IllegalStateException(String.format("No Child element found in element [%s]",current.getTagName()));
+            throw new IllegalStateException(String.format("No element with tag [%s] found in element [%s]",tag,current.getTagName()));
+        }
+
+        current = element;
+        return this;
+
+    }
+
+    private void validateTagName(String tag){
+
+        if(tag==null||tag.isEmpty())
+            throw new IllegalArgumentException("Tag name must not be null or empty");
+    }
+
+    private void validateAttributeName(String name){
+        if(name==null||name.isEmpty())
+            throw new IllegalArgumentException("Attribute name must not be null or empty");
+    }
+
+}
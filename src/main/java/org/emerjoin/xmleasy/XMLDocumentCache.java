@@ -0,0 +1,505 @@
+package org.emerjoin.xmleasy;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe cache of parsed XML documents, keyed by URL.
+ * Documents are parsed once, frozen and shared by every caller, so they must only be read. The DOM of each document is
+ * fully expanded before it's shared, so it can be navigated by many threads as described in
+ * {@link XMLEasy#parallelStreamChildren()}, or documents are parsed as {@link XMLEasy#immutable(URL)} instances when
+ * {@link Builder#immutable(boolean)} is enabled. Once an entry is older than the time to live, the next lookup revalidates
+ * it against its source: the last-modified date and length of <code>file:</code> URLs, a conditional request with
+ * <code>If-None-Match</code> and <code>If-Modified-Since</code> for HTTP URLs, and the last-modified date for other
+ * URLs. The document is only parsed again if its source changed. Concurrent lookups of a document that is being loaded
+ * or revalidated wait for that load instead of starting their own. The least recently used documents are evicted once
+ * the maximum number of entries or the maximum weight is exceeded. No lock is held while documents are read.
+ */
+public class XMLDocumentCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 128;
+    public static final long DEFAULT_TIME_TO_LIVE_SECONDS = 5;
+
+    private final XMLEasyParser parser;
+    private final boolean immutable;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long timeToLive;
+    private final ToLongFunction<XMLEasy> weigher;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16,0.75f,true);
+    private final Map<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    private long weight;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long revalidations;
+    private long evictions;
+
+    private XMLDocumentCache(Builder builder){
+        this.parser = builder.parser;
+        this.immutable = builder.immutable;
+        this.maxEntries = builder.maxEntries;
+        this.maxWeight = builder.maxWeight;
+        this.timeToLive = builder.timeToLive;
+        this.weigher = builder.weigher;
+
+    }
+
+    /**
+     * Creates a new {@link Builder} to configure an {@link XMLDocumentCache}.
+     * @return a new {@link Builder} instance.
+     */
+    public static Builder builder(){
+
+        return new Builder();
+
+    }
+
+    /**
+     * Gets the document of a URL, loading it if it's not cached or revalidating it if its time to live elapsed.
+     * @param url the XML Document URL
+     * @return the frozen, shared {@link XMLEasy} instance of the document. Will never return null.
+     * @throws IllegalArgumentException if the URL is null
+     * @throws XMLException if the document can't be loaded or revalidated
+     */
+    public XMLEasy get(URL url){
+        if(url==null)
+            throw new IllegalArgumentException("URL must not be null");
+        //URL.equals() resolves host names, so the external form is used as key
+        String key = url.toExternalForm();
+        Entry entry;
+        synchronized (entries){
+            entry = entries.get(key);
+            if(entry!=null&&System.nanoTime()-entry.checked<timeToLive){
+                hits++;
+                return entry.document;
+            }
+            misses++;
+        }
+
+        CompletableFuture<Entry> flight = new CompletableFuture<>();
+        CompletableFuture<Entry> current = loading.putIfAbsent(key,flight);
+        if(current!=null)
+            return await(current).document;
+
+        try {
+            //The previous load may have completed between the lookup and the flight
+            synchronized (entries){
+                entry = entries.get(key);
+            }
+            if(entry!=null&&System.nanoTime()-entry.checked<timeToLive){
+                flight.complete(entry);
+                return entry.document;
+            }
+            Entry fetched = fetch(url,entry);
+            store(key,fetched,entry!=null&&fetched.document==entry.document);
+            flight.complete(fetched);
+            return fetched.document;
+        }catch (Throwable ex){
+            //Errors must also reach the lookups waiting for this load
+            flight.completeExceptionally(ex);
+            throw ex;
+        }finally {
+            loading.remove(key,flight);
+        }
+
+    }
+
+    private static Entry await(CompletableFuture<Entry> flight){
+
+        try {
+            return flight.join();
+        }catch (CompletionException ex){
+            if(ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            if(ex.getCause() instanceof Error)
+                throw (Error) ex.getCause();
+            throw ex;
+        }
+
+    }
+
+    private void store(String key, Entry entry, boolean revalidated){
+        synchronized (entries){
+            if(revalidated)
+                revalidations++;
+            Entry previous = entries.put(key,entry);
+            if(previous!=null)
+                weight -= previous.weight;
+            weight += entry.weight;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while((entries.size()>maxEntries||weight>maxWeight)&&iterator.hasNext()){
+                weight -= iterator.next().weight;
+                iterator.remove();
+                evictions++;
+            }
+        }
+
+    }
+
+    /**
+     * Loads a document, or revalidates a cached one.
+     * @param cached the cached entry, or null if the document is not cached
+     * @return a new entry. It holds the document of the cached entry if its source didn't change.
+     */
+    private Entry fetch(URL url, Entry cached){
+
+        long checked = System.nanoTime();
+        try {
+
+            File file = XMLSource.file(url);
+            if(file!=null){
+                long lastModified = file.lastModified();
+                long length = file.length();
+                if(cached!=null&&cached.lastModified==lastModified&&cached.length==length)
+                    return cached.revalidated(checked);
+                XMLEasy document = immutable ? parser.parseImmutable(url) : parser.parse(url);
+                return entry(document,checked,null,lastModified,length,length);
+            }
+
+            URLConnection connection = url.openConnection();
+            if(connection instanceof HttpURLConnection){
+                HttpURLConnection http = (HttpURLConnection) connection;
+                if(cached!=null&&cached.tag!=null)
+                    http.setRequestProperty("If-None-Match",cached.tag);
+                if(cached!=null&&cached.lastModified>0)
+                    http.setIfModifiedSince(cached.lastModified);
+                //The connection is not disconnected, so that revalidations reuse it
+                int status = http.getResponseCode();
+                if(cached!=null&&status==HttpURLConnection.HTTP_NOT_MODIFIED)
+                    return cached.revalidated(checked);
+                if(status!=HttpURLConnection.HTTP_OK){
+                    http.disconnect();
+                    throw new XMLException(String.format("Failed to load XML from [%s]: HTTP status %d",url,status));
+                }
+                try(InputStream input = http.getInputStream()){
+                    return load(input,checked,http.getHeaderField("ETag"),http.getLastModified(),-1);
+                }
+            }
+
+            //Sources without a last-modified date are loaded again on every revalidation
+            long lastModified = connection.getLastModified();
+            if(cached!=null&&lastModified>0&&cached.lastModified==lastModified)
+                return cached.revalidated(checked);
+            try(InputStream input = connection.getInputStream()){
+                return load(input,checked,null,lastModified,-1);
+            }
+
+        }catch (XMLException ex){
+
+            throw ex;
+
+        }catch (IOException | IllegalArgumentException ex){
+
+            throw new XMLException(String.format("Failed to load XML from [%s]",url),ex);
+
+        }
+
+    }
+
+    private Entry load(InputStream input, long checked, String tag, long lastModified, long length){
+
+        CountingInputStream counting = new CountingInputStream(input);
+        XMLEasy document = immutable ? parser.parseImmutable(counting) : parser.parse(counting);
+        return entry(document,checked,tag,lastModified,length,counting.count);
+
+    }
+
+    /**
+     * Creates the entry of a parsed document, expanding and freezing the document so that it can be shared.
+     * @param size the size of the document, in bytes
+     */
+    private Entry entry(XMLEasy document, long checked, String tag, long lastModified, long length, long size){
+
+        if(!immutable){
+            DomWarmer.warm(document.getElement().getOwnerDocument());
+            document.expanded().freeze();
+        }
+        synchronized (entries){
+            loads++;
+        }
+
+        return new Entry(document,checked,tag,lastModified,length,weigher==null ? size : weigher.applyAsLong(document));
+
+    }
+
+    /**
+     * Removes the document of a URL.
+     * @param url the XML Document URL
+     * @throws IllegalArgumentException if the URL is null
+     */
+    public void invalidate(URL url){
+        if(url==null)
+            throw new IllegalArgumentException("URL must not be null");
+        synchronized (entries){
+            Entry entry = entries.remove(url.toExternalForm());
+            if(entry!=null)
+                weight -= entry.weight;
+        }
+
+    }
+
+    /**
+     * Removes every document.
+     */
+    public void invalidateAll(){
+        synchronized (entries){
+            entries.clear();
+            weight = 0;
+        }
+
+    }
+
+    /**
+     * Gets the number of cached documents.
+     * @return the number of cached documents.
+     */
+    public int size(){
+        synchronized (entries){
+            return entries.size();
+        }
+
+    }
+
+    /**
+     * Gets the total weight of the cached documents.
+     * @return the total weight of the cached documents.
+     */
+    public long getWeight(){
+        synchronized (entries){
+            return weight;
+        }
+
+    }
+
+    /**
+     * Gets the number of lookups answered without checking the source of the document.
+     * @return the number of hits.
+     */
+    public long getHits(){
+        synchronized (entries){
+            return hits;
+        }
+
+    }
+
+    /**
+     * Gets the number of lookups that loaded or revalidated a document, or waited for it to be loaded.
+     * @return the number of misses.
+     */
+    public long getMisses(){
+        synchronized (entries){
+            return misses;
+        }
+
+    }
+
+    /**
+     * Gets the number of documents parsed by this cache.
+     * @return the number of parsed documents.
+     */
+    public long getLoads(){
+        synchronized (entries){
+            return loads;
+        }
+
+    }
+
+    /**
+     * Gets the number of lookups that found the source of a cached document unchanged.
+     * @return the number of revalidations.
+     */
+    public long getRevalidations(){
+        synchronized (entries){
+            return revalidations;
+        }
+
+    }
+
+    /**
+     * Gets the number of documents evicted to respect the maximum number of entries or the maximum weight.
+     * @return the number of evictions.
+     */
+    public long getEvictions(){
+        synchronized (entries){
+            return evictions;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final XMLEasy document;
+        private final long checked;
+        private final String tag;
+        private final long lastModified;
+        private final long length;
+        private final long weight;
+
+        private Entry(XMLEasy document, long checked, String tag, long lastModified, long length, long weight){
+            this.document = document;
+            this.checked = checked;
+            this.tag = tag;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.weight = weight;
+        }
+
+        private Entry revalidated(long checked){
+
+            return new Entry(document,checked,tag,lastModified,length,weight);
+
+        }
+
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream input){
+            super(input);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if(value>=0)
+                count++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes,offset,length);
+            if(read>0)
+                count += read;
+            return read;
+        }
+
+    }
+
+    /**
+     * Configures and creates {@link XMLDocumentCache} instances.
+     */
+    public static class Builder {
+
+        private XMLEasyParser parser = XMLEasyParser.getDefault();
+        private boolean immutable = false;
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        private long maxWeight = Long.MAX_VALUE;
+        private long timeToLive = TimeUnit.SECONDS.toNanos(DEFAULT_TIME_TO_LIVE_SECONDS);
+        private ToLongFunction<XMLEasy> weigher = null;
+
+        private Builder(){
+
+        }
+
+        /**
+         * Sets the parser of the documents. {@link XMLEasyParser#getDefault()} by default.
+         * @param parser the {@link XMLEasyParser} instance
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the parser is null
+         */
+        public Builder parser(XMLEasyParser parser){
+            if(parser==null)
+                throw new IllegalArgumentException("XMLEasyParser instance must not be null");
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * Sets whether the documents are parsed into immutable instances, as by {@link XMLEasyParser#parseImmutable(URL)},
+         * which are safe to read concurrently without restrictions. Disabled by default.
+         * @param immutable true to cache immutable documents
+         * @return the current {@link Builder} instance.
+         */
+        public Builder immutable(boolean immutable){
+            this.immutable = immutable;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached documents. {@value #DEFAULT_MAX_ENTRIES} by default.
+         * @param maxEntries the maximum number of cached documents
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the maximum number of documents is not positive
+         */
+        public Builder maxEntries(int maxEntries){
+            if(maxEntries<1)
+                throw new IllegalArgumentException("Maximum entries must be greater than zero");
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of the cached documents. Unbounded by default.
+         * @param maxWeight the maximum total weight
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the maximum weight is not positive
+         * @see #weigher(ToLongFunction)
+         */
+        public Builder maxWeight(long maxWeight){
+            if(maxWeight<1)
+                throw new IllegalArgumentException("Maximum weight must be greater than zero");
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * Sets the function that weighs the documents. By default, the weight of a document is its size in bytes.
+         * @param weigher the weigher of the documents
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the weigher is null
+         */
+        public Builder weigher(ToLongFunction<XMLEasy> weigher){
+            if(weigher==null)
+                throw new IllegalArgumentException("Weigher must not be null");
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Sets how long a document is served without checking whether its source changed.
+         * {@value #DEFAULT_TIME_TO_LIVE_SECONDS} seconds by default. Zero revalidates the document on every lookup, so
+         * that no lookup is a hit.
+         * @param duration the time to live
+         * @param unit the unit of the time to live
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the duration is negative or the unit is null
+         */
+        public Builder timeToLive(long duration, TimeUnit unit){
+            if(duration<0)
+                throw new IllegalArgumentException("Time to live must not be negative");
+            if(unit==null)
+                throw new IllegalArgumentException("TimeUnit must not be null");
+            this.timeToLive = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Creates an {@link XMLDocumentCache} with the current configuration.
+         * @return a new {@link XMLDocumentCache} instance.
+         */
+        public XMLDocumentCache build(){
+
+            return new XMLDocumentCache(this);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,19 @@
+package org.emerjoin.xmleasy;
+
+/**
+ * Thrown when an XML document exceeds the maximum document size of its {@link XMLEasyParser}.
+ */
+public class XMLDocumentTooLargeException extends XMLException {
+
+    private final long maxDocumentSize;
+
+    public XMLDocumentTooLargeException(long maxDocumentSize){
+        super(String.format("XML Document exceeds the maximum size of %d bytes",maxDocumentSize));
+        this.maxDocumentSize = maxDocumentSize;
+    }
+
+    public long getMaxDocumentSize(){
+        return maxDocumentSize;
+    }
+
+}
@@ -1,27 +1,30 @@
 package org.emerjoin.xmleasy;
 
-import com.sun.org.apache.xerces.internal.jaxp.validation.XMLSchemaFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
-import javax.xml.validation.Schema;
-import javax.xml.validation.Validator;
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents the XMLEasy public API.
@@ -34,8 +37,14 @@ public class XMLEasy {
     private InputStream xmlStream;
     private Document document;
     private Element currentElement;
-    private byte[] xmlBytes;
+    private XMLSource source;
     private boolean frozen;
+    private boolean immutable;
+    private boolean expanded;
+    private XMLEasyParser parser;
+    private ChildIndex childIndex;
+    private boolean childIndexResolved;
+    private boolean compact;
 
     /**
      * Creates a new {@link XMLEasy} instance for an XML {@link Element}
@@ -50,30 +59,284 @@ public class XMLEasy {
     }
 
 
+    /**
+     * Creates a new {@link XMLBatch} to load many XML documents in parallel.
+     * @param urls the XML Documents URLs
+     * @return a new {@link XMLBatch} instance.
+     * @throws IllegalArgumentException if the collection is null or contains null URLs
+     */
+    public static XMLBatch batch(Collection<URL> urls){
+
+        return new XMLBatch(urls);
+
+    }
+
+    /**
+     * Loads an XML document without blocking the calling thread.
+     * @param url the XML Document URL
+     * @return a {@link CompletableFuture} completed with the new {@link XMLEasy} instance. Will never return null.
+     * @throws IllegalArgumentException if the URL is null
+     * @see XMLEasyParser#parseAsync(URL)
+     */
+    public static CompletableFuture<XMLEasy> loadAsync(URL url){
+
+        return XMLEasyParser.getDefault().parseAsync(url);
+
+    }
+
+    /**
+     * Loads an XML document on an {@link Executor}.
+     * @param url the XML Document URL
+     * @param executor the {@link Executor} on which the document is loaded
+     * @return a {@link CompletableFuture} completed with the new {@link XMLEasy} instance. Will never return null.
+     * @throws IllegalArgumentException if the URL or the executor is null
+     * @see XMLEasyParser#parseAsync(URL, Executor)
+     */
+    public static CompletableFuture<XMLEasy> loadAsync(URL url, Executor executor){
+
+        return XMLEasyParser.getDefault().parseAsync(url,executor);
+
+    }
+
+    /**
+     * Creates a new {@link XMLEasyStream} to read an XML document sequentially, without loading it as a whole.
+     * @param url the XML Document URL
+     * @return a new {@link XMLEasyStream} instance.
+     * @throws IllegalArgumentException if the URL is null
+     */
+    public static XMLEasyStream stream(URL url){
+
+        return new XMLEasyStream(url);
+
+    }
+
+    /**
+     * Creates a new {@link XMLEasyStream} to read an XML document sequentially, without loading it as a whole.
+     * The stream can only be read once.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new {@link XMLEasyStream} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     */
+    public static XMLEasyStream stream(InputStream stream){
+
+        return new XMLEasyStream(stream);
+
+    }
+
+    /**
+     * Creates a new {@link XMLExtraction} to extract the elements matching many paths in a single sequential pass.
+     * @param url the XML Document URL
+     * @return a new {@link XMLExtraction} instance.
+     * @throws IllegalArgumentException if the URL is null
+     */
+    public static XMLExtraction extract(URL url){
+
+        return new XMLExtraction(new XMLEasyStream(url));
+
+    }
+
+    /**
+     * Creates a new {@link XMLExtraction} to extract the elements matching many paths in a single sequential pass.
+     * The extraction can only be run once.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new {@link XMLExtraction} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     */
+    public static XMLExtraction extract(InputStream stream){
+
+        return new XMLExtraction(new XMLEasyStream(stream));
+
+    }
+
+    /**
+     * Creates a new {@link XMLEasyFeeder} to parse an XML document pushed in chunks, supplying each element matching a
+     * path as soon as it's complete.
+     * @param path the path of the elements to supply
+     * @param consumer matching elements consumer. Elements are supplied as detached fragments.
+     * @return a new {@link XMLEasyFeeder} instance.
+     * @throws IllegalArgumentException if the path is null, empty or invalid, has child predicates before its last
+     * step, or the consumer instance is null
+     */
+    public static XMLEasyFeeder feeder(String path, Consumer<XMLEasy> consumer){
+        return XMLEasyParser.getDefault().feeder(path,consumer);
+
+    }
+
+    /**
+     * Creates a new {@link XMLEasyFeeder} to parse an XML document pushed in chunks, supplying each element matching a
+     * compiled path as soon as it's complete.
+     * @param path the compiled path of the elements to supply
+     * @param consumer matching elements consumer. Elements are supplied as detached fragments.
+     * @return a new {@link XMLEasyFeeder} instance.
+     * @throws IllegalArgumentException if the path is null or has child predicates before its last step, or the
+     * consumer instance is null
+     */
+    public static XMLEasyFeeder feeder(XMLPath path, Consumer<XMLEasy> consumer){
+
+        return XMLEasyParser.getDefault().feeder(path,consumer);
+
+    }
+
+    /**
+     * Gets the {@link XMLBinder} generated for a class with {@link XMLEasyPath} fields.
+     * @param type the bound class
+     * @param <T> the bound type
+     * @return the {@link XMLBinder} of the class. Will never return null.
+     * @throws IllegalArgumentException if the class is null or no binder was generated for it
+     */
+    public static <T> XMLBinder<T> binder(Class<T> type){
+        if(type==null)
+            throw new IllegalArgumentException("Class must not be null");
+        return BinderRegistry.binder(type);
+
+    }
+
+    /**
+     * Loads an XML document into a compact, read-only representation that takes a fraction of the heap of a W3C DOM
+     * {@link Document}. The root element is set as the current {@link Element}.
+     * @param url the XML Document URL
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the URL is null
+     * @throws XMLException if the document can't be loaded
+     * @see XMLEasyParser#parseCompact(URL)
+     */
+    public static XMLEasy compact(URL url){
+
+        return XMLEasyParser.getDefault().parseCompact(url);
+
+    }
+
+    /**
+     * Loads an XML document into a compact, read-only representation that takes a fraction of the heap of a W3C DOM
+     * {@link Document}. The root element is set as the current {@link Element}.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     * @throws XMLException if the document can't be loaded
+     * @see XMLEasyParser#parseCompact(InputStream)
+     */
+    public static XMLEasy compact(InputStream stream){
+
+        return XMLEasyParser.getDefault().parseCompact(stream);
+
+    }
+
+    /**
+     * Loads an XML document that can be read by many threads at the same time, without locks.
+     * @param url the XML Document URL
+     * @return a new immutable {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the URL is null
+     * @throws XMLException if the document can't be loaded
+     * @see XMLEasyParser#parseImmutable(URL)
+     */
+    public static XMLEasy immutable(URL url){
+
+        return XMLEasyParser.getDefault().parseImmutable(url);
+
+    }
+
+    /**
+     * Loads an XML document that can be read by many threads at the same time, without locks.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new immutable {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     * @throws XMLException if the document can't be loaded
+     * @see XMLEasyParser#parseImmutable(InputStream)
+     */
+    public static XMLEasy immutable(InputStream stream){
+
+        return XMLEasyParser.getDefault().parseImmutable(stream);
+
+    }
+
+    /**
+     * Loads an XML file into a compact, read-only representation stored in a memory-mapped index file, which is reused
+     * by later loads of the same, unmodified file. The root element is set as the current {@link Element}.
+     * @param source the XML Document file
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the file is null
+     * @throws XMLException if the document can't be loaded
+     * @see XMLEasyParser#parseMapped(File)
+     */
+    public static XMLEasy mapped(File source){
+
+        return XMLEasyParser.getDefault().parseMapped(source);
+
+    }
+
+    /**
+     * Loads an XML file into a compact, read-only representation stored in a memory-mapped index file, which is reused
+     * by later loads of the same, unmodified file. The root element is set as the current {@link Element}.
+     * @param source the XML Document file
+     * @param index the index file
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if any of the files is null
+     * @throws XMLException if the document can't be loaded
+     * @see XMLEasyParser#parseMapped(File, File)
+     */
+    public static XMLEasy mapped(File source, File index){
+
+        return XMLEasyParser.getDefault().parseMapped(source,index);
+
+    }
+
+
     /**
      * Constructs a new {@link XMLEasy} instance for an XML document and sets the root element as the current {@link Element}.
+     * The document is parsed by the default {@link XMLEasyParser}.
      * @param url the XML Document URL
      */
     public XMLEasy(URL url){
-        if(url==null)
-            throw new IllegalArgumentException("URL must not be null");
-        this.xmlURL = url;
-        loadXML();
+        this(url,XMLEasyParser.getDefault());
 
     }
 
     /**
      * Constructs a new {@link XMLEasy} instance for an XML document and sets the root element as the current {@link Element}.
+     * The document is parsed by the default {@link XMLEasyParser}.
      * @param stream the XML Document {@link InputStream}
      */
     public XMLEasy(InputStream stream){
+        this(stream,XMLEasyParser.getDefault());
+    }
+
+    XMLEasy(URL url, XMLEasyParser parser){
+        this(url,parser,false);
+
+    }
+
+    XMLEasy(URL url, XMLEasyParser parser, boolean compact){
+        if(url==null)
+            throw new IllegalArgumentException("URL must not be null");
+        this.xmlURL = url;
+        this.parser = parser;
+        this.compact = compact;
+        loadXML();
+
+    }
+
+    XMLEasy(InputStream stream, XMLEasyParser parser){
+        this(stream,parser,false);
+    }
+
+    XMLEasy(InputStream stream, XMLEasyParser parser, boolean compact){
         if(stream==null)
             throw new IllegalArgumentException("InputStream must not be null");
         this.xmlStream = stream;
+        this.parser = parser;
+        this.compact = compact;
         loadXML();
     }
 
 
+    XMLEasy(Document document, URL url){
+        this.document = document;
+        this.xmlURL = url;
+        this.currentElement = document.getDocumentElement();
+
+    }
+
+
     /**
      * Constructs a new {@link XMLEasy} instance for an XML {@link Element}.
      * @param element the XML {@link Element}. This will be set as the current {@link Element}
@@ -92,21 +355,32 @@ public class XMLEasy {
 
         try {
 
-            if(xmlStream!=null){
-                xmlBytes = getBytes(xmlStream);
-                xmlStream = new ByteArrayInputStream(xmlBytes);
-            }else xmlBytes = getBytes(xmlURL.openStream());
-
-            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-            DocumentBuilder db = dbf.newDocumentBuilder();
-            if(xmlURL!=null)
-                document = db.parse(xmlURL.openStream());
-            else
-                document = db.parse(xmlStream);
+            XMLSource loaded = xmlURL!=null ? parser.read(xmlURL) : parser.read(xmlStream);
+            if(compact){
+                try {
+                    parser.validate(loaded.openStream());
+                    document = parser.parseCompactDocument(loaded.openStream());
+                }finally {
+                    loaded.release();
+                }
+            }else if(parser.isRetainSource()) {
+                source = loaded.detach();
+                document = parser.parseDocument(source.openStream());
+            }else{
+                try {
+                    document = parser.parseDocument(loaded.openStream());
+                }finally {
+                    loaded.release();
+                }
+            }
 
             currentElement = document.getDocumentElement();
 
 
+        }catch (XMLException ex){
+
+            throw ex;
+
         }catch (Throwable ex){
 
             throw new XMLException("Failed to load XML",ex);
@@ -127,16 +401,11 @@ public class XMLEasy {
 
     }
 
-    private void requireChildNodes(){
-
-        if(!hasChildren())
-            throw new IllegalStateException(String.format("No child nodes found in element of type [%s]",currentElement.getTagName()));
-
-    }
-
 
     /**
      * Selects the first child element with a specific tag name.
+     * Only the immediate children of the current {@link Element} are matched, use {@link #descendant(String)} to match
+     * any descendant.
      * @param tag the child element tag name.
      * @return an {@link XMLEasy} instance with the child {@link Element} set as current {@link Element}.
      * @throws IllegalStateException if the current {@link Element} has no matching child element.
@@ -151,8 +420,9 @@ public class XMLEasy {
 
     public ChildPresence ifChild(String tag){
 
-        if(hasChild(tag))
-            return new ChildPresence(child(tag),this);
+        Element element = firstElement(tag);
+        if(element!=null)
+            return new ChildPresence(wrap(element),this);
 
         return new ChildPresence(null,this);
 
@@ -160,6 +430,7 @@ public class XMLEasy {
 
     /**
      * Selects the first child element with a specific tag name.
+     * Only the immediate children of the current {@link Element} are matched.
      * @param tag the child element tag name.
      * @return an {@link XMLEasy} instance with the child {@link Element} set as current {@link Element}.
      * @throws IllegalStateException if the current {@link Element} has no matching child element.
@@ -167,8 +438,7 @@ public class XMLEasy {
      */
     public XMLEasy firstChild(String tag){
         validateTagName(tag);
-        NodeList nodeList = children(tag);
-        return wrap((Element) nodeList.item(0));
+        return wrap(requireElement(firstElement(tag),tag));
     }
 
     /**
@@ -178,16 +448,10 @@ public class XMLEasy {
      */
     public XMLEasy firstChild(){
 
-        NodeList childNodes = currentElement.getChildNodes();
-        for(int i=0;i<childNodes.getLength();i++){
-
-            Node node = childNodes.item(i);
-            if(node instanceof Element)
-                return wrap((Element) node);
-
-        }
-
-        throw new IllegalStateException("No child element found");
+        Element element = firstElement(null);
+        if(element==null)
+            throw new IllegalStateException("No child element found");
+        return wrap(element);
 
     }
 
@@ -198,10 +462,10 @@ public class XMLEasy {
      */
     public XMLEasy lastChild(){
 
-        List<Element> elements = children();
-        if(elements.size()==0)
+        Element element = lastElement(null);
+        if(element==null)
             throw new IllegalStateException("No child element found");
-        return wrap(elements.get(elements.size()-1));
+        return wrap(element);
 
     }
 
@@ -212,77 +476,259 @@ public class XMLEasy {
      * @throws IllegalStateException if the current {@link Element} has no child element.
      */
     public XMLEasy child(){
-        NodeList nodeList = currentElement.getChildNodes();
-        for(int i = 0; i<nodeList.getLength();i++){
 
-            Node node = nodeList.item(i);
-            if(node instanceof Element)
-                return wrap((Element) node);
+        Element element = firstElement(null);
+        if(element==null)
+            throw new IllegalStateException(String.format("No Child element found in element [%s]",
+                currentElement.getTagName()));
+        return wrap(element);
 
-        }
+    }
 
-        throw new IllegalStateException(String.format("No Child element found in element [%s]",
-                currentElement.getTagName()));
+    /**
+     * Selects the first descendant element with a specific tag name, in document order. Unlike {@link #child(String)},
+     * the whole subtree of the current {@link Element} is searched.
+     * @param tag the descendant element tag name.
+     * @return an {@link XMLEasy} instance with the descendant {@link Element} set as current {@link Element}.
+     * @throws IllegalStateException if the current {@link Element} has no matching descendant element.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public XMLEasy descendant(String tag){
+        validateTagName(tag);
+        Element element = (Element) currentElement.getElementsByTagName(tag).item(0);
+        return wrap(requireElement(element,tag));
+    }
+
+    /**
+     * Selects the elements that match a path expression, relative to the current {@link Element}.
+     * The expression is compiled on every invocation: compile it once with {@link XMLPath#compile(String)} when it's
+     * evaluated repeatedly.
+     * @param path the path expression
+     * @return a {@link List<Element>} of the matching elements, in document order. Will never return null.
+     * @throws IllegalArgumentException if the path expression is null or invalid
+     * @see XMLPath
+     */
+    public List<Element> select(String path){
+
+        return XMLPath.compile(path).select(currentElement);
 
     }
 
-    private NodeList children(String tag){
-        requireChildNodes();
-        NodeList nodeList = currentElement.getElementsByTagName(tag);
-        if(nodeList.getLength()==0)
-            throw new IllegalStateException(String.format("No element with tag [%s] found in element [%s]",tag, currentElement.getTagName()));
+    /**
+     * Selects the elements that match a compiled path, relative to the current {@link Element}.
+     * @param path the compiled path
+     * @return a {@link List<Element>} of the matching elements, in document order. Will never return null.
+     * @throws IllegalArgumentException if the path is null
+     */
+    public List<Element> select(XMLPath path){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        return path.select(currentElement);
 
-        return nodeList;
+    }
+
+    /**
+     * Selects the first element, in document order, that matches a path expression, relative to the current {@link Element}.
+     * @param path the path expression
+     * @return an {@link Optional<Element>} instance for the first matching element. Will never return null.
+     * @throws IllegalArgumentException if the path expression is null or invalid
+     */
+    public Optional<Element> selectFirst(String path){
+
+        return XMLPath.compile(path).selectFirst(currentElement);
 
     }
 
-    private List<Element> children(){
+    /**
+     * Selects the first element, in document order, that matches a compiled path, relative to the current {@link Element}.
+     * @param path the compiled path
+     * @return an {@link Optional<Element>} instance for the first matching element. Will never return null.
+     * @throws IllegalArgumentException if the path is null
+     */
+    public Optional<Element> selectFirst(XMLPath path){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        return path.selectFirst(currentElement);
 
-        NodeList nodeList = currentElement.getChildNodes();
-        List<Element> elements = new ArrayList<>();
+    }
+
+    /**
+     * Gets a list of descendant elements with a specific tag name, in document order.
+     * @param tagName descendant elements tag name.
+     * @return a {@link List<Element>} of descendant elements with the specified tag name.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     */
+    public List<Element> listDescendants(String tagName){
+        validateTagName(tagName);
+        NodeList nodeList = currentElement.getElementsByTagName(tagName);
+        List<Element> elements = new ArrayList<>(nodeList.getLength());
         for(int i=0;i<nodeList.getLength();i++){
+            Element element = (Element) nodeList.item(i);
+            elements.add(element);
+        }
+
+        return elements;
+
+    }
+
+    static boolean matches(Node node, String tag){
+
+        return node.getNodeType()==Node.ELEMENT_NODE
+                &&(tag==null||tag.equals("*")||tag.equals(((Element) node).getTagName()));
+
+    }
+
+    private ChildIndex childIndex(){
+
+        if(!childIndexResolved){
+            childIndex = ChildIndex.of(currentElement.getOwnerDocument());
+            childIndexResolved = true;
+        }
+
+        return childIndex;
+
+    }
+
+    private Element firstElement(String tag){
+
+        return firstElement(currentElement,tag,childIndex());
+
+    }
+
+    private Element lastElement(String tag){
+
+        return lastElement(currentElement,tag,childIndex());
 
-            Node node = nodeList.item(i);
-            if(!(node instanceof Element))
-                continue;
+    }
 
-            elements.add((Element) node);
+    /**
+     * Finds the first child element with a tag name, for {@link XMLEasy} and {@link XMLCursor} navigation.
+     * Lookups answered by the index are reported by the index itself.
+     */
+    static Element firstElement(Element parent, String tag, ChildIndex index){
+
+        if(index!=null)
+            return index.first(parent,tag);
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        int visited = 0;
+        for(Node node = parent.getFirstChild(); node!=null; node = node.getNextSibling()){
+            visited++;
+            if(matches(node,tag)){
+                if(metrics!=XMLEasyMetrics.NONE)
+                    metrics.navigated(visited);
+                return (Element) node;
+            }
         }
 
+        if(metrics!=XMLEasyMetrics.NONE)
+            metrics.navigated(visited);
+        return null;
+
+    }
+
+    /**
+     * Finds the last child element with a tag name, for {@link XMLEasy} and {@link XMLCursor} navigation.
+     * Lookups answered by the index are reported by the index itself.
+     */
+    static Element lastElement(Element parent, String tag, ChildIndex index){
+
+        if(index!=null)
+            return index.last(parent,tag);
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        int visited = 0;
+        for(Node node = parent.getLastChild(); node!=null; node = node.getPreviousSibling()){
+            visited++;
+            if(matches(node,tag)){
+                if(metrics!=XMLEasyMetrics.NONE)
+                    metrics.navigated(visited);
+                return (Element) node;
+            }
+        }
+
+        if(metrics!=XMLEasyMetrics.NONE)
+            metrics.navigated(visited);
+        return null;
+
+    }
+
+    private Element requireElement(Element element, String tag){
+
+        if(element==null)
+            throw new IllegalStateException(String.format("No element with tag [%s] found in element [%s]",tag, currentElement.getTagName()));
+        return element;
+
+    }
+
+    private List<Element> children(String tag){
+
+        ChildIndex index = childIndex();
+        if(index!=null)
+            return index.list(currentElement,tag);
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        int visited = 0;
+        List<Element> elements = new ArrayList<>();
+        for(Node node = currentElement.getFirstChild(); node!=null; node = node.getNextSibling()){
+            visited++;
+            if(matches(node,tag))
+                elements.add((Element) node);
+        }
+
+        if(metrics!=XMLEasyMetrics.NONE)
+            metrics.navigated(visited);
         return elements;
 
     }
 
+    private void eachChild(String tag, Consumer<Element> consumer){
+
+        ChildIndex index = childIndex();
+        if(index!=null){
+            for(Element element: index.children(currentElement,tag))
+                consumer.accept(element);
+            return;
+        }
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        int visited = 0;
+        for(Node node = currentElement.getFirstChild(); node!=null; node = node.getNextSibling()){
+            visited++;
+            if(matches(node,tag))
+                consumer.accept((Element) node);
+        }
+
+        if(metrics!=XMLEasyMetrics.NONE)
+            metrics.navigated(visited);
+
+    }
+
     /**
      * Selects the last child element with a specific tag name.
+     * Only the immediate children of the current {@link Element} are matched.
      * @return an {@link XMLEasy} instance with the child {@link Element} set as current {@link Element}.
      * @throws IllegalStateException if the current {@link Element} has no matching child element.
      * @throws IllegalArgumentException if the tag name is null or empty.
      */
     public XMLEasy lastChild(String tag){
         validateTagName(tag);
-        NodeList nodeList = children(tag);
-        return wrap((Element) nodeList.item(nodeList.getLength()-1));
+        return wrap(requireElement(lastElement(tag),tag));
     }
 
 
 
     /**
      * Gets a list of child elements with a specific tag name.
+     * Only the immediate children of the current {@link Element} are matched, use {@link #listDescendants(String)} to
+     * match any descendant.
      * @param tagName child elements tag name.
      * @return a {@link List<Element>} of child elements with the specified tag name.
      * @throws IllegalArgumentException if the tag name is null or empty.
      */
     public List<Element> listChildren(String tagName){
         validateTagName(tagName);
-        NodeList nodeList = currentElement.getElementsByTagName(tagName);
-        List<Element> elements = new ArrayList<>(nodeList.getLength());
-        for(int i=0;i<nodeList.getLength();i++){
-            Element element = (Element) nodeList.item(i);
-            elements.add(element);
-        }
-
-        return elements;
+        return children(tagName);
 
     }
 
@@ -292,30 +738,98 @@ public class XMLEasy {
      */
     public List<Element> listChildren(){
 
-        return children();
+        return children(null);
 
     }
 
 
     /**
      * Gets a non-parallel stream of child elements with a specific tag name.
+     * The stream is lazy: child elements are visited as they are consumed, so short-circuiting operations such as
+     * {@link Stream#findFirst()} stop at the first match.
      * @param tagName child elements tag name.
      * @return a non-parallel stream of child elements with the specified tag name.
      * @throws IllegalArgumentException if the tag name is null or empty.
      */
     public Stream<Element> streamChildren(String tagName){
         validateTagName(tagName);
-        return listChildren(tagName).stream();
+        return sequentialChildren(tagName);
 
     }
 
     /**
      * Gets a non-parallel stream of child elements.
+     * The stream is lazy: child elements are visited as they are consumed, so short-circuiting operations such as
+     * {@link Stream#findFirst()} stop at the first match.
      * @return a non-parallel stream of child elements.
      */
     public Stream<Element> streamChildren(){
 
-       return listChildren().stream();
+       return sequentialChildren(null);
+
+    }
+
+    /**
+     * Gets a parallel stream of child elements with a specific tag name.
+     * @param tagName child elements tag name.
+     * @return a parallel stream of child elements with the specified tag name.
+     * @throws IllegalArgumentException if the tag name is null or empty.
+     * @see #parallelStreamChildren()
+     */
+    public Stream<Element> parallelStreamChildren(String tagName){
+        validateTagName(tagName);
+        return parallelChildren(tagName);
+
+    }
+
+    /**
+     * Gets a parallel stream of child elements. The child elements are collected upfront, so that the stream can
+     * be split by index and is SIZED.
+     * <p>DOM documents are not Thread-safe, even for reads, because nodes are built lazily on first access. Each
+     * child element subtree is therefore fully expanded by the task that processes it, before it reaches the stream
+     * operations, holding the lock of the owner document (safe-read mode). Compact and immutable documents and the
+     * documents of an {@link XMLDocumentCache} are not built lazily, and are never expanded nor locked.
+     * The stream operations may then read the child element subtrees concurrently, provided that they navigate
+     * them through {@link XMLEasy} instances or {@link org.w3c.dom.Node#getFirstChild()},
+     * {@link org.w3c.dom.Node#getNextSibling()}, attribute and text getters. They must not modify the document nor
+     * use {@link org.w3c.dom.Node#getChildNodes()}, which caches lookups in the nodes.</p>
+     * @return a parallel stream of child elements.
+     */
+    public Stream<Element> parallelStreamChildren(){
+
+        return parallelChildren(null);
+
+    }
+
+    private Stream<Element> parallelChildren(String tag){
+
+        ChildIndex index = childIndex();
+        Element[] elements = index!=null ? index.children(currentElement,tag)
+                : children(tag).toArray(new Element[0]);
+        Stream<Element> stream = StreamSupport.stream(Spliterators.spliterator(elements,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE),true);
+        if(expanded||currentElement instanceof CompactNode)
+            return stream;
+
+        //Expanding a subtree also writes to the document-wide deferred node tables
+        Document owner = currentElement.getOwnerDocument();
+        return stream.peek(element -> {
+            synchronized (owner){
+                DomWarmer.warm(element);
+            }
+        });
+
+    }
+
+    private Stream<Element> sequentialChildren(String tag){
+
+        //Indexed children are already known: the stream is SIZED
+        ChildIndex index = childIndex();
+        if(index!=null)
+            return StreamSupport.stream(Spliterators.spliterator(index.children(currentElement,tag),
+                    Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE),false);
+
+        return StreamSupport.stream(new ChildSpliterator(currentElement,tag),false);
 
     }
 
@@ -330,11 +844,7 @@ public class XMLEasy {
         validateTagName(tagName);
         if(consumer==null)
             throw new IllegalArgumentException("Consumer instance must not be null");
-        NodeList nodeList = currentElement.getElementsByTagName(tagName);
-        for(int i=0;i<nodeList.getLength();i++){
-            Element element = (Element) nodeList.item(i);
-            consumer.accept(element);
-        }
+        eachChild(tagName,consumer);
 
         return this;
     }
@@ -348,15 +858,7 @@ public class XMLEasy {
     public XMLEasy eachChildElement(Consumer<Element> consumer){
         if(consumer==null)
             throw new IllegalArgumentException("Consumer instance must not be null");
-        NodeList nodeList = currentElement.getChildNodes();
-        for(int i=0;i<nodeList.getLength();i++){
-            Node node = nodeList.item(i);
-            if(!(node instanceof Element))
-                continue;
-
-            Element element = (Element) node;
-            consumer.accept(element);
-        }
+        eachChild(null,consumer);
 
         return this;
     }
@@ -365,12 +867,13 @@ public class XMLEasy {
 
     /**
      * Checks if the current {@link Element} has child elements with a specific tag name.
+     * Only the immediate children of the current {@link Element} are matched.
      * @param tagName the child elements tag name
      * @return true if the current {@link Element} has child elements with the specified tag name, otherwise false.
      */
     public boolean hasChild(String tagName){
-        return  currentElement.getElementsByTagName(tagName)
-                .getLength()>0;
+        validateTagName(tagName);
+        return firstElement(tagName)!=null;
     }
 
     /**
@@ -379,16 +882,7 @@ public class XMLEasy {
      */
     public boolean hasChild(){
 
-        NodeList nodeList = currentElement.getChildNodes();
-        for(int i=0;i<nodeList.getLength();i++){
-
-            Node node = nodeList.item(i);
-            if(node instanceof Element)
-                return true;
-
-        }
-
-        return false;
+        return firstElement(null)!=null;
 
     }
 
@@ -427,6 +921,126 @@ public class XMLEasy {
 
     }
 
+    /**
+     * Gets the value of a non-optional attribute as an int. The value is parsed from the attribute's characters.
+     * @param name the attribute's name
+     * @return the attribute's value.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid int
+     */
+    public int intAttribute(String name){
+        validateAttributeName(name);
+        return NumericValues.parseInt(NumericValues.requiredAttribute(currentElement,name),currentElement,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute as an int, without boxing it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid int
+     */
+    public int intAttribute(String name, int defaultValue){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(currentElement,name);
+        return value==null ? defaultValue : NumericValues.parseInt(value,currentElement,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute as an int.
+     * @param name the optional attribute's name
+     * @return an {@link OptionalInt} instance for the attribute's value. Will never be null.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid int
+     */
+    public OptionalInt optionalIntAttribute(String name){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(currentElement,name);
+        return value==null ? OptionalInt.empty() : OptionalInt.of(NumericValues.parseInt(value,currentElement,name));
+    }
+
+    /**
+     * Gets the value of a non-optional attribute as a long. The value is parsed from the attribute's characters.
+     * @param name the attribute's name
+     * @return the attribute's value.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid long
+     */
+    public long longAttribute(String name){
+        validateAttributeName(name);
+        return NumericValues.parseLong(NumericValues.requiredAttribute(currentElement,name),currentElement,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute as a long, without boxing it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid long
+     */
+    public long longAttribute(String name, long defaultValue){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(currentElement,name);
+        return value==null ? defaultValue : NumericValues.parseLong(value,currentElement,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute as a long.
+     * @param name the optional attribute's name
+     * @return an {@link OptionalLong} instance for the attribute's value. Will never be null.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid long
+     */
+    public OptionalLong optionalLongAttribute(String name){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(currentElement,name);
+        return value==null ? OptionalLong.empty() : OptionalLong.of(NumericValues.parseLong(value,currentElement,name));
+    }
+
+    /**
+     * Gets the value of a non-optional attribute as a double. The value is parsed from the attribute's characters.
+     * @param name the attribute's name
+     * @return the attribute's value.
+     * @throws IllegalStateException if no attribute with the supplied name is found.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid double
+     */
+    public double doubleAttribute(String name){
+        validateAttributeName(name);
+        return NumericValues.parseDouble(NumericValues.requiredAttribute(currentElement,name),currentElement,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute as a double, without boxing it.
+     * @param name the attribute's name
+     * @param defaultValue the value to return if the attribute is not present
+     * @return the attribute's value, or the default value if the attribute is not present.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid double
+     */
+    public double doubleAttribute(String name, double defaultValue){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(currentElement,name);
+        return value==null ? defaultValue : NumericValues.parseDouble(value,currentElement,name);
+    }
+
+    /**
+     * Gets the value of an optional attribute as a double.
+     * @param name the optional attribute's name
+     * @return an {@link OptionalDouble} instance for the attribute's value. Will never be null.
+     * @throws IllegalArgumentException if the attribute name is null or empty
+     * @throws XMLNumberFormatException if the attribute's value is not a valid double
+     */
+    public OptionalDouble optionalDoubleAttribute(String name){
+        validateAttributeName(name);
+        CharSequence value = NumericValues.attribute(currentElement,name);
+        return value==null ? OptionalDouble.empty() : OptionalDouble.of(NumericValues.parseDouble(value,currentElement,name));
+    }
+
 
     /**
      * Validates the current XML Document against one XML Schema.
@@ -443,15 +1057,6 @@ public class XMLEasy {
 
     }
 
-    private byte[] getBytes(InputStream input) throws IOException{
-        byte[] xmlBytes = new byte[input.available()];
-        int offset = 0;
-        while(input.available()>0)
-          offset += input.read(xmlBytes,offset,input.available());
-        return xmlBytes;
-    }
-
-
     private void validateTagName(String tag){
 
         if(tag==null||tag.isEmpty())
@@ -464,8 +1069,10 @@ public class XMLEasy {
      * @param schemas the XML schemas array
      * @return the current {@link XMLEasy} instance.
      * @throws IllegalArgumentException if the xml schemas array is empty or null
-     * @throws IllegalStateException if the current {@link XMLEasy} instance was not created from a {@link URL} or an {@link InputStream}
+     * @throws IllegalStateException if the current {@link XMLEasy} instance was not created from a {@link URL} or an {@link InputStream},
+     * or if it was created from an {@link InputStream} by a parser that does not retain the document source.
      * @throws InvalidXMLDocumentException if the XML document does not pass the XML Schemas validation.
+     * @see SchemaRegistry
      */
     public  XMLEasy validate(URL[] schemas){
         if(schemas==null||schemas.length==0)
@@ -474,25 +1081,20 @@ public class XMLEasy {
         if(xmlStream==null&&xmlURL==null)
             throw new IllegalStateException("Xml URL or Stream required");
 
-        InputStream xml = new ByteArrayInputStream(xmlBytes);
-
         try {
 
-            byte[] buffer = new byte[xml.available()];
-            xml.read(buffer);
-
-            ByteArrayInputStream byteArray1 = new ByteArrayInputStream(buffer);
-
-            Source[] schemaSources = new Source[schemas.length];
-            for(int i=0;i<schemaSources.length;i++)
-                schemaSources[i] = new StreamSource(schemas[i].openStream());
-
-            XMLSchemaFactory factory =
-                    new XMLSchemaFactory();
-            Source xmlSource = new StreamSource(byteArray1);
-            Schema schema = factory.newSchema(schemaSources);
-            Validator validator = schema.newValidator();
-            validator.validate(xmlSource);
+            SchemaRegistry registry = SchemaRegistry.getDefault();
+            XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+            long started = metrics==XMLEasyMetrics.NONE ? 0 : System.nanoTime();
+            if(source!=null)
+                registry.validate(schemas,new StreamSource(source.openStream()));
+            else if(xmlURL!=null){
+                try(InputStream input = xmlURL.openStream()){
+                    registry.validate(schemas,new StreamSource(input,xmlURL.toExternalForm()));
+                }
+            }else throw new IllegalStateException("The XML Document source was not retained by the parser");
+            if(metrics!=XMLEasyMetrics.NONE)
+                metrics.documentValidated(System.nanoTime()-started);
 
         }catch (SAXException  ex){
 
@@ -501,7 +1103,7 @@ public class XMLEasy {
         }catch (IOException ex){
 
             throw new XMLValidationException(String.format("Validation of XML document in [%s] failed",
-                    xmlURL.toString()),ex);
+                    xmlURL==null ? "InputStream" : xmlURL.toString()),ex);
 
         }
 
@@ -509,6 +1111,41 @@ public class XMLEasy {
 
     }
 
+    /**
+     * Validates the current XML Document against one or more XML Schemas on the default executor: a virtual thread on
+     * Java 21 and later, otherwise a pool of daemon threads. The document must not be modified until the validation
+     * completes.
+     * @param schemas the XML schemas array
+     * @return a {@link CompletableFuture} completed with the current {@link XMLEasy} instance, or completed
+     * exceptionally with the exception {@link #validate(URL[])} would throw. Will never return null.
+     * @throws IllegalArgumentException if the xml schemas array is empty or null
+     * @see #validateAsync(URL[], Executor)
+     */
+    public CompletableFuture<XMLEasy> validateAsync(URL[] schemas){
+
+        return validateAsync(schemas,AsyncExecutor.get());
+
+    }
+
+    /**
+     * Validates the current XML Document against one or more XML Schemas on an {@link Executor}. The document must not
+     * be modified until the validation completes.
+     * @param schemas the XML schemas array
+     * @param executor the {@link Executor} on which the document is validated
+     * @return a {@link CompletableFuture} completed with the current {@link XMLEasy} instance, or completed
+     * exceptionally with the exception {@link #validate(URL[])} would throw. Will never return null.
+     * @throws IllegalArgumentException if the xml schemas array is empty or null, or if the executor is null
+     */
+    public CompletableFuture<XMLEasy> validateAsync(URL[] schemas, Executor executor){
+        if(schemas==null||schemas.length==0)
+            throw new IllegalArgumentException("XML schemas array must not be empty");
+        if(executor==null)
+            throw new IllegalArgumentException("Executor instance must not be null");
+        URL[] copy = schemas.clone();
+        return CompletableFuture.supplyAsync(() -> validate(copy),executor);
+
+    }
+
     /**
      * Gets the text content of the current XML {@link Element}.
      * @return the text content of the current XML {@link Element}.
@@ -517,6 +1154,48 @@ public class XMLEasy {
         return currentElement.getTextContent();
     }
 
+    /**
+     * Gets the text content of the current XML {@link Element} as an int, ignoring surrounding whitespace.
+     * @return the text content of the current XML {@link Element}.
+     * @throws XMLNumberFormatException if the text content is not a valid int
+     */
+    public int intContent(){
+        return NumericValues.parseInt(NumericValues.content(currentElement),currentElement,null);
+    }
+
+    /**
+     * Gets the text content of the current XML {@link Element} as a long, ignoring surrounding whitespace.
+     * @return the text content of the current XML {@link Element}.
+     * @throws XMLNumberFormatException if the text content is not a valid long
+     */
+    public long longContent(){
+        return NumericValues.parseLong(NumericValues.content(currentElement),currentElement,null);
+    }
+
+    /**
+     * Gets the text content of the current XML {@link Element} as a double, ignoring surrounding whitespace.
+     * @return the text content of the current XML {@link Element}.
+     * @throws XMLNumberFormatException if the text content is not a valid double
+     */
+    public double doubleContent(){
+        return NumericValues.parseDouble(NumericValues.content(currentElement),currentElement,null);
+    }
+
+
+    /**
+     * Binds the current XML {@link Element} to a new object of a class with {@link XMLEasyPath} fields.
+     * @param type the bound class
+     * @param <T> the bound type
+     * @return a new bound object. Will never return null.
+     * @throws IllegalArgumentException if the class is null or no binder was generated for it
+     * @throws XMLNumberFormatException if a numeric field is bound to an invalid value
+     * @see #binder(Class)
+     */
+    public <T> T bind(Class<T> type){
+
+        return binder(type).bind(currentElement);
+
+    }
 
     /**
      * Gets the current XML {@link Element}.
@@ -537,6 +1216,17 @@ public class XMLEasy {
 
     }
 
+    /**
+     * Creates a new {@link XMLCursor} positioned at the current {@link Element}. Navigating with the cursor doesn't
+     * change the state of this {@link XMLEasy} instance.
+     * @return a new {@link XMLCursor} instance.
+     */
+    public XMLCursor cursor(){
+
+        return new XMLCursor(currentElement,childIndex());
+
+    }
+
     /**
      * Makes this {@link XMLEasy} instance immutable, meaning any invocation of a single-child element navigation methods will
      * return a new {@link XMLEasy} instance. Are considered single-child elements navigation methods, the following:
@@ -550,10 +1240,66 @@ public class XMLEasy {
 
     }
 
+    /**
+     * Checks if this {@link XMLEasy} instance is immutable, as created by {@link #immutable(URL)}.
+     * @return true if immutable, otherwise false.
+     */
+    public boolean isImmutable(){
+
+        return immutable;
+
+    }
+
+    /**
+     * Marks the document of this instance as fully expanded, so that parallel streams don't expand it again.
+     * Must only be invoked after {@link DomWarmer#warm(org.w3c.dom.Node)} walked the whole document.
+     */
+    XMLEasy expanded(){
+
+        this.expanded = true;
+        return this;
+
+    }
+
+    /**
+     * Freezes this instance and indexes the children of every element up front, so that reads never write to it nor
+     * lock. Must only be invoked on compact documents, whose nodes are never modified nor cached.
+     */
+    XMLEasy makeImmutable(){
+
+        this.childIndex = ChildIndex.complete(document);
+        this.childIndexResolved = true;
+        this.frozen = true;
+        this.immutable = true;
+        return this;
+
+    }
+
+    /**
+     * Creates a frozen instance for the current element of an {@link XMLCursor}, sharing the index of the cursor.
+     * Elements of immutable documents, whose index is complete, get immutable instances.
+     */
+    static XMLEasy snapshot(Element element, ChildIndex index){
+
+        XMLEasy xmlEasy = easy(element).freeze();
+        if(index!=null){
+            xmlEasy.childIndex = index;
+            xmlEasy.childIndexResolved = true;
+            xmlEasy.immutable = index.isComplete();
+        }
+        return xmlEasy;
+
+    }
+
     private XMLEasy wrap(Element element){
 
-        if(frozen)
-            return easy(element);
+        if(frozen) {
+            XMLEasy xmlEasy = easy(element);
+            xmlEasy.childIndex = childIndex;
+            xmlEasy.childIndexResolved = childIndexResolved;
+            xmlEasy.expanded = expanded;
+            return xmlEasy;
+        }
 
         this.currentElement = element;
         return this;
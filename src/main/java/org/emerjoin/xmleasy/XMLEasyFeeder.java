@@ -0,0 +1,834 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Push parser of UTF-8 XML documents that arrive in chunks, such as the body of an asynchronous HTTP response.
+ * Chunks of any size are handed over with {@link #feed(ByteBuffer)}, which parses every complete piece of markup they
+ * hold and returns without waiting for more input, keeping the incomplete rest until the next chunk. Each element
+ * matching the path of the feeder is built as a detached fragment and supplied as soon as its end tag is parsed, so
+ * the records of a document can be processed while it is still being transferred, without a thread per document.
+ * Elements outside the matching subtrees are never built: their tags and text are only checked and matched against the
+ * path. The input buffered while a piece of markup or text is incomplete is bounded by the maximum document size of the
+ * {@link XMLEasyParser} that created the feeder. Names are not resolved against namespaces, DTDs are not supported and
+ * the only entities are the predefined ones and character references. Object instances of this class are not
+ * Thread-safe.
+ */
+public final class XMLEasyFeeder {
+
+    private static final String CDATA_START = "<![CDATA[";
+    private static final String COMMENT_START = "<!--";
+    private static final String DOCTYPE_START = "<!DOCTYPE";
+    //Longest reference that text outside the built elements keeps for the next chunk when a chunk splits it
+    private static final int MAX_REFERENCE_LENGTH = 32;
+
+    private final XMLPath.Step[] steps;
+    private final long descendantSteps;
+    private final long finalState;
+    private final int positionalPredicates;
+    private final boolean absolute;
+    private final XMLPath.Step deferred;
+    private final Consumer<XMLEasy> consumer;
+    private final long maxBufferedSize;
+    private final Document document = new FragmentBuilder().getDocument();
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+    private ByteBuffer bytes = ByteBuffer.allocate(0);
+    private char[] chars = new char[0];
+    private int start;
+    private int end;
+    //Characters after start already known not to complete the current piece of markup or text
+    private int scanned;
+    //Quote of the attribute value the scan of the current start tag stopped in
+    private char quote;
+    private long consumed;
+    private int byteOrderMark = -1;
+    private boolean prolog = true;
+    private boolean rootClosed;
+    private boolean ended;
+
+    //Index d holds the open element at depth d, the document being at depth 0
+    private int depth;
+    private String[] names = new String[16];
+    private Element[] elements = new Element[16];
+    private long[] states = new long[16];
+    private long[] pending = new long[16];
+    private int[][] positions = new int[16][];
+    private boolean[] records = new boolean[16];
+
+    //Attributes of the current start tag
+    private int attributeCount;
+    private String[] attributeNames = new String[8];
+    private String[] attributeValues = new String[8];
+    private final StringBuilder references = new StringBuilder();
+
+    XMLEasyFeeder(XMLPath path, Consumer<XMLEasy> consumer, long maxBufferedSize){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        if(consumer==null)
+            throw new IllegalArgumentException("Consumer instance must not be null");
+        this.steps = path.getSteps();
+        for(int i=0;i<steps.length-1;i++){
+            if(steps[i].hasChildPredicates())
+                throw new IllegalArgumentException(String.format("Child predicates are only supported in the last step of a fed path: %s",
+                        path.getExpression()));
+        }
+
+        long descendants = 0;
+        for(int i=0;i<steps.length;i++){
+            if(steps[i].isDescendant())
+                descendants |= 1L << i;
+        }
+
+        XMLPath.Step last = steps[steps.length-1];
+        this.descendantSteps = descendants;
+        this.finalState = 1L << steps.length;
+        this.positionalPredicates = path.getPositionalPredicates();
+        this.absolute = path.isAbsolute();
+        this.deferred = last.hasChildPredicates() ? last : null;
+        this.consumer = consumer;
+        this.maxBufferedSize = maxBufferedSize;
+        this.states[0] = absolute ? 1L : 0L;
+
+    }
+
+    /**
+     * Parses the remaining bytes of a chunk of the document. The chunk is consumed entirely: bytes that don't complete a
+     * piece of markup are copied and parsed along with the next chunk. The elements completed by the chunk are
+     * supplied before this method returns.
+     * @param chunk the next bytes of the document
+     * @return the current {@link XMLEasyFeeder} instance.
+     * @throws IllegalArgumentException if the chunk is null
+     * @throws IllegalStateException if the document was already ended or failed to be parsed
+     * @throws XMLDocumentTooLargeException if an incomplete piece of markup or text exceeds the maximum document size
+     * @throws XMLException if the document is not well-formed UTF-8 XML
+     */
+    public XMLEasyFeeder feed(ByteBuffer chunk){
+        if(chunk==null)
+            throw new IllegalArgumentException("ByteBuffer must not be null");
+        if(ended)
+            throw new IllegalStateException("The XML Document was already ended");
+
+        try {
+
+            if ((long) bytes.remaining()+chunk.remaining()+end-start>maxBufferedSize)
+                throw new XMLDocumentTooLargeException(maxBufferedSize);
+            if (bytes.remaining()+chunk.remaining()>bytes.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(bytes.capacity()*2,bytes.remaining()+chunk.remaining()));
+                grown.put(bytes);
+                bytes = grown;
+            } else {
+                bytes.compact();
+            }
+
+            bytes.put(chunk);
+            bytes.flip();
+            decode(false);
+            parse();
+
+        }catch (RuntimeException ex){
+
+            ended = true;
+            throw ex;
+
+        }
+
+        return this;
+
+    }
+
+    /**
+     * Parses a chunk of the document.
+     * @param chunk the array holding the chunk
+     * @param offset the offset of the chunk in the array
+     * @param length the length of the chunk
+     * @return the current {@link XMLEasyFeeder} instance.
+     * @throws IllegalArgumentException if the array is null
+     * @throws IndexOutOfBoundsException if the chunk is out of the array bounds
+     * @throws IllegalStateException if the document was already ended or failed to be parsed
+     * @throws XMLDocumentTooLargeException if an incomplete piece of markup or text exceeds the maximum document size
+     * @throws XMLException if the document is not well-formed UTF-8 XML
+     * @see #feed(ByteBuffer)
+     */
+    public XMLEasyFeeder feed(byte[] chunk, int offset, int length){
+        if(chunk==null)
+            throw new IllegalArgumentException("Byte array must not be null");
+        return feed(ByteBuffer.wrap(chunk,offset,length));
+
+    }
+
+    /**
+     * Signals that the whole document was fed.
+     * @throws IllegalStateException if the document was already ended or failed to be parsed
+     * @throws XMLException if the document is incomplete or not well-formed
+     */
+    public void end(){
+        if(ended)
+            throw new IllegalStateException("The XML Document was already ended");
+        ended = true;
+        decode(true);
+        parse();
+        if(start<end||bytes.hasRemaining()||depth>0||!rootClosed)
+            throw malformed("Incomplete XML document");
+
+    }
+
+    /**
+     * Checks if the document was ended, either by {@link #end()} or by a parsing failure.
+     * @return true if no more chunks are accepted, otherwise false.
+     */
+    public boolean isEnded(){
+
+        return ended;
+
+    }
+
+    private void decode(boolean endOfInput){
+
+        //UTF-8 never decodes to more chars than bytes
+        if(start>0){
+            System.arraycopy(chars,start,chars,0,end-start);
+            consumed += start;
+            end -= start;
+            start = 0;
+        }
+
+        if(chars.length-end<bytes.remaining())
+            chars = Arrays.copyOf(chars,Math.max(chars.length*2,end+bytes.remaining()));
+
+        CharBuffer output = CharBuffer.wrap(chars,end,chars.length-end);
+        CoderResult result = decoder.decode(bytes,output,endOfInput);
+        if(!result.isError()&&endOfInput)
+            result = decoder.flush(output);
+        if(result.isError()){
+            try {
+                result.throwException();
+            }catch (CharacterCodingException ex){
+                throw new XMLException("XML Document is not valid UTF-8",ex);
+            }
+        }
+
+        end = output.position();
+        if(byteOrderMark<0&&end>0){
+            byteOrderMark = chars[0]=='\uFEFF' ? 1 : 0;
+            start = byteOrderMark;
+        }
+
+    }
+
+    /**
+     * Parses every complete piece of markup and text between start and end.
+     */
+    private void parse(){
+
+        while(start<end){
+
+            int next = chars[start]=='<' ? markup() : text();
+            if(next<0)
+                return;
+            start = next;
+            scanned = 0;
+
+        }
+
+    }
+
+    /**
+     * Parses the text at start.
+     * @return the index after the text, or -1 if it's not complete yet.
+     */
+    private int text(){
+
+        int limit = indexOf('<',start+scanned);
+        if(limit<0){
+            scanned = end-start;
+            if(building())
+                return -1;
+            //Text outside the built elements is dropped as soon as it's checked, except for a reference or a ]]> that
+            //the next chunk may complete
+            limit = end;
+            for(int i=end-1;i>=start&&i>=end-MAX_REFERENCE_LENGTH&&chars[i]!=';';i--){
+                if(chars[i]=='&'){
+                    limit = i;
+                    break;
+                }
+            }
+            while(limit>start&&limit>end-2&&chars[limit-1]==']')
+                limit--;
+            if(limit==start)
+                return -1;
+        }
+
+        if(depth==0){
+            for(int i=start;i<limit;i++){
+                if(!isWhitespace(chars[i]))
+                    throw malformed("Text is not allowed outside the root element");
+            }
+        }else if(building()){
+            elements[depth].appendChild(document.createTextNode(decode(start,limit,false)));
+        }else{
+            check(start,limit);
+        }
+
+        return limit;
+
+    }
+
+    /**
+     * Parses the markup at start.
+     * @return the index after the markup, or -1 if it's not complete yet.
+     */
+    private int markup(){
+
+        if(end-start<2)
+            return -1;
+        char kind = chars[start+1];
+        if(kind=='?')
+            return instruction();
+        if(kind=='/')
+            return endTag();
+        if(kind!='!')
+            return startTag();
+
+        if(startsWith(COMMENT_START)){
+            int close = indexOf("-->",start+COMMENT_START.length());
+            if(close<0)
+                return -1;
+            for(int i=start+COMMENT_START.length();i<close;i++){
+                if(chars[i]=='-'&&(i+1==close||chars[i+1]=='-'))
+                    throw malformed("Comments must not contain --");
+            }
+            return close+3;
+        }
+
+        if(startsWith(CDATA_START)){
+            int close = indexOf("]]>",start+CDATA_START.length());
+            if(close<0)
+                return -1;
+            if(depth==0)
+                throw malformed("CDATA sections are not allowed outside the root element");
+            if(building())
+                elements[depth].appendChild(document.createCDATASection(new String(chars,start+CDATA_START.length(),
+                        close-start-CDATA_START.length())));
+            return close+3;
+        }
+
+        if(startsWith(DOCTYPE_START)){
+            for(int i=start+Math.max(DOCTYPE_START.length(),scanned);i<end;i++){
+                if(chars[i]=='[')
+                    throw malformed("Document type declarations with an internal subset are not supported");
+                if(chars[i]=='>'){
+                    if(!prolog)
+                        throw malformed("Document type declaration is not allowed after the root element");
+                    return i+1;
+                }
+            }
+            scanned = end-start;
+            return -1;
+        }
+
+        if(isPrefix(COMMENT_START)||isPrefix(CDATA_START)||isPrefix(DOCTYPE_START))
+            return -1;
+        throw malformed("Invalid markup declaration");
+
+    }
+
+    private int instruction(){
+
+        int close = indexOf("?>",start+2);
+        if(close<0)
+            return -1;
+        int nameEnd = start+2;
+        while(nameEnd<close&&!isWhitespace(chars[nameEnd]))
+            nameEnd++;
+        if(nameEnd-start-2==3&&new String(chars,start+2,3).equalsIgnoreCase("xml")){
+            if(consumed+start!=byteOrderMark)
+                throw malformed("XML declaration is only allowed at the beginning of the document");
+            String declaration = new String(chars,nameEnd,close-nameEnd);
+            String encoding = attribute(declaration,"encoding");
+            if(encoding!=null&&!encoding.equalsIgnoreCase("UTF-8")&&!encoding.equalsIgnoreCase("US-ASCII"))
+                throw new XMLException(String.format("Unsupported XML Document encoding: %s",encoding));
+        }
+
+        return close+2;
+
+    }
+
+    private int endTag(){
+
+        int close = scan('>',start+2);
+        if(close<0)
+            return -1;
+        int nameEnd = close;
+        while(nameEnd>start+2&&isWhitespace(chars[nameEnd-1]))
+            nameEnd--;
+        String name = new String(chars,start+2,nameEnd-start-2);
+        if(depth==0||!name.equals(names[depth]))
+            throw malformed(String.format("Unexpected end tag: %s",name));
+        close();
+        return close+1;
+
+    }
+
+    private int startTag(){
+
+        //The tag ends at the first > outside attribute values. The scan resumes where the previous chunk left it
+        int close = -1;
+        for(int i=start+Math.max(1,scanned);i<end;i++){
+            char c = chars[i];
+            if(quote!=0){
+                if(c==quote)
+                    quote = 0;
+            }else if(c=='"'||c=='\''){
+                quote = c;
+            }else if(c=='>'){
+                close = i;
+                break;
+            }
+        }
+
+        if(close<0){
+            scanned = end-start;
+            return -1;
+        }
+
+        if(rootClosed)
+            throw malformed("Only one root element is allowed");
+        boolean empty = chars[close-1]=='/';
+        int limit = empty ? close-1 : close;
+        int index = start+1;
+        int nameEnd = index;
+        while(nameEnd<limit&&!isWhitespace(chars[nameEnd]))
+            nameEnd++;
+        String name = name(index,nameEnd);
+
+        attributeCount = 0;
+        index = nameEnd;
+        while(true){
+            while(index<limit&&isWhitespace(chars[index]))
+                index++;
+            if(index==limit)
+                break;
+            if(index==nameEnd||!isWhitespace(chars[index-1]))
+                throw malformed(String.format("Attributes of element %s must be separated by whitespace",name));
+            int attributeEnd = index;
+            while(attributeEnd<limit&&chars[attributeEnd]!='='&&!isWhitespace(chars[attributeEnd]))
+                attributeEnd++;
+            String attribute = name(index,attributeEnd);
+            index = attributeEnd;
+            while(index<limit&&isWhitespace(chars[index]))
+                index++;
+            if(index==limit||chars[index]!='=')
+                throw malformed(String.format("Attribute %s of element %s has no value",attribute,name));
+            index++;
+            while(index<limit&&isWhitespace(chars[index]))
+                index++;
+            if(index==limit||(chars[index]!='"'&&chars[index]!='\''))
+                throw malformed(String.format("Value of attribute %s of element %s must be quoted",attribute,name));
+            int valueEnd = indexOf(chars[index],index+1);
+            if(valueEnd<0||valueEnd>=limit)
+                throw malformed(String.format("Value of attribute %s of element %s is not closed",attribute,name));
+            if(attribute(attribute)!=null)
+                throw malformed(String.format("Duplicate attribute %s of element %s",attribute,name));
+            if(attributeCount==attributeNames.length){
+                attributeNames = Arrays.copyOf(attributeNames,attributeCount*2);
+                attributeValues = Arrays.copyOf(attributeValues,attributeCount*2);
+            }
+            attributeNames[attributeCount] = attribute;
+            attributeValues[attributeCount++] = decode(index+1,valueEnd,true);
+            index = valueEnd+1;
+        }
+
+        open(name);
+        if(empty)
+            close();
+        return close+1;
+
+    }
+
+    /**
+     * Pushes a started element, matching it against the candidate steps of its parent. The element is only built if
+     * it's a candidate record or a descendant of one.
+     */
+    private void open(String name){
+
+        int parent = depth;
+        boolean building = building();
+        long candidates = states[parent]|pending[parent];
+        long matched = 0;
+        for(long remaining = candidates; remaining!=0; remaining &= remaining-1){
+            int step = Long.numberOfTrailingZeros(remaining);
+            XMLPath.Step current = steps[step];
+            //Steps with child predicates are matched once the element is complete
+            if(current==deferred)
+                matched |= current.matchesTag(name) ? finalState : 0;
+            else if(current.matchesTag(name)&&matches(current,positions(parent)))
+                matched |= 1L << (step+1);
+        }
+
+        Element element = null;
+        if(building||(matched & finalState)!=0){
+            element = document.createElement(name);
+            for(int i=0;i<attributeCount;i++)
+                element.setAttribute(attributeNames[i],attributeValues[i]);
+            if(building)
+                elements[parent].appendChild(element);
+        }
+        prolog = false;
+
+        depth++;
+        if(depth==names.length)
+            grow();
+        names[depth] = name;
+        elements[depth] = element;
+        records[depth] = (matched & finalState)!=0;
+        states[depth] = matched & ~finalState;
+        //Relative paths are relative to the root element
+        if(depth==1&&!absolute)
+            states[depth] |= 1L;
+        pending[depth] = pending[parent] | (states[parent] & descendantSteps);
+        if(positions[depth]!=null)
+            Arrays.fill(positions[depth],0);
+
+    }
+
+    /**
+     * Matches the predicates of a step, other than child predicates, against the current start tag.
+     */
+    private boolean matches(XMLPath.Step step, int[] positions){
+
+        for(XMLPath.Predicate predicate: step.getPredicates()){
+            if(predicate.getType()==XMLPath.Predicate.POSITION){
+                if(++positions[predicate.getSlot()]!=predicate.getPosition())
+                    return false;
+            }else{
+                String value = attribute(predicate.getName());
+                if(value==null||(predicate.getValue()!=null&&!predicate.getValue().equals(value)))
+                    return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Gets the value of an attribute of the current start tag.
+     * @return the attribute value, or null if the tag doesn't have it.
+     */
+    private String attribute(String name){
+
+        for(int i=0;i<attributeCount;i++){
+            if(attributeNames[i].equals(name))
+                return attributeValues[i];
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Pops the current element, supplying it if it matched the path.
+     */
+    private void close(){
+
+        Element element = elements[depth];
+        boolean record = records[depth];
+        elements[depth] = null;
+        depth--;
+        if(depth==0)
+            rootClosed = true;
+        if(record&&(deferred==null||deferred.matches(element,positions(depth))))
+            consumer.accept(XMLEasy.easy(element));
+
+    }
+
+    /**
+     * Checks if the current element is built: if it or one of its ancestors is a candidate record.
+     */
+    private boolean building(){
+
+        for(int i=depth;i>0;i--){
+            if(records[i])
+                return true;
+        }
+
+        return false;
+
+    }
+
+    private int[] positions(int depth){
+
+        if(positionalPredicates==0)
+            return null;
+        if(positions[depth]==null)
+            positions[depth] = new int[positionalPredicates];
+        return positions[depth];
+
+    }
+
+    private void grow(){
+
+        int capacity = names.length*2;
+        names = Arrays.copyOf(names,capacity);
+        elements = Arrays.copyOf(elements,capacity);
+        states = Arrays.copyOf(states,capacity);
+        pending = Arrays.copyOf(pending,capacity);
+        positions = Arrays.copyOf(positions,capacity);
+        records = Arrays.copyOf(records,capacity);
+
+    }
+
+    private String name(int from, int to){
+
+        if(from==to)
+            throw malformed("Missing name");
+        char first = chars[from];
+        if(first=='-'||first=='.'||(first>='0'&&first<='9'))
+            throw malformed(String.format("Invalid name: %s",new String(chars,from,to-from)));
+        for(int i=from;i<to;i++){
+            if("<>/=\"'&".indexOf(chars[i])>=0)
+                throw malformed(String.format("Invalid name: %s",new String(chars,from,to-from)));
+        }
+
+        return new String(chars,from,to-from);
+
+    }
+
+    /**
+     * Decodes character data: resolves references and normalizes line breaks, and whitespace in attribute values.
+     */
+    private String decode(int from, int to, boolean attribute){
+
+        int i = from;
+        while(i<to&&chars[i]!='&'&&chars[i]!='\r'&&chars[i]!='<'&&chars[i]!='>'
+                &&!(attribute&&(chars[i]=='\n'||chars[i]=='\t')))
+            i++;
+        if(i==to)
+            return new String(chars,from,to-from);
+
+        StringBuilder value = new StringBuilder(to-from).append(chars,from,i-from);
+        while(i<to){
+            char c = chars[i];
+            if(c=='<'){
+                throw malformed("Attribute values must not contain <");
+            }else if(c=='>'&&!attribute&&closesCDATA(from,i)){
+                throw malformed("Character data must not contain ]]>");
+            }else if(c=='&'){
+                int semicolon = indexOf(';',i+1);
+                if(semicolon<0||semicolon>=to)
+                    throw malformed("Unterminated reference");
+                reference(new String(chars,i+1,semicolon-i-1),value);
+                i = semicolon+1;
+                continue;
+            }else if(c=='\r'){
+                if(i+1<to&&chars[i+1]=='\n')
+                    i++;
+                c = '\n';
+            }
+            value.append(attribute&&isWhitespace(c) ? ' ' : c);
+            i++;
+        }
+
+        return value.toString();
+
+    }
+
+    /**
+     * Checks character data that is not built: its references and the absence of ]]>.
+     */
+    private void check(int from, int to){
+
+        for(int i=from;i<to;i++){
+            char c = chars[i];
+            if(c=='>'&&closesCDATA(from,i))
+                throw malformed("Character data must not contain ]]>");
+            if(c=='&'){
+                int semicolon = indexOf(';',i+1);
+                if(semicolon<0||semicolon>=to)
+                    throw malformed("Unterminated reference");
+                references.setLength(0);
+                reference(new String(chars,i+1,semicolon-i-1),references);
+                i = semicolon;
+            }
+        }
+
+    }
+
+    private boolean closesCDATA(int from, int index){
+
+        return index-2>=from&&chars[index-1]==']'&&chars[index-2]==']';
+
+    }
+
+    private void reference(String name, StringBuilder value){
+
+        switch (name){
+            case "lt":
+                value.append('<');
+                return;
+            case "gt":
+                value.append('>');
+                return;
+            case "amp":
+                value.append('&');
+                return;
+            case "quot":
+                value.append('"');
+                return;
+            case "apos":
+                value.append('\'');
+                return;
+            default:
+                break;
+        }
+
+        if(!name.startsWith("#"))
+            throw malformed(String.format("Undeclared entity: %s",name));
+        int radix = name.startsWith("#x") ? 16 : 10;
+        String digits = name.substring(radix==16 ? 2 : 1);
+        int codePoint = -1;
+        if(!digits.isEmpty()){
+            codePoint = 0;
+            for(int i=0;i<digits.length()&&codePoint>=0;i++){
+                char c = digits.charAt(i);
+                int digit = c>127 ? -1 : Character.digit(c,radix);
+                codePoint = digit<0||codePoint>0x10FFFF ? -1 : codePoint*radix+digit;
+            }
+        }
+
+        if(!isCharacter(codePoint))
+            throw malformed(String.format("Invalid character reference: %s",name));
+        value.appendCodePoint(codePoint);
+
+    }
+
+    /**
+     * Checks if a code point is allowed in XML 1.0 documents.
+     */
+    private static boolean isCharacter(int codePoint){
+
+        return codePoint==0x9||codePoint==0xA||codePoint==0xD||(codePoint>=0x20&&codePoint<=0xD7FF)
+                ||(codePoint>=0xE000&&codePoint<=0xFFFD)||(codePoint>=0x10000&&codePoint<=0x10FFFF);
+
+
+    }
+
+    /**
+     * Gets the value of a pseudo-attribute of the XML declaration.
+     */
+    private static String attribute(String declaration, String name){
+
+        int index = declaration.indexOf(name);
+        if(index<0)
+            return null;
+        int equals = declaration.indexOf('=',index+name.length());
+        if(equals<0)
+            return null;
+        int open = equals+1;
+        while(open<declaration.length()&&isWhitespace(declaration.charAt(open)))
+            open++;
+        if(open==declaration.length())
+            return null;
+        int close = declaration.indexOf(declaration.charAt(open),open+1);
+        return close<0 ? null : declaration.substring(open+1,close);
+
+    }
+
+    private boolean startsWith(String prefix){
+
+        if(end-start<prefix.length())
+            return false;
+        for(int i=0;i<prefix.length();i++){
+            if(chars[start+i]!=prefix.charAt(i))
+                return false;
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Checks if the available characters are a proper prefix of a piece of markup, which can't be decided yet.
+     */
+    private boolean isPrefix(String markup){
+
+        if(end-start>=markup.length())
+            return false;
+        for(int i=start;i<end;i++){
+            if(chars[i]!=markup.charAt(i-start))
+                return false;
+        }
+
+        return true;
+
+    }
+
+    private int indexOf(char c, int from){
+
+        for(int i=from;i<end;i++){
+            if(chars[i]==c)
+                return i;
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Finds a character after the characters already scanned, so that markup split over many chunks is scanned once.
+     */
+    private int scan(char c, int from){
+
+        int index = indexOf(c,Math.max(from,start+scanned));
+        if(index<0)
+            scanned = end-start;
+        return index;
+
+    }
+
+    /**
+     * Finds a terminator after the characters already scanned, so that markup split over many chunks is scanned once.
+     */
+    private int indexOf(String terminator, int from){
+
+        int first = Math.max(from,start+scanned-terminator.length()+1);
+        for(int i=first;i<=end-terminator.length();i++){
+            int matched = 0;
+            while(matched<terminator.length()&&chars[i+matched]==terminator.charAt(matched))
+                matched++;
+            if(matched==terminator.length())
+                return i;
+        }
+
+        scanned = end-start;
+        return -1;
+
+    }
+
+    private static boolean isWhitespace(char c){
+
+        return c==' '||c=='\t'||c=='\n'||c=='\r';
+
+    }
+
+    private XMLException malformed(String reason){
+
+        return new XMLException(String.format("Malformed XML document at character %d: %s",consumed+start,reason));
+
+    }
+
+}
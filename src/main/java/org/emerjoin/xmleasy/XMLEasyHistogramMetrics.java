@@ -0,0 +1,305 @@
+package org.emerjoin.xmleasy;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link XMLEasyMetrics} that keeps the measurements in memory: a {@link Histogram} per timer and a counter per event.
+ * Values are recorded in buckets bounded by powers of two, so recording never allocates and percentiles are accurate
+ * within a factor of two.
+ * Object instances of this class are Thread-safe.
+ */
+public class XMLEasyHistogramMetrics implements XMLEasyMetrics {
+
+    private final Histogram readDurations = new Histogram();
+    private final Histogram parseDurations = new Histogram();
+    private final Histogram parseAllocations = new Histogram();
+    private final Histogram validationDurations = new Histogram();
+    private final Histogram schemaCompilations = new Histogram();
+    private final Histogram visitedNodes = new Histogram();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder schemaCacheHits = new LongAdder();
+    private final LongAdder schemaCacheMisses = new LongAdder();
+
+    @Override
+    public void documentRead(long bytes, long nanos) {
+        bytesRead.add(bytes);
+        readDurations.record(nanos);
+    }
+
+    @Override
+    public void documentParsed(long nanos, long allocatedBytes) {
+        parseDurations.record(nanos);
+        if(allocatedBytes>=0)
+            parseAllocations.record(allocatedBytes);
+    }
+
+    @Override
+    public void documentValidated(long nanos) {
+        validationDurations.record(nanos);
+    }
+
+    @Override
+    public void schemaCompiled(int schemas, long nanos) {
+        schemaCompilations.record(nanos);
+    }
+
+    @Override
+    public void schemaCacheHit() {
+        schemaCacheHits.increment();
+    }
+
+    @Override
+    public void schemaCacheMiss() {
+        schemaCacheMisses.increment();
+    }
+
+    @Override
+    public void navigated(int visitedNodes) {
+        this.visitedNodes.record(visitedNodes);
+    }
+
+    /**
+     * Gets the time spent reading documents, in nanoseconds.
+     * @return the {@link Histogram} of the read durations. Will never return null.
+     */
+    public Histogram getReadDurations(){
+
+        return readDurations;
+
+    }
+
+    /**
+     * Gets the time spent parsing documents, in nanoseconds.
+     * @return the {@link Histogram} of the parse durations. Will never return null.
+     */
+    public Histogram getParseDurations(){
+
+        return parseDurations;
+
+    }
+
+    /**
+     * Gets the heap allocated while parsing documents, in bytes. Empty if the JVM doesn't measure the allocations
+     * of threads.
+     * @return the {@link Histogram} of the parse allocations. Will never return null.
+     */
+    public Histogram getParseAllocations(){
+
+        return parseAllocations;
+
+    }
+
+    /**
+     * Gets the time spent validating parsed documents, in nanoseconds.
+     * @return the {@link Histogram} of the validation durations. Will never return null.
+     */
+    public Histogram getValidationDurations(){
+
+        return validationDurations;
+
+    }
+
+    /**
+     * Gets the time spent compiling XML Schemas, in nanoseconds.
+     * @return the {@link Histogram} of the schema compilation durations. Will never return null.
+     */
+    public Histogram getSchemaCompilations(){
+
+        return schemaCompilations;
+
+    }
+
+    /**
+     * Gets the number of child nodes visited by each navigation call.
+     * @return the {@link Histogram} of the visited nodes. Will never return null.
+     */
+    public Histogram getVisitedNodes(){
+
+        return visitedNodes;
+
+    }
+
+    /**
+     * Gets the total size of the documents read.
+     * @return the number of bytes read.
+     */
+    public long getBytesRead(){
+
+        return bytesRead.sum();
+
+    }
+
+    /**
+     * Gets the number of compiled schemas found up to date in a {@link SchemaRegistry}.
+     * @return the number of schema cache hits.
+     */
+    public long getSchemaCacheHits(){
+
+        return schemaCacheHits.sum();
+
+    }
+
+    /**
+     * Gets the number of schemas a {@link SchemaRegistry} had to compile.
+     * @return the number of schema cache misses.
+     */
+    public long getSchemaCacheMisses(){
+
+        return schemaCacheMisses.sum();
+
+    }
+
+    /**
+     * Discards every measurement.
+     */
+    public void reset(){
+
+        readDurations.reset();
+        parseDurations.reset();
+        parseAllocations.reset();
+        validationDurations.reset();
+        schemaCompilations.reset();
+        visitedNodes.reset();
+        bytesRead.reset();
+        schemaCacheHits.reset();
+        schemaCacheMisses.reset();
+
+    }
+
+    @Override
+    public String toString() {
+
+        return String.format("read=%s, bytesRead=%d, parse=%s, parseAllocations=%s, validation=%s, schemaCompilation=%s, " +
+                "schemaCacheHits=%d, schemaCacheMisses=%d, visitedNodes=%s",readDurations,getBytesRead(),parseDurations,
+                parseAllocations,validationDurations,schemaCompilations,getSchemaCacheHits(),getSchemaCacheMisses(),
+                visitedNodes);
+
+    }
+
+    /**
+     * Distribution of non-negative values, in buckets bounded by powers of two: bucket 0 holds 0, and bucket n holds
+     * the values from 2^(n-1) to 2^n-1.
+     * Object instances of this class are Thread-safe.
+     */
+    public static final class Histogram {
+
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(){
+
+        }
+
+        private void record(long value){
+
+            long recorded = Math.max(value,0);
+            buckets.incrementAndGet(BUCKETS-Long.numberOfLeadingZeros(recorded));
+            count.increment();
+            sum.add(recorded);
+            long current;
+            while(recorded>(current = max.get())&&!max.compareAndSet(current,recorded));
+
+        }
+
+        /**
+         * Gets the number of values recorded.
+         * @return the number of values.
+         */
+        public long getCount(){
+
+            return count.sum();
+
+        }
+
+        /**
+         * Gets the sum of the values recorded.
+         * @return the sum of the values.
+         */
+        public long getSum(){
+
+            return sum.sum();
+
+        }
+
+        /**
+         * Gets the greatest value recorded.
+         * @return the greatest value, 0 if no value was recorded.
+         */
+        public long getMax(){
+
+            return max.get();
+
+        }
+
+        /**
+         * Gets the mean of the values recorded.
+         * @return the mean, 0 if no value was recorded.
+         */
+        public double getMean(){
+
+            long count = getCount();
+            if(count==0)
+                return 0;
+            return (double) getSum()/count;
+
+        }
+
+        /**
+         * Gets an upper bound of a percentile of the values recorded: the upper bound of the bucket holding the
+         * percentile, or the greatest value recorded if it's lower.
+         * @param percentile the percentile, from 0 to 100
+         * @return the percentile upper bound, 0 if no value was recorded.
+         * @throws IllegalArgumentException if the percentile is not between 0 and 100
+         */
+        public long getPercentile(double percentile){
+            if(percentile<0||percentile>100)
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for(int i=0;i<BUCKETS;i++){
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+
+            if(total==0)
+                return 0;
+            long rank = Math.max(1,(long) Math.ceil(total*percentile/100));
+            long seen = 0;
+            for(int i=0;i<BUCKETS;i++){
+                seen += counts[i];
+                if(seen>=rank)
+                    return Math.min(i==0 ? 0 : (1L<<i)-1,getMax());
+            }
+
+            return getMax();
+
+        }
+
+        private void reset(){
+
+            for(int i=0;i<BUCKETS;i++)
+                buckets.set(i,0);
+            count.reset();
+            sum.reset();
+            max.set(0);
+
+        }
+
+        @Override
+        public String toString() {
+
+            return String.format("{count=%d, mean=%.1f, p50=%d, p99=%d, max=%d}",getCount(),getMean(),
+                    getPercentile(50),getPercentile(99),getMax());
+
+        }
+
+    }
+
+}
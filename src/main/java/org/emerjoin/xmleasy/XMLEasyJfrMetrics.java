@@ -0,0 +1,192 @@
+package org.emerjoin.xmleasy;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link XMLEasyMetrics} that emits Java Flight Recorder events, in the XMLEasy category. Documents read, parsed and
+ * validated, and schema compilations are recorded by default. Schema cache lookups and navigation calls happen far more
+ * often, so their events are disabled unless a recording enables them, e.g. with
+ * {@code -XX:StartFlightRecording:settings=profile,org.emerjoin.xmleasy.Navigation#enabled=true}.
+ * Events are committed when the measured work completes, so their own duration is 0: the measured time is the
+ * elapsed field. Requires a JVM with Flight Recorder support: Java 11 and later, or Java 8u262 and later.
+ * Object instances of this class are Thread-safe.
+ */
+public class XMLEasyJfrMetrics implements XMLEasyMetrics {
+
+    @Override
+    public void documentRead(long bytes, long nanos) {
+
+        DocumentReadEvent event = new DocumentReadEvent();
+        if(!event.isEnabled())
+            return;
+        event.bytes = bytes;
+        event.elapsed = nanos;
+        event.commit();
+
+    }
+
+    @Override
+    public void documentParsed(long nanos, long allocatedBytes) {
+
+        DocumentParsedEvent event = new DocumentParsedEvent();
+        if(!event.isEnabled())
+            return;
+        event.elapsed = nanos;
+        event.allocated = allocatedBytes;
+        event.commit();
+
+    }
+
+    @Override
+    public void documentValidated(long nanos) {
+
+        DocumentValidatedEvent event = new DocumentValidatedEvent();
+        if(!event.isEnabled())
+            return;
+        event.elapsed = nanos;
+        event.commit();
+
+    }
+
+    @Override
+    public void schemaCompiled(int schemas, long nanos) {
+
+        SchemaCompiledEvent event = new SchemaCompiledEvent();
+        if(!event.isEnabled())
+            return;
+        event.schemas = schemas;
+        event.elapsed = nanos;
+        event.commit();
+
+    }
+
+    @Override
+    public void schemaCacheHit() {
+
+        schemaLookup(true);
+
+    }
+
+    @Override
+    public void schemaCacheMiss() {
+
+        schemaLookup(false);
+
+    }
+
+    private void schemaLookup(boolean hit){
+
+        SchemaLookupEvent event = new SchemaLookupEvent();
+        if(!event.isEnabled())
+            return;
+        event.hit = hit;
+        event.commit();
+
+    }
+
+    @Override
+    public void navigated(int visitedNodes) {
+
+        NavigationEvent event = new NavigationEvent();
+        if(!event.isEnabled())
+            return;
+        event.visitedNodes = visitedNodes;
+        event.commit();
+
+    }
+
+    @Name("org.emerjoin.xmleasy.DocumentRead")
+    @Label("Document Read")
+    @Description("XML document read into memory")
+    @Category("XMLEasy")
+    static final class DocumentReadEvent extends Event {
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+
+    }
+
+    @Name("org.emerjoin.xmleasy.DocumentParsed")
+    @Label("Document Parsed")
+    @Description("XML document parsed, and validated when the parser has XML Schemas")
+    @Category("XMLEasy")
+    static final class DocumentParsedEvent extends Event {
+
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+
+        @Label("Allocated")
+        @Description("Heap allocated by the parsing thread, -1 if unknown")
+        @DataAmount
+        long allocated;
+
+    }
+
+    @Name("org.emerjoin.xmleasy.DocumentValidated")
+    @Label("Document Validated")
+    @Description("Parsed XML document validated against XML Schemas")
+    @Category("XMLEasy")
+    static final class DocumentValidatedEvent extends Event {
+
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+
+    }
+
+    @Name("org.emerjoin.xmleasy.SchemaCompiled")
+    @Label("Schema Compiled")
+    @Description("XML Schemas compiled by a schema registry")
+    @Category("XMLEasy")
+    static final class SchemaCompiledEvent extends Event {
+
+        @Label("Schemas")
+        int schemas;
+
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+
+    }
+
+    @Name("org.emerjoin.xmleasy.SchemaLookup")
+    @Label("Schema Lookup")
+    @Description("Compiled schema looked up in a schema registry")
+    @Category("XMLEasy")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class SchemaLookupEvent extends Event {
+
+        @Label("Hit")
+        boolean hit;
+
+    }
+
+    @Name("org.emerjoin.xmleasy.Navigation")
+    @Label("Navigation")
+    @Description("Children of an element looked up")
+    @Category("XMLEasy")
+    @Enabled(false)
+    @StackTrace(false)
+    static final class NavigationEvent extends Event {
+
+        @Label("Visited Nodes")
+        int visitedNodes;
+
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.emerjoin.xmleasy;
+
+import java.util.ServiceLoader;
+
+/**
+ * Listener of the work done by XMLEasy: documents read, parsed and validated, XML Schemas compiled and looked up, and
+ * child elements visited by navigation. Every method does nothing by default, so implementations only override the
+ * measurements they need.
+ * <p>
+ * A single listener is installed for the whole JVM, with {@link #install(XMLEasyMetrics)}, or discovered with the
+ * {@link ServiceLoader} the first time XMLEasy reports a measurement. When none is installed, {@link #NONE} is used and
+ * XMLEasy skips the measurements altogether: neither the clock nor the allocation counters are read.
+ * <p>
+ * Methods are invoked by the thread that did the work, right after it completes successfully, so implementations
+ * must be Thread-safe and fast.
+ * @see XMLEasyHistogramMetrics
+ * @see XMLEasyJfrMetrics
+ */
+public interface XMLEasyMetrics {
+
+    /**
+     * The listener that ignores every measurement.
+     */
+    XMLEasyMetrics NONE = new XMLEasyMetrics() { };
+
+    /**
+     * Installs the listener of every measurement, replacing the one installed.
+     * @param metrics the listener, or {@link #NONE} to stop measuring
+     * @throws IllegalArgumentException if the listener is null
+     */
+    static void install(XMLEasyMetrics metrics){
+        if(metrics==null)
+            throw new IllegalArgumentException("XMLEasyMetrics instance must not be null");
+        Metrics.installed = metrics;
+
+    }
+
+    /**
+     * Gets the installed listener.
+     * @return the installed listener, {@link #NONE} if no listener is installed. Will never return null.
+     */
+    static XMLEasyMetrics installed(){
+
+        return Metrics.installed;
+
+    }
+
+    /**
+     * Invoked when a document was read into memory, before it's parsed.
+     * @param bytes the size of the document, in bytes
+     * @param nanos the time spent reading the document, in nanoseconds
+     */
+    default void documentRead(long bytes, long nanos){ }
+
+    /**
+     * Invoked when a document was parsed into a DOM, a compact or a memory-mapped document. Documents parsed by a
+     * parser with XML Schemas are validated while they are parsed, so the validation time is included.
+     * @param nanos the time spent parsing the document, in nanoseconds
+     * @param allocatedBytes an estimate of the heap allocated by the parsing thread, in bytes, or -1 if the JVM
+     * doesn't measure the allocations of threads.
+     */
+    default void documentParsed(long nanos, long allocatedBytes){ }
+
+    /**
+     * Invoked when a document passed the validation against XML Schemas, after it was parsed.
+     * @param nanos the time spent validating the document, in nanoseconds
+     */
+    default void documentValidated(long nanos){ }
+
+    /**
+     * Invoked when XML Schemas were compiled by a {@link SchemaRegistry}.
+     * @param schemas the number of XML Schemas compiled together
+     * @param nanos the time spent compiling the XML Schemas, in nanoseconds
+     */
+    default void schemaCompiled(int schemas, long nanos){ }
+
+    /**
+     * Invoked when a {@link SchemaRegistry} returns a compiled schema that was still up to date.
+     */
+    default void schemaCacheHit(){ }
+
+    /**
+     * Invoked when a {@link SchemaRegistry} has to compile a schema, because it was never compiled, evicted or
+     * modified since.
+     */
+    default void schemaCacheMiss(){ }
+
+    /**
+     * Invoked when {@link XMLEasy} or an {@link XMLCursor} looked up the children of the current element by visiting its
+     * child nodes. Lookups answered by a {@link ChildIndex} are hashed and not reported, except the first lookup on each
+     * element, which visits its children to index them. Streams, {@link XMLEasyStream} and {@link XMLEasyFeeder} don't
+     * report navigation.
+     * @param visitedNodes the number of child nodes visited
+     */
+    default void navigated(int visitedNodes){ }
+
+}
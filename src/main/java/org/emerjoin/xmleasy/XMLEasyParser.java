@@ -0,0 +1,776 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Reusable XML parsing engine of {@link XMLEasy} instances.
+ * An {@link XMLEasyParser} looks up its {@link DocumentBuilderFactory} once and keeps a bounded pool of
+ * {@link DocumentBuilder} instances shared by all threads, platform and virtual, resetting them between documents.
+ * Object instances of this class are Thread-safe.
+ */
+public class XMLEasyParser {
+
+    private static final XMLEasyParser DEFAULT = new Builder().build();
+    private static final int MAX_POOLED_BUILDERS = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final DocumentBuilderFactory factory;
+    private final boolean namespaceAware;
+    private final boolean expandEntityReferences;
+    private final boolean stripWhitespace;
+    private final boolean retainSource;
+    private final long maxDocumentSize;
+    private final BufferPool bufferPool;
+    private final int maxIndexedElements;
+    private final URL[] schemas;
+    private final ObjectPool<DocumentBuilder> builders = new ObjectPool<>(MAX_POOLED_BUILDERS);
+    private final ObjectPool<ValidatingBuilder> validatingBuilders = new ObjectPool<>(MAX_POOLED_BUILDERS);
+
+    /**
+     * Gets the parser used by the {@link XMLEasy#XMLEasy(URL)} and {@link XMLEasy#XMLEasy(InputStream)} constructors.
+     * @return the default {@link XMLEasyParser} instance.
+     */
+    public static XMLEasyParser getDefault(){
+
+        return DEFAULT;
+
+    }
+
+    /**
+     * Creates a new {@link Builder} to configure an {@link XMLEasyParser}.
+     * @return a new {@link Builder} instance.
+     */
+    public static Builder builder(){
+
+        return new Builder();
+
+    }
+
+    private XMLEasyParser(Builder builder){
+
+        //XML Schema validation resolves element names by namespace
+        this.namespaceAware = builder.namespaceAware||builder.schemas!=null;
+        this.expandEntityReferences = builder.expandEntityReferences;
+        this.stripWhitespace = builder.stripWhitespace;
+        this.retainSource = builder.retainSource;
+        this.maxDocumentSize = builder.maxDocumentSize;
+        this.bufferPool = builder.bufferPool;
+        this.maxIndexedElements = builder.maxIndexedElements;
+        this.schemas = builder.schemas;
+        this.factory = DocumentBuilderFactory.newInstance();
+        this.factory.setNamespaceAware(namespaceAware);
+        this.factory.setExpandEntityReferences(expandEntityReferences);
+
+    }
+
+    /**
+     * Parses an XML document and sets the root element as the current {@link org.w3c.dom.Element}.
+     * @param url the XML Document URL
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the URL is null
+     * @throws XMLException if the document can't be loaded
+     */
+    public XMLEasy parse(URL url){
+
+        return new XMLEasy(url,this);
+
+    }
+
+    /**
+     * Parses an XML document and sets the root element as the current {@link org.w3c.dom.Element}.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     * @throws XMLException if the document can't be loaded
+     */
+    public XMLEasy parse(InputStream stream){
+
+        return new XMLEasy(stream,this);
+
+    }
+
+    /**
+     * Parses an XML document on the default executor: a virtual thread per document on Java 21 and later, otherwise a
+     * pool of daemon threads that grows with the number of documents being loaded.
+     * @param url the XML Document URL
+     * @return a {@link CompletableFuture} completed with the new {@link XMLEasy} instance, or completed exceptionally
+     * with an {@link XMLException} if the document can't be loaded. Will never return null.
+     * @throws IllegalArgumentException if the URL is null
+     * @see #parseAsync(URL, Executor)
+     */
+    public CompletableFuture<XMLEasy> parseAsync(URL url){
+
+        return parseAsync(url,AsyncExecutor.get());
+
+    }
+
+    /**
+     * Parses an XML document on an {@link Executor}. The document is fetched and parsed by a single task, which never
+     * holds a monitor while it waits for I/O, so it doesn't pin the carrier thread of a virtual thread.
+     * @param url the XML Document URL
+     * @param executor the {@link Executor} on which the document is loaded
+     * @return a {@link CompletableFuture} completed with the new {@link XMLEasy} instance, or completed exceptionally
+     * with an {@link XMLException} if the document can't be loaded. Will never return null.
+     * @throws IllegalArgumentException if the URL or the executor is null
+     */
+    public CompletableFuture<XMLEasy> parseAsync(URL url, Executor executor){
+        if(url==null)
+            throw new IllegalArgumentException("URL must not be null");
+        if(executor==null)
+            throw new IllegalArgumentException("Executor instance must not be null");
+        return CompletableFuture.supplyAsync(() -> parse(url),executor);
+
+    }
+
+    /**
+     * Creates a new {@link XMLEasyFeeder} to parse an XML document pushed in chunks, supplying each element matching a
+     * path as soon as it's complete. The input buffered while a piece of markup or text is incomplete is bounded by the
+     * maximum document size of this parser.
+     * @param path the path of the elements to supply
+     * @param consumer matching elements consumer. Elements are supplied as detached fragments.
+     * @return a new {@link XMLEasyFeeder} instance.
+     * @throws IllegalArgumentException if the path is null, empty or invalid, has child predicates before its last
+     * step, or the consumer instance is null
+     */
+    public XMLEasyFeeder feeder(String path, Consumer<XMLEasy> consumer){
+        if(path==null||path.isEmpty())
+            throw new IllegalArgumentException("Path must not be null or empty");
+        return feeder(XMLPath.compile(path),consumer);
+
+    }
+
+    /**
+     * Creates a new {@link XMLEasyFeeder} to parse an XML document pushed in chunks, supplying each element matching a
+     * compiled path as soon as it's complete.
+     * @param path the compiled path of the elements to supply
+     * @param consumer matching elements consumer. Elements are supplied as detached fragments.
+     * @return a new {@link XMLEasyFeeder} instance.
+     * @throws IllegalArgumentException if the path is null or has child predicates before its last step, or the
+     * consumer instance is null
+     * @see #feeder(String, Consumer)
+     */
+    public XMLEasyFeeder feeder(XMLPath path, Consumer<XMLEasy> consumer){
+
+        return new XMLEasyFeeder(path,consumer,maxDocumentSize);
+
+    }
+
+    /**
+     * Parses an XML document into a compact, read-only representation and sets the root element as the current
+     * {@link org.w3c.dom.Element}. The document is stored as primitive arrays instead of an object per node, which
+     * takes a fraction of the heap of a W3C DOM {@link Document}. The navigation methods of {@link XMLEasy} work
+     * unchanged, but the elements can't be modified and namespaces are not resolved. The document source is never
+     * retained, so the document can only be validated against XML Schemas by fetching its URL again.
+     * @param url the XML Document URL
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the URL is null
+     * @throws XMLException if the document can't be loaded
+     */
+    public XMLEasy parseCompact(URL url){
+
+        return new XMLEasy(url,this,true);
+
+    }
+
+    /**
+     * Parses an XML document into a compact, read-only representation and sets the root element as the current
+     * {@link org.w3c.dom.Element}. Documents parsed from an {@link InputStream} this way can't be validated.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     * @throws XMLException if the document can't be loaded
+     * @see #parseCompact(URL)
+     */
+    public XMLEasy parseCompact(InputStream stream){
+
+        return new XMLEasy(stream,this,true);
+
+    }
+
+    /**
+     * Parses an XML document into an immutable {@link XMLEasy} instance that can be shared by many threads.
+     * A W3C DOM {@link Document} is not Thread-safe, even for reads: the JDK implementation expands nodes and caches
+     * {@link org.w3c.dom.NodeList} lookups as they are read. The document is therefore parsed into the compact
+     * representation of {@link #parseCompact(URL)}, whose nodes are views over arrays that are never written once the
+     * document is built, and the returned instance is frozen, so that navigation always returns new instances instead of
+     * moving it. The children of every element are indexed up front by a complete {@link ChildIndex}, which is never
+     * written afterwards, so child lookups take constant time and reads are lock-free. The instance must be shared like
+     * any other object, through a final or volatile field, a concurrent collection or before the reading threads are
+     * started. The same restrictions of {@link #parseCompact(URL)} apply.
+     * @param url the XML Document URL
+     * @return a new immutable {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the URL is null
+     * @throws XMLException if the document can't be loaded
+     */
+    public XMLEasy parseImmutable(URL url){
+
+        return parseCompact(url).makeImmutable();
+
+    }
+
+    /**
+     * Parses an XML document into an immutable {@link XMLEasy} instance that can be shared by many threads.
+     * @param stream the XML Document {@link InputStream}
+     * @return a new immutable {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the InputStream is null
+     * @throws XMLException if the document can't be loaded
+     * @see #parseImmutable(URL)
+     */
+    public XMLEasy parseImmutable(InputStream stream){
+
+        return parseCompact(stream).makeImmutable();
+
+    }
+
+    /**
+     * Loads an XML file into a compact, read-only representation stored in a memory-mapped index file named after the
+     * XML file, with the {@value CompactStore#INDEX_EXTENSION} extension.
+     * @param source the XML Document file
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if the file is null
+     * @throws XMLException if the document can't be loaded
+     * @see #parseMapped(File, File)
+     */
+    public XMLEasy parseMapped(File source){
+        if(source==null)
+            throw new IllegalArgumentException("File must not be null");
+        return parseMapped(source,new File(source.getPath()+CompactStore.INDEX_EXTENSION));
+
+    }
+
+    /**
+     * Loads an XML file into a compact, read-only representation stored in a memory-mapped index file.
+     * The index is reused as long as the size and checksum of the XML file match the ones it was built from, otherwise
+     * it's rebuilt. Navigation reads the mapped index directly, without deserializing it into the heap, and the index can
+     * be shared by several processes. The same restrictions of {@link #parseCompact(URL)} apply.
+     * @param source the XML Document file
+     * @param index the index file
+     * @return a new {@link XMLEasy} instance.
+     * @throws IllegalArgumentException if any of the files is null
+     * @throws XMLException if the document can't be loaded
+     */
+    public XMLEasy parseMapped(File source, File index){
+        if(source==null||index==null)
+            throw new IllegalArgumentException("File must not be null");
+        if(source.length()>maxDocumentSize)
+            throw new XMLDocumentTooLargeException(maxDocumentSize);
+
+        try {
+
+            if(schemas!=null){
+                try(InputStream stream = new FileInputStream(source)){
+                    validate(stream);
+                }
+            }
+            XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+            long allocated = metrics==XMLEasyMetrics.NONE ? 0 : Metrics.allocatedBytes();
+            long started = metrics==XMLEasyMetrics.NONE ? 0 : System.nanoTime();
+            Document document = CompactStore.load(source,index,stripWhitespace).getDocumentNode();
+            if(metrics!=XMLEasyMetrics.NONE)
+                metrics.documentParsed(System.nanoTime()-started,Metrics.allocatedSince(allocated));
+            if (maxIndexedElements>0)
+                ChildIndex.enable(document,maxIndexedElements);
+            return new XMLEasy(document,source.toURI().toURL());
+
+        }catch (XMLException ex){
+
+            throw ex;
+
+        }catch (IOException | XMLStreamException | RuntimeException ex){
+
+            throw new XMLException("Failed to load XML",ex);
+
+        }
+
+    }
+
+    XMLSource read(URL url) throws IOException {
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        if(metrics==XMLEasyMetrics.NONE)
+            return XMLSource.read(url,bufferPool,maxDocumentSize);
+        long started = System.nanoTime();
+        XMLSource source = XMLSource.read(url,bufferPool,maxDocumentSize);
+        metrics.documentRead(source.size(),System.nanoTime()-started);
+        return source;
+
+    }
+
+    XMLSource read(InputStream stream) throws IOException {
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        if(metrics==XMLEasyMetrics.NONE)
+            return XMLSource.read(stream,bufferPool,maxDocumentSize);
+        long started = System.nanoTime();
+        XMLSource source = XMLSource.read(stream,bufferPool,maxDocumentSize);
+        metrics.documentRead(source.size(),System.nanoTime()-started);
+        return source;
+
+    }
+
+    Document parseDocument(InputStream stream) throws IOException, SAXException {
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        if(metrics==XMLEasyMetrics.NONE)
+            return buildDocument(stream);
+        long allocated = Metrics.allocatedBytes();
+        long started = System.nanoTime();
+        Document document = buildDocument(stream);
+        metrics.documentParsed(System.nanoTime()-started,Metrics.allocatedSince(allocated));
+        return document;
+
+    }
+
+    private Document buildDocument(InputStream stream) throws IOException, SAXException {
+
+        if(schemas!=null)
+            return parseValidDocument(stream);
+        DocumentBuilder builder = builders.poll();
+        if(builder==null)
+            builder = newDocumentBuilder();
+        try {
+            return prepare(builder.parse(stream));
+        }finally {
+            builder.reset();
+            builders.release(builder);
+        }
+
+    }
+
+    /**
+     * Parses and validates a document in a single pass: the builder validates each event before it reaches the tree,
+     * so the parsing stops at the first violation.
+     * @throws InvalidXMLDocumentException if the document does not pass the XML Schemas validation
+     */
+    private Document parseValidDocument(InputStream stream) throws IOException, SAXException {
+
+        ValidatingBuilder validating = validatingBuilder();
+        DocumentBuilder builder = validating.builder;
+        SchemaErrorHandler handler = validating.handler;
+        try {
+            builder.setErrorHandler(handler);
+            return prepare(builder.parse(stream));
+        }catch (SAXParseException ex){
+            if(ex==handler.violation)
+                throw new InvalidXMLDocumentException(ex);
+            throw ex;
+        }finally {
+            handler.violation = null;
+            builder.reset();
+            validatingBuilders.release(validating);
+        }
+
+    }
+
+    private Document prepare(Document document){
+
+        if (stripWhitespace)
+            stripWhitespace(document);
+        if (maxIndexedElements>0)
+            ChildIndex.enable(document,maxIndexedElements);
+        return document;
+
+    }
+
+    /**
+     * Validates a document against the XML Schemas of this parser, if any, with a pooled {@link Validator} of the
+     * {@link SchemaRegistry}. Used by the parsing modes that can't validate while building the document.
+     * @throws InvalidXMLDocumentException if the document does not pass the XML Schemas validation
+     */
+    void validate(InputStream stream) throws IOException {
+
+        if(schemas==null)
+            return;
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        try {
+            long started = metrics==XMLEasyMetrics.NONE ? 0 : System.nanoTime();
+            SchemaRegistry.getDefault().validate(schemas,new StreamSource(stream));
+            if(metrics!=XMLEasyMetrics.NONE)
+                metrics.documentValidated(System.nanoTime()-started);
+        }catch (SAXException ex){
+            throw new InvalidXMLDocumentException(ex);
+        }
+
+    }
+
+    Document parseCompactDocument(InputStream stream) throws XMLStreamException {
+
+        XMLEasyMetrics metrics = XMLEasyMetrics.installed();
+        if(metrics==XMLEasyMetrics.NONE)
+            return buildCompactDocument(stream);
+        long allocated = Metrics.allocatedBytes();
+        long started = System.nanoTime();
+        Document document = buildCompactDocument(stream);
+        metrics.documentParsed(System.nanoTime()-started,Metrics.allocatedSince(allocated));
+        return document;
+
+    }
+
+    private Document buildCompactDocument(InputStream stream) throws XMLStreamException {
+
+        XMLStreamReader reader = XMLEasyStream.createReader(stream);
+        try {
+            Document document = CompactDocument.parse(reader,stripWhitespace).getDocumentNode();
+            if (maxIndexedElements>0)
+                ChildIndex.enable(document,maxIndexedElements);
+            return document;
+        }finally {
+            reader.close();
+        }
+
+    }
+
+    private DocumentBuilder newDocumentBuilder(){
+
+        //DocumentBuilderFactory instances are not Thread-safe
+        synchronized (factory) {
+            try {
+                return factory.newDocumentBuilder();
+            } catch (ParserConfigurationException ex) {
+                throw new XMLException("Failed to create a DocumentBuilder", ex);
+            }
+        }
+
+    }
+
+    /**
+     * Takes a validating builder out of the pool, creating a new one when the pool is empty. Pooled builders created
+     * before the {@link SchemaRegistry} compiled the XML Schemas again are dropped.
+     */
+    private ValidatingBuilder validatingBuilder(){
+
+        Schema schema = SchemaRegistry.getDefault().getSchema(schemas);
+        ValidatingBuilder validating;
+        while((validating = validatingBuilders.poll())!=null){
+            if(validating.schema==schema)
+                return validating;
+        }
+
+        synchronized (factory) {
+            try {
+                factory.setSchema(schema);
+                validating = new ValidatingBuilder(schema,factory.newDocumentBuilder());
+            } catch (ParserConfigurationException ex) {
+                throw new XMLException("Failed to create a DocumentBuilder", ex);
+            } finally {
+                factory.setSchema(null);
+            }
+        }
+
+        return validating;
+
+    }
+
+    private void stripWhitespace(Node parent){
+
+        Node node = parent.getFirstChild();
+        while(node!=null){
+
+            Node next = node.getNextSibling();
+            if(node.getNodeType()==Node.TEXT_NODE){
+                if(isWhitespace((Text) node))
+                    parent.removeChild(node);
+            }else if(node.hasChildNodes())
+                stripWhitespace(node);
+
+            node = next;
+
+        }
+
+    }
+
+    private boolean isWhitespace(Text text){
+
+        String data = text.getData();
+        for(int i=0;i<data.length();i++){
+            if(!Character.isWhitespace(data.charAt(i)))
+                return false;
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Checks if this parser produces namespace aware documents.
+     * @return true if namespace aware, otherwise false.
+     */
+    public boolean isNamespaceAware(){
+
+        return namespaceAware;
+
+    }
+
+    /**
+     * Checks if this parser expands entity references.
+     * @return true if entity references are expanded, otherwise false.
+     */
+    public boolean isExpandEntityReferences(){
+
+        return expandEntityReferences;
+
+    }
+
+    /**
+     * Checks if this parser removes whitespace-only text nodes.
+     * @return true if whitespace-only text nodes are removed, otherwise false.
+     */
+    public boolean isStripWhitespace(){
+
+        return stripWhitespace;
+
+    }
+
+    /**
+     * Checks if the documents parsed by this parser keep their raw bytes for validation.
+     * @return true if the raw bytes are kept, otherwise false.
+     */
+    public boolean isRetainSource(){
+
+        return retainSource;
+
+    }
+
+    /**
+     * Gets the maximum size, in bytes, of the documents accepted by this parser.
+     * @return the maximum document size.
+     */
+    public long getMaxDocumentSize(){
+
+        return maxDocumentSize;
+
+    }
+
+    /**
+     * Gets the pool of the buffers into which this parser reads documents.
+     * @return the {@link BufferPool} instance. Will never return null.
+     */
+    public BufferPool getBufferPool(){
+
+        return bufferPool;
+
+    }
+
+    /**
+     * Gets the maximum number of elements whose children are indexed in each parsed document.
+     * @return the maximum number of indexed elements, or zero if child indexing is disabled.
+     */
+    public int getMaxIndexedElements(){
+
+        return maxIndexedElements;
+
+    }
+
+    /**
+     * Gets the XML Schemas against which this parser validates the documents it parses.
+     * @return a copy of the XML Schemas array, or null if the documents are not validated.
+     */
+    public URL[] getSchemas(){
+
+        return schemas==null ? null : schemas.clone();
+
+    }
+
+    /**
+     * Fails the parsing at the first XML Schema violation, remembering it so that it can be told apart from a
+     * malformed document.
+     */
+    private static final class SchemaErrorHandler implements ErrorHandler {
+
+        private SAXParseException violation;
+
+        @Override
+        public void warning(SAXParseException exception) {
+
+        }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+            violation = exception;
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+    }
+
+    private static final class ValidatingBuilder {
+
+        private final Schema schema;
+        private final DocumentBuilder builder;
+        private final SchemaErrorHandler handler = new SchemaErrorHandler();
+
+        private ValidatingBuilder(Schema schema, DocumentBuilder builder){
+            this.schema = schema;
+            this.builder = builder;
+        }
+
+    }
+
+    /**
+     * Configures and creates {@link XMLEasyParser} instances.
+     */
+    public static class Builder {
+
+        private boolean namespaceAware = false;
+        private boolean expandEntityReferences = true;
+        private boolean stripWhitespace = false;
+        private boolean retainSource = true;
+        private long maxDocumentSize = Integer.MAX_VALUE - 8;
+        private BufferPool bufferPool = BufferPool.getDefault();
+        private int maxIndexedElements = 0;
+        private URL[] schemas = null;
+
+        private Builder(){
+
+        }
+
+        /**
+         * Sets whether the parser provides support for XML namespaces. Disabled by default.
+         * @param namespaceAware true to enable namespace support
+         * @return the current {@link Builder} instance.
+         */
+        public Builder namespaceAware(boolean namespaceAware){
+            this.namespaceAware = namespaceAware;
+            return this;
+        }
+
+        /**
+         * Sets whether the parser expands entity reference nodes. Enabled by default.
+         * @param expandEntityReferences true to expand entity references
+         * @return the current {@link Builder} instance.
+         */
+        public Builder expandEntityReferences(boolean expandEntityReferences){
+            this.expandEntityReferences = expandEntityReferences;
+            return this;
+        }
+
+        /**
+         * Sets whether the parser removes whitespace-only text nodes from the parsed documents. Disabled by default.
+         * @param stripWhitespace true to remove whitespace-only text nodes
+         * @return the current {@link Builder} instance.
+         */
+        public Builder stripWhitespace(boolean stripWhitespace){
+            this.stripWhitespace = stripWhitespace;
+            return this;
+        }
+
+        /**
+         * Sets whether the parsed documents keep their raw bytes, so that {@link XMLEasy#validate(URL[])} doesn't need
+         * to read the source again. Enabled by default. When disabled, the read buffer goes back to the {@link BufferPool}
+         * right after parsing, documents loaded from a {@link URL} are fetched again on validation and documents loaded
+         * from an {@link InputStream} can't be validated.
+         * @param retainSource true to keep the raw bytes of parsed documents
+         * @return the current {@link Builder} instance.
+         */
+        public Builder retainSource(boolean retainSource){
+            this.retainSource = retainSource;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size, in bytes, of the documents accepted by the parser. Reading stops as soon as a document
+         * exceeds it, and documents whose declared length exceeds it are rejected before being read.
+         * @param maxDocumentSize the maximum document size
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the maximum document size is not positive
+         */
+        public Builder maxDocumentSize(long maxDocumentSize){
+            if(maxDocumentSize<1)
+                throw new IllegalArgumentException("Maximum document size must be greater than zero");
+            this.maxDocumentSize = maxDocumentSize;
+            return this;
+        }
+
+        /**
+         * Sets the pool of the buffers into which the parser reads documents. {@link BufferPool#getDefault()} by default.
+         * @param bufferPool the {@link BufferPool} instance
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the buffer pool is null
+         */
+        public Builder bufferPool(BufferPool bufferPool){
+            if(bufferPool==null)
+                throw new IllegalArgumentException("BufferPool instance must not be null");
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Enables a {@link ChildIndex} on each parsed document, so that repeated tag name lookups on the same element
+         * are answered without scanning its children again. Disabled by default.
+         * @param maxIndexedElements the maximum number of elements whose children are kept indexed per document,
+         *                           or zero to disable child indexing
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the maximum number of indexed elements is negative
+         */
+        public Builder childIndex(int maxIndexedElements){
+            if(maxIndexedElements<0)
+                throw new IllegalArgumentException("Maximum indexed elements must not be negative");
+            this.maxIndexedElements = maxIndexedElements;
+            return this;
+        }
+
+        /**
+         * Validates every parsed document against one or more XML Schemas while it is parsed, instead of parsing it
+         * again on {@link XMLEasy#validate(URL[])}. The document tree is built and validated in a single pass, and the
+         * parsing stops at the first violation. The compiled schemas come from the {@link SchemaRegistry}. Validation
+         * requires namespace support, so it is enabled whatever {@link #namespaceAware(boolean)} is set to, and the
+         * parsed documents get the default attribute values declared by the schemas. Compact and mapped documents are
+         * validated before being built, because they are not built from a {@link DocumentBuilder}.
+         * Disabled by default.
+         * @param schemas the XML schemas array, or null to disable validation
+         * @return the current {@link Builder} instance.
+         * @throws IllegalArgumentException if the xml schemas array is empty or has null elements
+         */
+        public Builder schemas(URL... schemas){
+            if(schemas==null){
+                this.schemas = null;
+                return this;
+            }
+            if(schemas.length==0)
+                throw new IllegalArgumentException("XML schemas array must not be empty");
+            for(URL schema: schemas){
+                if(schema==null)
+                    throw new IllegalArgumentException("XML Schema must not be null");
+            }
+            this.schemas = schemas.clone();
+            return this;
+        }
+
+        /**
+         * Creates an {@link XMLEasyParser} with the current configuration.
+         * @return a new {@link XMLEasyParser} instance.
+         */
+        public XMLEasyParser build(){
+
+            return new XMLEasyParser(this);
+
+        }
+
+    }
+
+}
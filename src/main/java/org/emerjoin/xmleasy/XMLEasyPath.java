@@ -0,0 +1,32 @@
+package org.emerjoin.xmleasy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a field to a value of the element its object is bound to. The path is relative to that element:
+ * <ul>
+ *     <li><code>brand</code> is the text content of the first <code>&lt;brand&gt;</code> child</li>
+ *     <li><code>name/first-name</code> follows the first matching child at each step</li>
+ *     <li><code>@color</code> is an attribute of the element and <code>engine/@power</code> an attribute of a child</li>
+ *     <li><code>.</code> is the text content of the element itself</li>
+ * </ul>
+ * Bound fields must not be private, final or static, and may be of type String, int, long, double, Integer, Long or
+ * Double. Fields whose value is absent from the element are left unchanged. The {@link XMLEasyPathProcessor}
+ * generates an {@link XMLBinder} for every class with bound fields at build time.
+ * @see XMLEasy#binder(Class)
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface XMLEasyPath {
+
+    /**
+     * The path of the value, relative to the bound element.
+     */
+    String value();
+
+}
@@ -0,0 +1,342 @@
+package org.emerjoin.xmleasy;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates an {@link XMLBinder} for every class with {@link XMLEasyPath} fields. The paths of a class are merged
+ * into a tree of child steps, and each node of the tree becomes a method that reads the attributes and the text content
+ * bound at that node, then iterates the children of its element once, following only the first child matching each
+ * step. The processor is registered as a service, so it runs whenever XMLEasy is on the compilation classpath.
+ */
+public class XMLEasyPathProcessor extends AbstractProcessor {
+
+    private static final String ANNOTATION = XMLEasyPath.class.getName();
+    private static final String BINDING = XMLBinding.class.getName();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+
+        Map<TypeElement,List<VariableElement>> types = new LinkedHashMap<>();
+        for(VariableElement field: ElementFilter.fieldsIn(roundEnvironment.getElementsAnnotatedWith(XMLEasyPath.class)))
+            types.computeIfAbsent((TypeElement) field.getEnclosingElement(),type -> new ArrayList<>()).add(field);
+
+        for(Map.Entry<TypeElement,List<VariableElement>> entry: types.entrySet()){
+            TypeElement type = entry.getKey();
+            Node root = new Node();
+            boolean valid = validate(type);
+            for(VariableElement field: entry.getValue())
+                valid &= add(root,field);
+            if(valid)
+                generate(type,root);
+        }
+
+        return true;
+
+    }
+
+    private boolean validate(TypeElement type){
+
+        boolean valid = true;
+        if(type.getModifiers().contains(Modifier.PRIVATE)||type.getModifiers().contains(Modifier.ABSTRACT))
+            valid = error(type,"Classes with @XMLEasyPath fields must not be private or abstract");
+        if(type.getNestingKind().isNested()&&!type.getModifiers().contains(Modifier.STATIC))
+            valid = error(type,"Nested classes with @XMLEasyPath fields must be static");
+
+        boolean constructor = false;
+        for(ExecutableElement candidate: ElementFilter.constructorsIn(type.getEnclosedElements())){
+            if(candidate.getParameters().isEmpty()&&!candidate.getModifiers().contains(Modifier.PRIVATE))
+                constructor = true;
+        }
+
+        if(!constructor)
+            valid = error(type,"Classes with @XMLEasyPath fields must have a non-private constructor without parameters");
+        return valid;
+
+    }
+
+    /**
+     * Adds the binding of a field to the tree of its class.
+     * @return false if the field can't be bound.
+     */
+    private boolean add(Node root, VariableElement field){
+
+        Set<Modifier> modifiers = field.getModifiers();
+        if(modifiers.contains(Modifier.PRIVATE)||modifiers.contains(Modifier.FINAL)||modifiers.contains(Modifier.STATIC))
+            return error(field,"Fields with @XMLEasyPath must not be private, final or static");
+
+        String conversion = conversion(field.asType().toString());
+        if(conversion==null)
+            return error(field,String.format("Unsupported @XMLEasyPath field type %s: use String, int, long, double, Integer, Long or Double",
+                    field.asType()));
+
+        String path = field.getAnnotation(XMLEasyPath.class).value().trim();
+        String[] steps = path.equals(".") ? new String[0] : path.split("/",-1);
+        Node node = root;
+        for(int i=0;i<steps.length;i++){
+
+            String step = steps[i];
+            boolean attribute = step.startsWith("@");
+            String name = attribute ? step.substring(1) : step;
+            if(name.isEmpty()||(attribute&&i<steps.length-1)||!isName(name))
+                return error(field,String.format("Invalid @XMLEasyPath [%s]: steps must be tag names, optionally followed by a final @attribute step",
+                        path));
+            if(attribute){
+                node.attributes.add(new Binding(field,conversion,name));
+                return true;
+            }
+
+            node = node.child(name);
+
+        }
+
+        node.contents.add(new Binding(field,conversion,null));
+        return true;
+
+    }
+
+    private static boolean isName(String name){
+
+        for(int i=0;i<name.length();i++){
+            if("/[]=@'\"* \t.".indexOf(name.charAt(i))>=0&&!(name.charAt(i)=='.'&&i>0))
+                return false;
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Gets the expression that converts a located value to a field type.
+     * @return the conversion format, whose arguments are the value, the element and the attribute expressions, or
+     * null if the type is not supported.
+     */
+    private static String conversion(String type){
+
+        switch (type){
+            case "java.lang.String":
+                return "%1$s.toString()";
+            case "int":
+            case "java.lang.Integer":
+                return BINDING+".parseInt(%1$s,%2$s,%3$s)";
+            case "long":
+            case "java.lang.Long":
+                return BINDING+".parseLong(%1$s,%2$s,%3$s)";
+            case "double":
+            case "java.lang.Double":
+                return BINDING+".parseDouble(%1$s,%2$s,%3$s)";
+            default:
+                return null;
+        }
+
+    }
+
+    private void generate(TypeElement type, Node root){
+
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String targetName = type.getQualifiedName().toString();
+        String binderName = flatName(type)+BinderRegistry.SUFFIX;
+        String qualifiedBinderName = packageName.isEmpty() ? binderName : packageName+"."+binderName;
+
+        StringBuilder source = new StringBuilder();
+        if(!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+        //Generated code uses qualified names, so that it can't clash with the names of the bound class
+        source.append("/**\n * Binds {@link ").append(targetName).append("} objects. Generated by ")
+                .append(getClass().getName()).append(": do not edit.\n */\n")
+                .append("public final class ").append(binderName).append(" implements org.emerjoin.xmleasy.XMLBinder<").append(targetName)
+                .append("> {\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(targetName).append(" bind(org.w3c.dom.Element element) {\n")
+                .append("        ").append(targetName).append(" target = new ").append(targetName).append("();\n")
+                .append("        bind0(element,target);\n")
+                .append("        return target;\n")
+                .append("    }\n");
+        method(source,targetName,root);
+        source.append("\n}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedBinderName,type);
+            try(Writer writer = file.openWriter()){
+                writer.write(source.toString());
+            }
+        }catch (IOException ex){
+            error(type,String.format("Failed to generate %s: %s",qualifiedBinderName,ex.getMessage()));
+        }
+
+    }
+
+    /**
+     * Writes the method of a node, then the methods of its children.
+     */
+    private void method(StringBuilder source, String targetName, Node node){
+
+        source.append("\n    private static void bind").append(node.id).append("(org.w3c.dom.Element element, ")
+                .append(targetName).append(" target) {\n");
+        if(!node.attributes.isEmpty())
+            source.append("        CharSequence value;\n");
+        for(Binding binding: node.attributes){
+            String attribute = literal(binding.attribute);
+            source.append("        value = "+BINDING+".attribute(element,").append(attribute).append(");\n")
+                    .append("        if(value!=null)\n")
+                    .append("            target.").append(binding.field).append(" = ")
+                    .append(String.format(binding.conversion,"value","element",attribute)).append(";\n");
+        }
+
+        for(Binding binding: node.contents){
+            source.append("        target.").append(binding.field).append(" = ")
+                    .append(String.format(binding.conversion,BINDING+".content(element)","element","null")).append(";\n");
+        }
+
+        if(!node.children.isEmpty()){
+
+            for(Node child: node.children.values())
+                source.append("        boolean bound").append(child.id).append(" = false;\n");
+            source.append("        int remaining = ").append(node.children.size()).append(";\n")
+                    .append("        for(org.w3c.dom.Node node = element.getFirstChild(); node!=null; node = node.getNextSibling()) {\n")
+                    .append("            if(node.getNodeType()!=org.w3c.dom.Node.ELEMENT_NODE)\n")
+                    .append("                continue;\n")
+                    .append("            switch (((org.w3c.dom.Element) node).getTagName()) {\n");
+            for(Map.Entry<String,Node> entry: node.children.entrySet()){
+                int id = entry.getValue().id;
+                source.append("                case ").append(literal(entry.getKey())).append(":\n")
+                        .append("                    if(bound").append(id).append(")\n")
+                        .append("                        continue;\n")
+                        .append("                    bound").append(id).append(" = true;\n")
+                        .append("                    bind").append(id).append("((org.w3c.dom.Element) node,target);\n")
+                        .append("                    break;\n");
+            }
+            source.append("                default:\n")
+                    .append("                    continue;\n")
+                    .append("            }\n")
+                    .append("            if(--remaining==0)\n")
+                    .append("                return;\n")
+                    .append("        }\n");
+
+        }
+
+        source.append("    }\n");
+        for(Node child: node.children.values())
+            method(source,targetName,child);
+
+    }
+
+    private static String literal(String value){
+
+        StringBuilder literal = new StringBuilder("\"");
+        for(char c: value.toCharArray()){
+            if(c=='"'||c=='\\')
+                literal.append('\\');
+            literal.append(c);
+        }
+
+        return literal.append('"').toString();
+
+    }
+
+    private static PackageElement packageOf(Element element){
+
+        Element current = element;
+        while(current.getKind()!=ElementKind.PACKAGE)
+            current = current.getEnclosingElement();
+        return (PackageElement) current;
+
+    }
+
+    /**
+     * Gets the name of a class without its package, with nested class names joined by underscores.
+     */
+    private static String flatName(TypeElement type){
+
+        String name = type.getSimpleName().toString();
+        Element enclosing = type.getEnclosingElement();
+        while(enclosing.getKind()!=ElementKind.PACKAGE){
+            name = enclosing.getSimpleName()+"_"+name;
+            enclosing = enclosing.getEnclosingElement();
+        }
+
+        return name;
+
+    }
+
+    private boolean error(Element element, String message){
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,message,element);
+        return false;
+
+    }
+
+    /**
+     * Node of the tree of child steps of a class: the bindings read from the element reached by the steps.
+     */
+    private static final class Node {
+
+        private final int id;
+        private final Node root;
+        private final Map<String,Node> children = new LinkedHashMap<>();
+        private final List<Binding> attributes = new ArrayList<>();
+        private final List<Binding> contents = new ArrayList<>();
+        private int nodes;
+
+        private Node(){
+            this.id = 0;
+            this.root = this;
+        }
+
+        private Node(int id, Node root){
+            this.id = id;
+            this.root = root;
+        }
+
+        private Node child(String tag){
+
+            return children.computeIfAbsent(tag,name -> new Node(++root.nodes,root));
+
+        }
+
+    }
+
+    private static final class Binding {
+
+        private final String field;
+        private final String conversion;
+        private final String attribute;
+
+        private Binding(VariableElement field, String conversion, String attribute){
+            this.field = field.getSimpleName().toString();
+            this.conversion = conversion;
+            this.attribute = attribute;
+        }
+
+    }
+
+}
@@ -0,0 +1,169 @@
+package org.emerjoin.xmleasy;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Streaming counterpart of {@link XMLEasy}, for documents too large to be loaded as a whole.
+ * The document is read sequentially with an {@link XMLStreamReader} and only the elements matching a path are built,
+ * one at a time, as small detached fragments. Peak memory depends on the largest matching element, not on the document
+ * size. Object instances of this class are not Thread-safe.
+ */
+public class XMLEasyStream {
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newInstance();
+    private static final Lock FACTORY_LOCK = new ReentrantLock();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.IS_COALESCING,true);
+    }
+
+    private URL xmlURL;
+    private InputStream xmlStream;
+    private boolean consumed;
+
+    XMLEasyStream(URL url){
+        if(url==null)
+            throw new IllegalArgumentException("URL must not be null");
+        this.xmlURL = url;
+    }
+
+    XMLEasyStream(InputStream stream){
+        if(stream==null)
+            throw new IllegalArgumentException("InputStream must not be null");
+        this.xmlStream = stream;
+    }
+
+    /**
+     * Supplies each element matching a path to a {@link Consumer<XMLEasy>}, in document order.
+     * The path is compiled as an {@link XMLPath}. Relative paths are relative to the root element:
+     * <code>cars/car</code> matches every <code>&lt;car&gt;</code> child of a <code>&lt;cars&gt;</code> child of the
+     * root element. Each matching element is supplied as a detached fragment that must not be used after the consumer
+     * returns.
+     * @param path the path of the elements to supply
+     * @param consumer matching elements consumer
+     * @return the current {@link XMLEasyStream} instance.
+     * @throws IllegalArgumentException if the path is null, empty or invalid or the consumer instance is null.
+     * @throws IllegalStateException if the stream was created from an {@link InputStream} that was already consumed.
+     * @throws XMLException if the document can't be read.
+     * @see #each(XMLPath, Consumer)
+     */
+    public XMLEasyStream each(String path, Consumer<XMLEasy> consumer){
+        if(path==null||path.isEmpty())
+            throw new IllegalArgumentException("Path must not be null or empty");
+        return each(XMLPath.compile(path),consumer);
+
+    }
+
+    /**
+     * Supplies each element matching a compiled path to a {@link Consumer<XMLEasy>}, in document order.
+     * Relative paths are relative to the root element and absolute paths start at the root element:
+     * <code>/Carwash/cars/car[@color='red']/brand</code> and <code>cars/car[@color='red']/brand</code> select the same
+     * elements of a <code>&lt;Carwash&gt;</code> document. Subtrees that can't lead to a match are skipped without
+     * being built. Elements that are candidates of a step with child predicates, such as <code>washer[age=24]</code>,
+     * are buffered until the step is decided. Each matching element is supplied as a detached fragment that must not be
+     * used after the consumer returns.
+     * @param path the compiled path of the elements to supply
+     * @param consumer matching elements consumer
+     * @return the current {@link XMLEasyStream} instance.
+     * @throws IllegalArgumentException if the path or the consumer instance is null.
+     * @throws IllegalStateException if the stream was created from an {@link InputStream} that was already consumed.
+     * @throws XMLException if the document can't be read.
+     */
+    public XMLEasyStream each(XMLPath path, Consumer<XMLEasy> consumer){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        if(consumer==null)
+            throw new IllegalArgumentException("Consumer instance must not be null");
+        StreamMatcher matcher = new StreamMatcher();
+        matcher.elements(path,consumer);
+        return read(matcher);
+
+    }
+
+    /**
+     * Supplies the text content of each element matching a path to a {@link Consumer<String>}, in document order.
+     * @param path the path of the elements whose text content must be supplied
+     * @param consumer values consumer
+     * @return the current {@link XMLEasyStream} instance.
+     * @throws IllegalArgumentException if the path is null, empty or invalid or the consumer instance is null.
+     * @throws IllegalStateException if the stream was created from an {@link InputStream} that was already consumed.
+     * @throws XMLException if the document can't be read.
+     * @see #eachValue(XMLPath, Consumer)
+     */
+    public XMLEasyStream eachValue(String path, Consumer<String> consumer){
+        if(path==null||path.isEmpty())
+            throw new IllegalArgumentException("Path must not be null or empty");
+        return eachValue(XMLPath.compile(path),consumer);
+
+    }
+
+    /**
+     * Supplies the text content of each element matching a compiled path to a {@link Consumer<String>}, in document
+     * order. Matching elements are not built: their text is collected while they are read, unless they are buffered
+     * to evaluate child predicates or contain further matches.
+     * @param path the compiled path of the elements whose text content must be supplied
+     * @param consumer values consumer
+     * @return the current {@link XMLEasyStream} instance.
+     * @throws IllegalArgumentException if the path or the consumer instance is null.
+     * @throws IllegalStateException if the stream was created from an {@link InputStream} that was already consumed.
+     * @throws XMLException if the document can't be read.
+     * @see #each(XMLPath, Consumer)
+     */
+    public XMLEasyStream eachValue(XMLPath path, Consumer<String> consumer){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        if(consumer==null)
+            throw new IllegalArgumentException("Consumer instance must not be null");
+        StreamMatcher matcher = new StreamMatcher();
+        matcher.values(path,consumer);
+        return read(matcher);
+
+    }
+
+    XMLEasyStream read(StreamMatcher matcher){
+
+        try {
+
+            if(xmlURL!=null){
+                try(InputStream input = xmlURL.openStream()){
+                    matcher.evaluate(createReader(input));
+                }
+            }else{
+                if(consumed)
+                    throw new IllegalStateException("The XML Document InputStream was already consumed");
+                consumed = true;
+                matcher.evaluate(createReader(xmlStream));
+            }
+
+        }catch (IOException | XMLStreamException ex){
+
+            throw new XMLException("Failed to stream XML",ex);
+
+        }
+
+        return this;
+
+    }
+
+    static XMLStreamReader createReader(InputStream input) throws XMLStreamException {
+
+        //XMLInputFactory instances are not required to be Thread-safe. The reader reads the beginning of the document to
+        //detect its encoding, so a lock is used instead of a monitor, which would pin the carrier of a virtual thread
+        FACTORY_LOCK.lock();
+        try {
+            return FACTORY.createXMLStreamReader(input);
+        }finally {
+            FACTORY_LOCK.unlock();
+        }
+
+    }
+
+}
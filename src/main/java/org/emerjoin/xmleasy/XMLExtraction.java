@@ -0,0 +1,98 @@
+package org.emerjoin.xmleasy;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Extracts the elements matching many paths out of an XML document, in a single sequential pass.
+ * Paths are registered up front with their consumers and merged into a trie, so the steps they share, such as the
+ * <code>cars/car</code> prefix of <code>cars/car/brand</code> and <code>cars/car/model</code>, are matched once per
+ * element. Paths follow the {@link XMLEasyStream} conventions: relative paths are relative to the root element.
+ * Object instances of this class are not Thread-safe.
+ */
+public final class XMLExtraction {
+
+    private final XMLEasyStream stream;
+    private final StreamMatcher matcher = new StreamMatcher();
+
+    XMLExtraction(XMLEasyStream stream){
+        this.stream = stream;
+    }
+
+    /**
+     * Registers the consumer of the elements matching a path.
+     * @param path the path of the elements to supply
+     * @param consumer matching elements consumer. Elements are supplied as detached fragments that must not be used
+     * after the consumer returns.
+     * @return the current {@link XMLExtraction} instance.
+     * @throws IllegalArgumentException if the path is null, empty or invalid or the consumer instance is null.
+     */
+    public XMLExtraction on(String path, Consumer<XMLEasy> consumer){
+        if(path==null||path.isEmpty())
+            throw new IllegalArgumentException("Path must not be null or empty");
+        return on(XMLPath.compile(path),consumer);
+
+    }
+
+    /**
+     * Registers the consumer of the elements matching a compiled path.
+     * @param path the compiled path of the elements to supply
+     * @param consumer matching elements consumer. Elements are supplied as detached fragments that must not be used
+     * after the consumer returns.
+     * @return the current {@link XMLExtraction} instance.
+     * @throws IllegalArgumentException if the path or the consumer instance is null.
+     */
+    public XMLExtraction on(XMLPath path, Consumer<XMLEasy> consumer){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        if(consumer==null)
+            throw new IllegalArgumentException("Consumer instance must not be null");
+        matcher.elements(path,consumer);
+        return this;
+
+    }
+
+    /**
+     * Registers the consumer of the text content of the elements matching a path.
+     * @param path the path of the elements whose text content must be supplied
+     * @param consumer values consumer
+     * @return the current {@link XMLExtraction} instance.
+     * @throws IllegalArgumentException if the path is null, empty or invalid or the consumer instance is null.
+     */
+    public XMLExtraction onValue(String path, Consumer<String> consumer){
+        if(path==null||path.isEmpty())
+            throw new IllegalArgumentException("Path must not be null or empty");
+        return onValue(XMLPath.compile(path),consumer);
+
+    }
+
+    /**
+     * Registers the consumer of the text content of the elements matching a compiled path.
+     * @param path the compiled path of the elements whose text content must be supplied
+     * @param consumer values consumer
+     * @return the current {@link XMLExtraction} instance.
+     * @throws IllegalArgumentException if the path or the consumer instance is null.
+     */
+    public XMLExtraction onValue(XMLPath path, Consumer<String> consumer){
+        if(path==null)
+            throw new IllegalArgumentException("XMLPath must not be null");
+        if(consumer==null)
+            throw new IllegalArgumentException("Consumer instance must not be null");
+        matcher.values(path,consumer);
+        return this;
+
+    }
+
+    /**
+     * Reads the document once and supplies every match to the consumers of its paths, in document order. The consumers
+     * of the same element are called in the order they were registered.
+     * @throws IllegalStateException if the extraction was created from an {@link InputStream} that was already consumed.
+     * @throws XMLException if the document can't be read.
+     */
+    public void run(){
+
+        stream.read(matcher);
+
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.emerjoin.xmleasy;
+
+/**
+ * Thrown when an attribute value or the text content of an element is not a valid number.
+ * The exception carries the invalid value, the attribute name and the path of the element, such as
+ * <code>/Carwash/washers/washer[2]/age</code>, so that the faulty record can be found in large documents.
+ */
+public class XMLNumberFormatException extends XMLException {
+
+    private final String value;
+    private final String attribute;
+    private final String path;
+
+    public XMLNumberFormatException(String type, String value, String attribute, String path, Throwable cause){
+        super(attribute==null ? String.format("Invalid %s value [%s] in the content of element [%s]",type,value,path)
+                : String.format("Invalid %s value [%s] in attribute [%s] of element [%s]",type,value,attribute,path),cause);
+        this.value = value;
+        this.attribute = attribute;
+        this.path = path;
+    }
+
+    /**
+     * Gets the invalid value.
+     * @return the invalid value. Will never return null.
+     */
+    public String getValue(){
+        return value;
+    }
+
+    /**
+     * Gets the name of the attribute holding the invalid value.
+     * @return the attribute name, or null if the value is the text content of the element.
+     */
+    public String getAttribute(){
+        return attribute;
+    }
+
+    /**
+     * Gets the path of the element from the document element, with the position of the element among the siblings
+     * with the same tag name when it isn't the only one.
+     * @return the element path. Will never return null.
+     */
+    public String getPath(){
+        return path;
+    }
+
+}
@@ -0,0 +1,501 @@
+package org.emerjoin.xmleasy;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Compiled path expression that selects elements in a single traversal.
+ * The path language is a small subset of XPath:
+ * <ul>
+ *     <li><code>washers/washer/name</code> selects children, relative to the context element</li>
+ *     <li><code>/Carwash/washers</code> is absolute: its first step matches the document element</li>
+ *     <li><code>cars//brand</code> selects descendants, <code>.//brand</code> the descendants of the context element
+ *     and <code>//brand</code> every element of the document</li>
+ *     <li><code>*</code> matches any tag name</li>
+ *     <li><code>car[2]</code> is a positional predicate, counting from 1 among the siblings that passed the previous
+ *     predicates</li>
+ *     <li><code>car[@color]</code> and <code>car[@color='red']</code> test an attribute</li>
+ *     <li><code>washer[age]</code> and <code>washer[age=24]</code> test the text content of a child element</li>
+ * </ul>
+ * Values may be quoted with single or double quotes and are compared as strings. Steps are matched as a state machine
+ * during a depth-first traversal that only descends into elements that can still lead to a match, so the selected
+ * elements are returned in document order, without duplicates and without creating intermediate {@link XMLEasy}
+ * instances. Object instances of this class are immutable and Thread-safe.
+ */
+public final class XMLPath {
+
+    private static final int MAX_STEPS = 63;
+
+    private final String expression;
+    private final boolean absolute;
+    private final Step[] steps;
+    private final long descendantSteps;
+    private final long finalState;
+    private final int positionalPredicates;
+
+    private XMLPath(String expression, boolean absolute, List<Step> steps, int positionalPredicates){
+        this.expression = expression;
+        this.absolute = absolute;
+        this.steps = steps.toArray(new Step[0]);
+        this.positionalPredicates = positionalPredicates;
+        long descendants = 0;
+        for(int i=0;i<this.steps.length;i++){
+            if(this.steps[i].descendant)
+                descendants |= 1L << i;
+        }
+
+        this.descendantSteps = descendants;
+        this.finalState = 1L << this.steps.length;
+
+    }
+
+    /**
+     * Compiles a path expression.
+     * @param expression the path expression
+     * @return a new {@link XMLPath} instance.
+     * @throws IllegalArgumentException if the expression is null or invalid
+     */
+    public static XMLPath compile(String expression){
+        if(expression==null||expression.trim().isEmpty())
+            throw new IllegalArgumentException("Path expression must not be null or empty");
+        return new Parser(expression).parse();
+
+    }
+
+    /**
+     * Selects every element that matches this path.
+     * @param context the context {@link Element} of relative paths
+     * @return the matching elements in document order. Will never return null.
+     * @throws IllegalArgumentException if the context element is null
+     */
+    public List<Element> select(Element context){
+        if(context==null)
+            throw new IllegalArgumentException("Element must not be null");
+        List<Element> elements = new ArrayList<>();
+        evaluate(start(context),elements,false);
+        return elements;
+
+    }
+
+    /**
+     * Selects the first element, in document order, that matches this path. The traversal stops at the first match.
+     * @param context the context {@link Element} of relative paths
+     * @return an {@link Optional<Element>} instance for the first matching element. Will never return null.
+     * @throws IllegalArgumentException if the context element is null
+     */
+    public Optional<Element> selectFirst(Element context){
+        if(context==null)
+            throw new IllegalArgumentException("Element must not be null");
+        List<Element> elements = new ArrayList<>(1);
+        evaluate(start(context),elements,true);
+        return elements.isEmpty() ? Optional.empty() : Optional.of(elements.get(0));
+
+    }
+
+    private Node start(Element context){
+
+        if(!absolute)
+            return context;
+        Document document = context.getOwnerDocument();
+        if(document==null)
+            throw new IllegalStateException(String.format("Element [%s] doesn't belong to a Document",context.getTagName()));
+        return document;
+
+    }
+
+    private void evaluate(Node start, List<Element> elements, boolean first){
+
+        if(descendantSteps==0)
+            children(start,0,elements,first);
+        else
+            visit(start,1L,0L,elements,first);
+
+    }
+
+    /**
+     * Matches the children of a node against one step of a path made only of child steps. Such paths never match an
+     * element through more than one step, so no state has to be tracked.
+     * @return true if the traversal must stop.
+     */
+    private boolean children(Node parent, int step, List<Element> elements, boolean first){
+
+        Step current = steps[step];
+        boolean last = step==steps.length-1;
+        int[] positions = positionalPredicates>0 ? new int[positionalPredicates] : null;
+        for(Node node = parent.getFirstChild(); node!=null; node = node.getNextSibling()){
+
+            if(node.getNodeType()!=Node.ELEMENT_NODE||!current.matches((Element) node,positions))
+                continue;
+            if(!last){
+                if(children(node,step+1,elements,first))
+                    return true;
+            }else{
+                elements.add((Element) node);
+                if(first)
+                    return true;
+            }
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Matches the children of a node.
+     * @param parent the node whose children are matched
+     * @param states bit i is set if the parent matched the steps before step i
+     * @param pending bit i is set if an ancestor of the parent matched the steps before the descendant step i
+     * @return true if the traversal must stop.
+     */
+    private boolean visit(Node parent, long states, long pending, List<Element> elements, boolean first){
+
+        long candidates = states | pending;
+        long inherited = pending | (states & descendantSteps);
+        int[] positions = positionalPredicates>0 ? new int[positionalPredicates] : null;
+        for(Node node = parent.getFirstChild(); node!=null; node = node.getNextSibling()){
+
+            if(node.getNodeType()!=Node.ELEMENT_NODE)
+                continue;
+            Element element = (Element) node;
+            long matched = 0;
+            for(long remaining = candidates; remaining!=0; remaining &= remaining-1){
+                int step = Long.numberOfTrailingZeros(remaining);
+                if(steps[step].matches(element,positions))
+                    matched |= 1L << (step+1);
+            }
+
+            if((matched & finalState)!=0){
+                elements.add(element);
+                if(first)
+                    return true;
+            }
+
+            long next = matched & ~finalState;
+            if((next!=0||inherited!=0)&&visit(element,next,inherited,elements,first))
+                return true;
+
+        }
+
+        return false;
+
+    }
+
+    boolean isAbsolute(){
+        return absolute;
+    }
+
+    Step[] getSteps(){
+        return steps;
+    }
+
+    int getPositionalPredicates(){
+        return positionalPredicates;
+    }
+
+    /**
+     * Gets the expression this path was compiled from.
+     * @return the path expression. Will never return null.
+     */
+    public String getExpression(){
+
+        return expression;
+
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * One step of a path: axis, tag name test and predicates.
+     */
+    static final class Step {
+
+        private final String source;
+        private final String tag;
+        private final boolean anyTag;
+        private final boolean descendant;
+        private final Predicate[] predicates;
+        private final boolean childPredicates;
+
+        private Step(String source, String tag, boolean descendant, List<Predicate> predicates){
+            this.source = source;
+            this.tag = tag;
+            this.anyTag = tag.equals("*");
+            this.descendant = descendant;
+            this.predicates = predicates.toArray(new Predicate[0]);
+            boolean children = false;
+            for(Predicate predicate: this.predicates)
+                children |= predicate.type==Predicate.CHILD;
+            this.childPredicates = children;
+        }
+
+        boolean matchesTag(String name){
+            return anyTag||tag.equals(name);
+        }
+
+        boolean matches(Element element, int[] positions){
+
+            return matches(element,positions,0);
+
+        }
+
+        /**
+         * Matches an element against this step, with the positional predicate counters stored from an offset.
+         */
+        boolean matches(Element element, int[] positions, int offset){
+
+            if(!anyTag&&!tag.equals(element.getTagName()))
+                return false;
+            for(int i=0;i<predicates.length;i++){
+                if(!predicates[i].matches(element,positions,offset))
+                    return false;
+            }
+
+            return true;
+
+        }
+
+        String getTag(){
+            return tag;
+        }
+
+        /**
+         * Gets the expression of this step, including its axis. Steps with the same source are equivalent.
+         */
+        String getSource(){
+            return descendant ? "//"+source : "/"+source;
+        }
+
+        boolean isDescendant(){
+            return descendant;
+        }
+
+        Predicate[] getPredicates(){
+            return predicates;
+        }
+
+        boolean hasChildPredicates(){
+            return childPredicates;
+        }
+
+    }
+
+    /**
+     * Predicate of a step.
+     */
+    static final class Predicate {
+
+        static final int POSITION = 0;
+        static final int ATTRIBUTE = 1;
+        static final int CHILD = 2;
+
+        private final int type;
+        private final String name;
+        private final String value;
+        private final int position;
+        private final int slot;
+
+        private Predicate(int type, String name, String value, int position, int slot){
+            this.type = type;
+            this.name = name;
+            this.value = value;
+            this.position = position;
+            this.slot = slot;
+        }
+
+        boolean matches(Element element, int[] positions, int offset){
+
+            switch (type){
+                case POSITION:
+                    return ++positions[offset+slot]==position;
+                case ATTRIBUTE:
+                    return element.hasAttribute(name)&&(value==null||value.equals(element.getAttribute(name)));
+                default:
+                    for(Node node = element.getFirstChild(); node!=null; node = node.getNextSibling()){
+                        if(XMLEasy.matches(node,name)&&(value==null||value.equals(node.getTextContent())))
+                            return true;
+                    }
+                    return false;
+            }
+
+        }
+
+        int getType(){
+            return type;
+        }
+
+        String getName(){
+            return name;
+        }
+
+        String getValue(){
+            return value;
+        }
+
+        int getPosition(){
+            return position;
+        }
+
+        int getSlot(){
+            return slot;
+        }
+
+    }
+
+    private static final class Parser {
+
+        private final String expression;
+        private int index;
+        private int positionalPredicates;
+
+        private Parser(String expression){
+            this.expression = expression.trim();
+        }
+
+        private XMLPath parse(){
+
+            boolean absolute = false;
+            boolean descendant = false;
+            if(expression.startsWith("//")){
+                absolute = true;
+                descendant = true;
+                index = 2;
+            }else if(expression.startsWith(".//")){
+                descendant = true;
+                index = 3;
+            }else if(expression.startsWith("/")){
+                absolute = true;
+                index = 1;
+            }
+
+            List<Step> steps = new ArrayList<>();
+            while(true){
+
+                int start = index;
+                String tag = name("tag name");
+                List<Predicate> predicates = new ArrayList<>();
+                while(index<expression.length()&&expression.charAt(index)=='[')
+                    predicates.add(predicate());
+                steps.add(new Step(expression.substring(start,index),tag,descendant,predicates));
+                if(steps.size()>MAX_STEPS)
+                    throw invalid(String.format("more than %d steps",MAX_STEPS));
+
+                if(index==expression.length())
+                    break;
+                expect('/');
+                descendant = index<expression.length()&&expression.charAt(index)=='/';
+                if(descendant)
+                    index++;
+
+            }
+
+            return new XMLPath(expression,absolute,steps,positionalPredicates);
+
+        }
+
+        private Predicate predicate(){
+
+            expect('[');
+            skipSpaces();
+            Predicate predicate;
+            if(index<expression.length()&&Character.isDigit(expression.charAt(index))){
+                int start = index;
+                while(index<expression.length()&&Character.isDigit(expression.charAt(index)))
+                    index++;
+                int position;
+                try {
+                    position = Integer.parseInt(expression.substring(start,index));
+                }catch (NumberFormatException ex){
+                    throw invalid("position out of range");
+                }
+                if(position<1)
+                    throw invalid("positions start at 1");
+                predicate = new Predicate(Predicate.POSITION,null,null,position,positionalPredicates++);
+            }else{
+                boolean attribute = index<expression.length()&&expression.charAt(index)=='@';
+                if(attribute)
+                    index++;
+                String name = name(attribute ? "attribute name" : "child tag name");
+                skipSpaces();
+                String value = null;
+                if(index<expression.length()&&expression.charAt(index)=='='){
+                    index++;
+                    skipSpaces();
+                    value = literal();
+                }
+                predicate = new Predicate(attribute ? Predicate.ATTRIBUTE : Predicate.CHILD,name,value,0,-1);
+            }
+
+            skipSpaces();
+            expect(']');
+            return predicate;
+
+        }
+
+        private String name(String description){
+
+            int start = index;
+            while(index<expression.length()&&"/[]=@'\" \t".indexOf(expression.charAt(index))<0)
+                index++;
+            if(start==index)
+                throw invalid(String.format("%s expected",description));
+            //Parsers intern names, so most comparisons succeed on identity
+            return expression.substring(start,index).intern();
+
+        }
+
+        private String literal(){
+
+            if(index<expression.length()&&(expression.charAt(index)=='\''||expression.charAt(index)=='"')){
+                char quote = expression.charAt(index++);
+                int end = expression.indexOf(quote,index);
+                if(end<0)
+                    throw invalid("unterminated value");
+                String value = expression.substring(index,end);
+                index = end+1;
+                return value;
+            }
+
+            int start = index;
+            while(index<expression.length()&&expression.charAt(index)!=']')
+                index++;
+            String value = expression.substring(start,index).trim();
+            if(value.isEmpty())
+                throw invalid("value expected");
+            return value;
+
+        }
+
+        private void skipSpaces(){
+
+            while(index<expression.length()&&Character.isWhitespace(expression.charAt(index)))
+                index++;
+
+        }
+
+        private void expect(char expected){
+
+            if(index>=expression.length()||expression.charAt(index)!=expected)
+                throw invalid(String.format("'%s' expected",expected));
+            index++;
+
+        }
+
+        private IllegalArgumentException invalid(String reason){
+
+            return new IllegalArgumentException(String.format("Invalid path expression [%s]: %s at position %d",
+                    expression,reason,index));
+
+        }
+
+    }
+
+}
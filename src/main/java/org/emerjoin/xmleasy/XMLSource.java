@@ -0,0 +1,165 @@
+package org.emerjoin.xmleasy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Raw bytes of an XML document, read exactly once and shared by the parser and the validator.
+ * Streams are read in chunks into growable buffers taken from a {@link BufferPool}. Files larger than
+ * {@link #MAPPING_THRESHOLD} are memory-mapped while being loaded, and copied into the heap only if the source is
+ * retained.
+ */
+class XMLSource {
+
+    static final long MAPPING_THRESHOLD = 256 * 1024;
+
+    private ByteBuffer buffer;
+    private byte[] pooledBuffer;
+    private BufferPool pool;
+
+    private XMLSource(ByteBuffer buffer){
+        this.buffer = buffer;
+    }
+
+    private XMLSource(byte[] pooledBuffer, int length, BufferPool pool){
+        this.buffer = ByteBuffer.wrap(pooledBuffer,0,length);
+        this.pooledBuffer = pooledBuffer;
+        this.pool = pool;
+    }
+
+    static XMLSource read(URL url, BufferPool pool, long maxSize) throws IOException {
+
+        File file = file(url);
+        if(file!=null){
+            long length = file.length();
+            if(length>maxSize)
+                throw new XMLDocumentTooLargeException(maxSize);
+            if(length>=MAPPING_THRESHOLD)
+                return map(file,pool);
+        }
+
+        URLConnection connection = url.openConnection();
+        if(connection.getContentLengthLong()>maxSize)
+            throw new XMLDocumentTooLargeException(maxSize);
+
+        try(InputStream input = connection.getInputStream()){
+            return read(input,pool,maxSize);
+        }
+
+    }
+
+    static XMLSource read(InputStream input, BufferPool pool, long maxSize) throws IOException {
+
+        byte[] buffer = pool.acquire(BufferPool.MIN_BUFFER_SIZE);
+        int length = 0;
+        try {
+
+            int count;
+            while ((count = input.read(buffer, length, buffer.length - length)) != -1) {
+                length += count;
+                if (length > maxSize)
+                    throw new XMLDocumentTooLargeException(maxSize);
+                if (length == buffer.length)
+                    buffer = pool.grow(buffer, length);
+            }
+
+        }catch (IOException | RuntimeException | Error ex){
+            pool.release(buffer);
+            throw ex;
+        }
+
+        pool.recordBytesRead(length);
+        return new XMLSource(buffer,length,pool);
+
+    }
+
+    private static XMLSource map(File file, BufferPool pool) throws IOException {
+
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file,"r");
+            FileChannel channel = randomAccessFile.getChannel()){
+            //The mapping remains valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+            pool.recordBytesRead(mapped.limit());
+            return new XMLSource(mapped);
+        }
+
+    }
+
+    /**
+     * Gets the file of a <code>file:</code> URL. URLs that don't convert to a URI, such as the ones made by
+     * {@link File#toURL()} out of paths with spaces, are left to their {@link URLConnection}.
+     * @return the file, or null if the URL is not the URL of an existing file or doesn't convert to a URI.
+     */
+    static File file(URL url){
+        if(!url.getProtocol().equals("file"))
+            return null;
+        try {
+            File file = new File(url.toURI());
+            return file.isFile() ? file : null;
+        }catch (URISyntaxException | IllegalArgumentException ex){
+            return null;
+        }
+    }
+
+    /**
+     * Opens a new stream over the document bytes. Streams opened by the same source are independent.
+     * @return a new {@link InputStream} positioned at the beginning of the document.
+     */
+    InputStream openStream(){
+
+        return new ByteBufferInputStream(buffer.duplicate());
+
+    }
+
+    /**
+     * Moves the document bytes out of the pooled buffer or the file mapping, into a heap buffer owned by this
+     * source, and gives the pooled buffer back. A retained mapping would pin the file and fault if the file is
+     * truncated afterwards. Must be invoked before the source is retained beyond the loading of the document.
+     * @return the current {@link XMLSource} instance.
+     */
+    XMLSource detach(){
+
+        if(buffer instanceof MappedByteBuffer){
+            byte[] owned = new byte[buffer.limit()];
+            buffer.duplicate().get(owned);
+            buffer = ByteBuffer.wrap(owned);
+            return this;
+        }
+        if(pooledBuffer==null)
+            return this;
+        byte[] owned = Arrays.copyOf(pooledBuffer,buffer.limit());
+        release();
+        buffer = ByteBuffer.wrap(owned);
+        return this;
+
+    }
+
+    /**
+     * Gives the pooled buffer back. The source must not be used afterwards.
+     */
+    void release(){
+
+        if(pooledBuffer==null)
+            return;
+        pool.release(pooledBuffer);
+        pooledBuffer = null;
+        buffer = null;
+
+    }
+
+    int size(){
+
+        return buffer.limit();
+
+    }
+
+}
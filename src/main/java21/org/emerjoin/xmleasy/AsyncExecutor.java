@@ -0,0 +1,27 @@
+package org.emerjoin.xmleasy;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Default {@link Executor} of the asynchronous loading and validation methods, on Java 21 and later. Each task runs on
+ * its own virtual thread, which is unmounted from its carrier thread while it waits for I/O, so thousands of documents
+ * can be fetched concurrently on a few platform threads.
+ */
+final class AsyncExecutor {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("xmleasy-async-",1).factory());
+
+    private AsyncExecutor(){
+
+    }
+
+    static Executor get(){
+
+        return EXECUTOR;
+
+    }
+
+}
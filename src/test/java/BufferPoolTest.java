@@ -0,0 +1,79 @@
+import org.emerjoin.xmleasy.BufferPool;
+import org.emerjoin.xmleasy.XMLDocumentTooLargeException;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    private static byte[] document(int cars){
+
+        StringBuilder builder = new StringBuilder("<cars>");
+        for(int i=0;i<cars;i++)
+            builder.append("<car color=\"red\"><brand>Toyota</brand><model>Supra</model></car>");
+        builder.append("</cars>");
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+
+    }
+
+    /**
+     * Mimics network streams: reports nothing available and returns few bytes per read.
+     */
+    private static InputStream trickle(byte[] bytes){
+
+        return new ByteArrayInputStream(bytes){
+
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+
+        };
+
+    }
+
+    @Test
+    public void streams_without_available_bytes_must_load_fully() throws Exception {
+
+        XMLEasy xml = new XMLEasy(trickle(document(5000)));
+        assertEquals(5000,xml.listChildren("car").size());
+
+    }
+
+    @Test(expected = XMLDocumentTooLargeException.class)
+    public void documents_over_the_maximum_size_must_fail() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().maxDocumentSize(1024).build();
+        parser.parse(trickle(document(5000)));
+
+    }
+
+    @Test
+    public void buffers_must_be_reused() throws Exception {
+
+        BufferPool pool = new BufferPool(BufferPool.DEFAULT_MAX_RETAINED_BYTES);
+        XMLEasyParser parser = XMLEasyParser.builder().bufferPool(pool).retainSource(false).build();
+        byte[] document = document(1000);
+        for(int i=0;i<10;i++)
+            parser.parse(new ByteArrayInputStream(document));
+
+        BufferPool.Statistics statistics = pool.getStatistics();
+        assertEquals(10L * document.length,statistics.getBytesRead());
+        long allocated = statistics.getAcquired()-statistics.getReused();
+        assertTrue(statistics.getReused()>allocated);
+        assertTrue(statistics.getRetainedBytes()>0);
+
+    }
+
+}
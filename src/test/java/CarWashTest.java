@@ -1,4 +1,5 @@
 import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLNumberFormatException;
 import org.junit.Test;
 import org.w3c.dom.Element;
 
@@ -93,7 +94,7 @@ public class CarWashTest {
     public void one_washer_with_24_years_old_must_be_found_using_tag_names() throws Exception{
 
         XMLEasy xml = getInstance();
-        Optional<Element> washer = xml.streamChildren("washers")
+        Optional<Element> washer = xml.child("washers").streamChildren("washer")
                 .filter((el -> easy(el).child("age").getContent().equals("24")))
                 .findFirst();
 
@@ -263,4 +264,57 @@ public class CarWashTest {
 
     }
 
+
+    @Test
+    public void child_must_not_match_grandchildren() throws Exception{
+
+        XMLEasy xml = getInstance();
+        assertFalse(xml.hasChild("car"));
+        assertEquals(0,xml.listChildren("brand").size());
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void child_must_fail_for_grandchildren() throws Exception{
+
+        getInstance().child("car");
+
+    }
+
+    @Test
+    public void descendant_must_match_grandchildren() throws Exception{
+
+        XMLEasy xml = getInstance();
+        assertEquals("Toyota",xml.freeze().descendant("brand").getContent());
+        assertEquals(3,xml.listDescendants("washer").size());
+        assertEquals(3,xml.listDescendants("first-name").size());
+
+    }
+
+    @Test
+    public void washer_ages_must_be_read_as_numbers() throws Exception{
+
+        XMLEasy washers = getInstance().child("washers");
+        int total = 0;
+        for(Element washer : washers.listChildren("washer"))
+            total += easy(washer).child("age").intContent();
+        assertEquals(66,total);
+        assertEquals(325,washers.cursor().parent().child("cars").lastChild().child("model").longContent());
+
+    }
+
+    @Test
+    public void invalid_numbers_must_report_the_element_path() throws Exception{
+
+        try {
+            getInstance().child("cars").child("car").child("model").intContent();
+            fail("Supra is not a number");
+        }catch (XMLNumberFormatException ex){
+            assertEquals("Supra",ex.getValue());
+            assertEquals("/Carwash/cars/car[1]/model",ex.getPath());
+            assertNull(ex.getAttribute());
+        }
+
+    }
+
 }
@@ -0,0 +1,73 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.junit.Test;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.emerjoin.xmleasy.Paths.urls;
+import static org.junit.Assert.*;
+
+/**
+ * Runs the {@link CarWashTest} cases against the compact document representation.
+ */
+public class CompactCarWashTest extends CarWashTest {
+
+    @Override
+    protected XMLEasy getInstance() throws Exception {
+        return XMLEasy.compact(url("test-cases/carwash/Document.xml"));
+    }
+
+    @Test
+    public void compact_document_must_match_dom_document() throws Exception {
+
+        XMLEasy dom = new XMLEasy(url("test-cases/carwash/Document.xml"));
+        XMLEasy compact = getInstance();
+        assertTrue(compact.getElement().isEqualNode(dom.getElement()));
+        assertEquals(dom.getContent(),compact.getContent());
+        assertEquals("red",compact.child("cars").child("car").attribute("color"));
+
+    }
+
+    @Test(expected = DOMException.class)
+    public void compact_document_must_be_read_only() throws Exception {
+
+        Element element = getInstance().getElement();
+        element.setAttribute("name","value");
+
+    }
+
+    @Test
+    public void compact_document_must_keep_cdata_content_and_namespace_declarations() throws Exception {
+
+        byte[] bytes = "<p:person xmlns:p=\"urn:person\" id=\"7\"><p:name><![CDATA[<Mario>]]></p:name></p:person>"
+                .getBytes(StandardCharsets.UTF_8);
+        XMLEasy xml = XMLEasy.compact(new ByteArrayInputStream(bytes));
+        assertEquals("p:person",xml.getTag());
+        assertEquals("urn:person",xml.attribute("xmlns:p"));
+        assertEquals("7",xml.attribute("id"));
+        assertEquals("<Mario>",xml.child("p:name").getContent());
+
+    }
+
+    @Test
+    public void compact_parser_must_strip_whitespace_nodes() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().stripWhitespace(true).build();
+        XMLEasy xml = parser.parseCompact(url("test-cases/carwash/Document.xml"));
+        assertEquals("cars",xml.getElement().getFirstChild().getNodeName());
+
+    }
+
+    @Test
+    public void compact_documents_must_be_validated_from_url() throws Exception {
+
+        String path = "test-cases/person/";
+        XMLEasy.compact(url(path+"document1.xml")).validate(urls(new String[]{path+"person.xsd",path+"details.xsd"}));
+
+    }
+
+}
@@ -0,0 +1,113 @@
+import org.emerjoin.xmleasy.ChildIndex;
+import org.emerjoin.xmleasy.XMLDocumentCache;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLPath;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+/**
+ * Reads one immutable document from many threads at the same time, and checks that every thread reads the values a
+ * single thread reads.
+ */
+public class ImmutableXMLEasyStressTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2000;
+    private static final XMLPath FIRST_NAMES = XMLPath.compile("washers/washer/name/first-name");
+
+    private static String read(XMLEasy xml){
+
+        List<String> firstNames = xml.select(FIRST_NAMES).stream().map(Element::getTextContent)
+                .collect(Collectors.toList());
+        int ages = xml.child("washers").streamChildren("washer")
+                .mapToInt(washer -> XMLEasy.easy(washer).child("age").intContent())
+                .sum();
+        return xml.child("cars").child("car").child("brand").getContent()+"|"
+                +xml.child("cars").lastChild("car").attribute("color")+"|"
+                +xml.descendant("client").child("name").getContent()+"|"
+                +firstNames+"|"+ages+"|"+xml.listChildren().size();
+
+    }
+
+    private static void readConcurrently(XMLEasy xml) throws Exception {
+
+        String expected = read(xml);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        Thread[] threads = new Thread[THREADS];
+        for(int i=0;i<THREADS;i++){
+            threads[i] = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for(int iteration=0;iteration<ITERATIONS;iteration++)
+                        assertEquals(expected,read(xml));
+                }catch (Throwable ex){
+                    failures.add(ex);
+                }
+            });
+            threads[i].start();
+        }
+
+        for(Thread thread: threads)
+            thread.join();
+        assertTrue(failures.toString(),failures.isEmpty());
+        assertEquals("Carwash",xml.getTag());
+
+    }
+
+    @Test
+    public void immutable_documents_must_be_read_concurrently() throws Exception {
+
+        XMLEasy xml = XMLEasy.immutable(url(XML_DOCUMENT_PATH));
+        assertTrue(xml.isImmutable());
+        readConcurrently(xml);
+
+    }
+
+    @Test
+    public void cached_immutable_documents_must_be_read_concurrently() throws Exception {
+
+        XMLEasy xml = XMLDocumentCache.builder().immutable(true).build().get(url(XML_DOCUMENT_PATH));
+        assertTrue(xml.isImmutable());
+        readConcurrently(xml);
+
+    }
+
+    @Test
+    public void navigation_must_not_move_immutable_documents() throws Exception {
+
+        XMLEasy xml = XMLEasy.immutable(url(XML_DOCUMENT_PATH));
+        XMLEasy cars = xml.child("cars");
+        assertNotSame(xml,cars);
+        assertFalse(cars.isImmutable());
+        assertEquals("Carwash",xml.getTag());
+
+    }
+
+    @Test
+    public void immutable_documents_must_be_indexed_up_front() throws Exception {
+
+        XMLEasy xml = XMLEasy.immutable(url(XML_DOCUMENT_PATH));
+        ChildIndex index = ChildIndex.of(xml.getElement().getOwnerDocument());
+        assertNotNull(index);
+        assertTrue(index.isComplete());
+        int indexed = index.getIndexedElements();
+        assertTrue(indexed>0);
+        readConcurrently(xml);
+        assertEquals(indexed,index.getIndexedElements());
+        assertEquals(0,index.getMisses());
+
+    }
+
+}
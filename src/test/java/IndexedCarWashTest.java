@@ -0,0 +1,71 @@
+import org.emerjoin.xmleasy.ChildIndex;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.emerjoin.xmleasy.XMLEasy.easy;
+import static org.junit.Assert.*;
+
+/**
+ * Runs the {@link CarWashTest} cases against a document with child indexing enabled.
+ */
+public class IndexedCarWashTest extends CarWashTest {
+
+    private static final int MAX_INDEXED_ELEMENTS = 4;
+
+    private final XMLEasyParser parser = XMLEasyParser.builder()
+            .childIndex(MAX_INDEXED_ELEMENTS).build();
+
+    @Override
+    protected XMLEasy getInstance() throws Exception {
+        return parser.parse(url("test-cases/carwash/Document.xml"));
+    }
+
+    @Test
+    public void repeated_lookups_must_hit_the_index() throws Exception {
+
+        XMLEasy xml = getInstance().freeze();
+        ChildIndex index = ChildIndex.of(xml.getElement().getOwnerDocument());
+        assertNotNull(index);
+
+        XMLEasy car = easy(xml.child("cars").child("car").getElement());
+        assertEquals("Toyota",car.freeze().child("brand").getContent());
+        assertEquals("Supra",car.child("model").getContent());
+        assertTrue(index.getHits()>=1);
+        assertTrue(index.getEstimatedBytes()>0);
+
+    }
+
+    @Test
+    public void child_element_consumers_must_use_the_index() throws Exception {
+
+        XMLEasy cars = getInstance().freeze().child("cars");
+        ChildIndex index = ChildIndex.of(cars.getElement().getOwnerDocument());
+        List<String> brands = new ArrayList<>();
+        cars.eachChildElement("car",car -> brands.add(easy(car).child("brand").getContent()));
+        long misses = index.getMisses();
+        long hits = index.getHits();
+        cars.eachChildElement("car",car -> { });
+
+        assertEquals("Toyota",brands.get(0));
+        assertEquals(misses,index.getMisses());
+        assertEquals(hits+1,index.getHits());
+
+    }
+
+    @Test
+    public void index_must_stay_within_bounds() throws Exception {
+
+        XMLEasy xml = getInstance().freeze();
+        ChildIndex index = ChildIndex.of(xml.getElement().getOwnerDocument());
+        xml.child("washers").eachChildElement(el -> easy(el).child("name").child("first-name"));
+        assertEquals(MAX_INDEXED_ELEMENTS,index.getIndexedElements());
+        assertTrue(index.getEvictions()>0);
+
+    }
+
+}
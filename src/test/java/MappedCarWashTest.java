@@ -0,0 +1,66 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the {@link CarWashTest} cases against the memory-mapped compact document representation.
+ */
+public class MappedCarWashTest extends CarWashTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    @Override
+    protected XMLEasy getInstance() throws Exception {
+        File index = File.createTempFile("carwash",".xmleasy");
+        index.deleteOnExit();
+        return XMLEasy.mapped(new File(XML_DOCUMENT_PATH),index);
+    }
+
+    @Test
+    public void index_must_be_reused_while_source_is_unchanged() throws Exception {
+
+        File index = File.createTempFile("carwash",".xmleasy");
+        index.deleteOnExit();
+        assertTrue(index.delete());
+        XMLEasy.mapped(new File(XML_DOCUMENT_PATH),index);
+        assertTrue(index.isFile());
+
+        assertTrue(index.setLastModified(0));
+
+        XMLEasy xml = XMLEasy.mapped(new File(XML_DOCUMENT_PATH),index);
+        assertEquals("Toyota",xml.child("cars").child("car").child("brand").getContent());
+        assertEquals(0,index.lastModified());
+
+    }
+
+    @Test
+    public void index_must_be_rebuilt_when_source_changes() throws Exception {
+
+        File source = File.createTempFile("people",".xml");
+        source.deleteOnExit();
+        File index = new File(source.getPath()+".xmleasy");
+        index.deleteOnExit();
+
+        write(source,"<people><person name=\"Mario\"/></people>");
+        assertEquals("Mario",XMLEasy.mapped(source).child("person").attribute("name"));
+        write(source,"<people><person name=\"Junior\"/></people>");
+        assertEquals("Junior",XMLEasy.mapped(source).child("person").attribute("name"));
+
+    }
+
+    private static void write(File file, String content) throws Exception {
+
+        try(Writer writer = new OutputStreamWriter(new FileOutputStream(file),StandardCharsets.UTF_8)){
+            writer.write(content);
+        }
+
+    }
+
+}
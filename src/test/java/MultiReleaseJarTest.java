@@ -0,0 +1,54 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+/**
+ * Runs against the packaged multi-release JAR, on Java 21: the default executor must be the versioned one.
+ */
+public class MultiReleaseJarTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    @Test
+    public void documents_must_be_loaded_on_virtual_threads() throws Exception {
+
+        URL document = url(XML_DOCUMENT_PATH);
+        AtomicReference<Thread> loader = new AtomicReference<>();
+        //The thread is recorded while the document is fetched, inside the loading task
+        URL recorded = new URL(null,"recorded:carwash",new URLStreamHandler() {
+
+            @Override
+            protected URLConnection openConnection(URL url) throws IOException {
+                return new URLConnection(url) {
+
+                    @Override
+                    public void connect() { }
+
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        loader.set(Thread.currentThread());
+                        return document.openStream();
+                    }
+
+                };
+            }
+
+        });
+
+        assertEquals("Toyota",XMLEasy.loadAsync(recorded).get().child("cars").child("car").child("brand").getContent());
+        assertTrue(loader.get().getName(),loader.get().getName().startsWith("xmleasy-async-"));
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(loader.get()));
+
+    }
+
+}
@@ -0,0 +1,145 @@
+import org.emerjoin.xmleasy.XMLCursor;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLNumberFormatException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class NumericValuesTest {
+
+    private static final String DOCUMENT = "<readings><reading id='7' count='-9223372036854775808' value='-12.5'"
+            + " max='2147483647' min='-2147483648' big='2147483648' signed='+15' padded=' 42 '>\n  301\n</reading>"
+            + "<reading id='x'>3.5e2</reading></readings>";
+
+    private static XMLEasy dom(){
+        return new XMLEasy(new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static XMLEasy compact(){
+        return XMLEasy.compact(new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void attributes_must_be_parsed() throws Exception {
+
+        for(XMLEasy xml : new XMLEasy[]{dom(),compact()}){
+            XMLEasy reading = xml.firstChild("reading");
+            assertEquals(7,reading.intAttribute("id"));
+            assertEquals(Long.MIN_VALUE,reading.longAttribute("count"));
+            assertEquals(-12.5,reading.doubleAttribute("value"),0);
+            assertEquals(Integer.MAX_VALUE,reading.intAttribute("max"));
+            assertEquals(Integer.MIN_VALUE,reading.intAttribute("min"));
+            assertEquals(2147483648L,reading.longAttribute("big"));
+            assertEquals(15,reading.intAttribute("signed"));
+            assertEquals(42,reading.intAttribute("padded"));
+        }
+
+    }
+
+    @Test
+    public void missing_attributes_must_use_defaults() throws Exception {
+
+        for(XMLEasy xml : new XMLEasy[]{dom(),compact()}){
+            XMLEasy reading = xml.firstChild("reading");
+            assertEquals(-1,reading.intAttribute("missing",-1));
+            assertEquals(7,reading.intAttribute("id",-1));
+            assertEquals(2.5,reading.doubleAttribute("missing",2.5),0);
+            assertFalse(reading.optionalLongAttribute("missing").isPresent());
+            assertEquals(7,reading.optionalIntAttribute("id").getAsInt());
+        }
+
+    }
+
+    @Test
+    public void contents_must_be_parsed() throws Exception {
+
+        for(XMLEasy xml : new XMLEasy[]{dom(),compact()}){
+            xml.freeze();
+            assertEquals(301,xml.firstChild("reading").intContent());
+            assertEquals(350.0,xml.lastChild("reading").doubleContent(),0);
+            XMLCursor cursor = xml.cursor().lastChild("reading");
+            assertEquals(350.0,cursor.doubleContent(),0);
+            assertEquals(1,cursor.intAttribute("missing",1));
+        }
+
+    }
+
+    @Test
+    public void overflows_must_be_rejected() throws Exception {
+
+        for(XMLEasy xml : new XMLEasy[]{dom(),compact()}){
+            try {
+                xml.firstChild("reading").intAttribute("big");
+                fail("2147483648 is not an int");
+            }catch (XMLNumberFormatException ex){
+                assertEquals("big",ex.getAttribute());
+                assertEquals("2147483648",ex.getValue());
+                assertEquals("/readings/reading[1]",ex.getPath());
+            }
+        }
+
+    }
+
+    @Test(expected = XMLNumberFormatException.class)
+    public void invalid_attributes_must_be_rejected() throws Exception {
+
+        dom().lastChild("reading").intAttribute("id");
+
+    }
+
+    @Test(expected = XMLNumberFormatException.class)
+    public void signs_without_digits_must_be_rejected() throws Exception {
+
+        new XMLEasy(new ByteArrayInputStream("<a n='-'/>".getBytes(StandardCharsets.UTF_8))).longAttribute("n");
+
+    }
+
+    @Test
+    public void xml_schema_doubles_must_be_parsed() throws Exception {
+
+        XMLEasy xml = new XMLEasy(new ByteArrayInputStream(("<a inf='INF' negative='-INF' nan='NaN' point='1.'"
+                + " fraction='.5E-3' padded=' 2e1 '/>").getBytes(StandardCharsets.UTF_8)));
+        assertEquals(Double.POSITIVE_INFINITY,xml.doubleAttribute("inf"),0);
+        assertEquals(Double.NEGATIVE_INFINITY,xml.doubleAttribute("negative"),0);
+        assertTrue(Double.isNaN(xml.doubleAttribute("nan")));
+        assertEquals(1.0,xml.doubleAttribute("point"),0);
+        assertEquals(0.0005,xml.doubleAttribute("fraction"),0);
+        assertEquals(20.0,xml.doubleAttribute("padded"),0);
+
+    }
+
+    @Test
+    public void java_only_doubles_must_be_rejected() throws Exception {
+
+        for(String value: new String[]{"1d","2f","3D","4F","0x1p3","Infinity","1e","-",".","1.5e+"}){
+            byte[] bytes = ("<a n='"+value+"'>"+value+"</a>").getBytes(StandardCharsets.UTF_8);
+            for(XMLEasy xml : new XMLEasy[]{new XMLEasy(new ByteArrayInputStream(bytes)),
+                    XMLEasy.compact(new ByteArrayInputStream(bytes))}){
+                try {
+                    xml.doubleAttribute("n");
+                    fail(value+" is not an xs:double");
+                }catch (XMLNumberFormatException ex){
+                    assertEquals(value,ex.getValue());
+                }
+                try {
+                    xml.doubleContent();
+                    fail(value+" is not an xs:double");
+                }catch (XMLNumberFormatException ex){
+                    assertEquals(value,ex.getValue());
+                }
+            }
+        }
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void missing_required_attributes_must_be_rejected() throws Exception {
+
+        compact().firstChild("reading").intAttribute("missing");
+
+    }
+
+}
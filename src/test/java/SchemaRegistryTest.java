@@ -0,0 +1,136 @@
+import org.emerjoin.xmleasy.SchemaRegistry;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.emerjoin.xmleasy.Paths.*;
+import static org.junit.Assert.*;
+
+public class SchemaRegistryTest {
+
+    private static final String BASE_PATH = "test-cases"+File.separator+"person"+File.separator;
+    private static final String[] XML_SCHEMAS = {BASE_PATH +"person.xsd", BASE_PATH +"details.xsd"};
+
+
+    @Test
+    public void same_schemas_must_be_compiled_once() throws Exception {
+
+        SchemaRegistry registry = new SchemaRegistry(4);
+        Schema first = registry.getSchema(urls(XML_SCHEMAS));
+        Schema second = registry.getSchema(urls(XML_SCHEMAS));
+        assertSame(first,second);
+        assertEquals(1,registry.size());
+
+    }
+
+    @Test
+    public void invalidated_schemas_must_be_recompiled() throws Exception {
+
+        SchemaRegistry registry = new SchemaRegistry(4);
+        Schema first = registry.getSchema(urls(XML_SCHEMAS));
+        registry.invalidate(url(XML_SCHEMAS[1]));
+        assertEquals(0,registry.size());
+        assertNotSame(first,registry.getSchema(urls(XML_SCHEMAS)));
+
+    }
+
+    @Test
+    public void least_recently_used_schema_must_be_evicted() throws Exception {
+
+        SchemaRegistry registry = new SchemaRegistry(1);
+        Schema first = registry.getSchema(urls(XML_SCHEMAS));
+        registry.getSchema(new URL[]{url(XML_SCHEMAS[1])});
+        assertEquals(1,registry.size());
+        assertNotSame(first,registry.getSchema(urls(XML_SCHEMAS)));
+
+    }
+
+    @Test
+    public void validators_must_be_shared_by_threads() throws Exception {
+
+        SchemaRegistry registry = new SchemaRegistry(4);
+        URL[] schemas = urls(XML_SCHEMAS);
+        assertNotSame(registry.getValidator(schemas),registry.getValidator(schemas));
+
+        List<Thread> threads = new ArrayList<>();
+        AtomicInteger valid = new AtomicInteger();
+        AtomicInteger invalid = new AtomicInteger();
+        for(int i=0;i<8;i++){
+            Thread thread = new Thread(() -> {
+                for(int j=0;j<4;j++){
+                    try {
+                        registry.validate(schemas,new StreamSource(new File(BASE_PATH+"document1.xml")));
+                        valid.incrementAndGet();
+                        registry.validate(schemas,new StreamSource(new File(BASE_PATH+"document2.xml")));
+                    }catch (SAXException ex){
+                        invalid.incrementAndGet();
+                    }catch (IOException ex){
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for(Thread thread: threads)
+            thread.join();
+
+        assertEquals(32,valid.get());
+        assertEquals(32,invalid.get());
+
+    }
+
+    @Test
+    public void file_urls_with_unescaped_characters_must_be_checked() throws Exception {
+
+        File directory = Files.createTempDirectory("xmleasy schemas").toFile();
+        File schema = new File(directory,"details.xsd");
+        try {
+            Files.copy(new File(XML_SCHEMAS[1]).toPath(),schema.toPath());
+            URL[] schemas = {new URL("file","",schema.getAbsolutePath())};
+            SchemaRegistry registry = new SchemaRegistry(4,0,TimeUnit.SECONDS);
+            assertSame(registry.getSchema(schemas),registry.getSchema(schemas));
+        }finally {
+            schema.delete();
+            directory.delete();
+        }
+
+    }
+
+    @Test
+    public void schemas_must_only_be_checked_for_modifications_once_per_interval() throws Exception {
+
+        File schema = File.createTempFile("details",".xsd");
+        try {
+            Files.copy(new File(XML_SCHEMAS[1]).toPath(),schema.toPath(),StandardCopyOption.REPLACE_EXISTING);
+            URL[] schemas = {schema.toURI().toURL()};
+            SchemaRegistry trusting = new SchemaRegistry(4,1,TimeUnit.HOURS);
+            SchemaRegistry checking = new SchemaRegistry(4,0,TimeUnit.SECONDS);
+            Schema trusted = trusting.getSchema(schemas);
+            Schema checked = checking.getSchema(schemas);
+
+            Files.copy(new File(XML_SCHEMAS[1]).toPath(),schema.toPath(),StandardCopyOption.REPLACE_EXISTING);
+            assertTrue(schema.setLastModified(schema.lastModified()+60000));
+            assertSame(trusted,trusting.getSchema(schemas));
+            assertNotSame(checked,checking.getSchema(schemas));
+            trusting.invalidate(schemas);
+            assertNotSame(trusted,trusting.getSchema(schemas));
+        }finally {
+            assertTrue(schema.delete());
+        }
+
+    }
+
+}
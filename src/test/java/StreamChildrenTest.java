@@ -0,0 +1,76 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class StreamChildrenTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+
+    @Test
+    public void child_elements_must_be_visited_lazily() throws Exception {
+
+        XMLEasy cars = new XMLEasy(url(XML_DOCUMENT_PATH)).child("cars");
+        Stream<Element> stream = cars.streamChildren("car");
+        Element car = cars.getElement().getOwnerDocument().createElement("car");
+        cars.getElement().appendChild(car);
+        assertEquals(3,stream.count());
+
+    }
+
+    @Test
+    public void unindexed_streams_must_not_be_sized() throws Exception {
+
+        Spliterator<Element> spliterator = new XMLEasy(url(XML_DOCUMENT_PATH)).streamChildren().spliterator();
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+
+    }
+
+    @Test
+    public void indexed_streams_must_be_sized() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().childIndex(16).build();
+        Spliterator<Element> spliterator = parser.parse(url(XML_DOCUMENT_PATH)).child("washers")
+                .streamChildren("washer").spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(3,spliterator.getExactSizeIfKnown());
+
+    }
+
+    @Test
+    public void parallel_streams_must_match_sequential_streams() throws Exception {
+
+        StringBuilder builder = new StringBuilder("<cars>");
+        for(int i=0;i<20000;i++)
+            builder.append("<car id=\"").append(i).append("\"><brand>Brand ").append(i).append("</brand></car>");
+        builder.append("</cars>");
+        XMLEasy xml = new XMLEasy(new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.UTF_8)));
+
+        Stream<Element> stream = xml.parallelStreamChildren("car");
+        assertTrue(stream.isParallel());
+        assertTrue(stream.spliterator().hasCharacteristics(Spliterator.SUBSIZED));
+
+        List<String> parallel = xml.parallelStreamChildren("car")
+                .map(el -> XMLEasy.easy(el).attribute("id")+":"+XMLEasy.easy(el).child("brand").getContent())
+                .collect(Collectors.toList());
+        List<String> sequential = xml.streamChildren("car")
+                .map(el -> XMLEasy.easy(el).attribute("id")+":"+XMLEasy.easy(el).child("brand").getContent())
+                .collect(Collectors.toList());
+        assertEquals(sequential,parallel);
+
+    }
+
+}
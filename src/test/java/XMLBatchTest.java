@@ -0,0 +1,124 @@
+import org.emerjoin.xmleasy.InvalidXMLDocumentException;
+import org.emerjoin.xmleasy.XMLBatch;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.emerjoin.xmleasy.Paths.*;
+import static org.junit.Assert.*;
+
+public class XMLBatchTest {
+
+    private static final String BASE_PATH = "test-cases"+File.separator+"person"+File.separator;
+    private static final String[] XML_SCHEMAS = {BASE_PATH +"person.xsd", BASE_PATH +"details.xsd"};
+
+    private List<URL> documents(int count) throws Exception {
+
+        List<URL> urls = new ArrayList<>();
+        for(int i=0;i<count;i++)
+            urls.add(url(BASE_PATH+(i%2==0 ? "document1.xml" : "document2.xml")));
+        return urls;
+
+    }
+
+    @Test
+    public void every_document_must_be_validated() throws Exception {
+
+        List<XMLBatch.Result> results = new ArrayList<>();
+        XMLEasy.batch(documents(40)).validate(urls(XML_SCHEMAS)).maxInFlight(4).forEach(results::add);
+
+        assertEquals(40,results.size());
+        long valid = results.stream().filter(XMLBatch.Result::isSuccess).count();
+        assertEquals(20,valid);
+        for(XMLBatch.Result result: results){
+            if(result.isSuccess())
+                assertEquals("p:Person",result.getDocument().getTag());
+            else
+                assertTrue(result.getFailure() instanceof InvalidXMLDocumentException);
+        }
+
+    }
+
+    @Test
+    public void documents_must_be_loaded_on_the_given_executor() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<String> tags = new ArrayList<>();
+            XMLEasy.batch(documents(6)).executor(executor).maxInFlight(1)
+                    .forEach(result -> tags.add(result.getDocument().getTag()));
+            assertEquals(6,tags.size());
+        }finally {
+            executor.shutdown();
+        }
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failed_documents_must_not_be_returned() throws Exception {
+
+        XMLEasy.batch(documents(2)).validate(urls(XML_SCHEMAS)).forEach(result -> result.getDocument());
+
+    }
+
+    @Test
+    public void errors_must_fail_the_document_instead_of_blocking_the_batch() throws Exception {
+
+        URL document = url(BASE_PATH+"document1.xml");
+        AtomicInteger opened = new AtomicInteger();
+        //Read once to parse it, the source is not retained: the validation fails with an Error when it reads it again
+        URL failing = new URL(null,"failing:document1",new URLStreamHandler() {
+
+            @Override
+            protected URLConnection openConnection(URL url) {
+                return new URLConnection(url) {
+
+                    @Override
+                    public void connect() { }
+
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        if(opened.incrementAndGet()>1)
+                            throw new AssertionError("Unreadable");
+                        return document.openStream();
+                    }
+
+                };
+            }
+
+        });
+
+        List<XMLBatch.Result> results = new ArrayList<>();
+        XMLEasy.batch(Collections.singletonList(failing)).parser(XMLEasyParser.builder().retainSource(false).build())
+                .validate(urls(XML_SCHEMAS)).forEach(results::add);
+        assertEquals(1,results.size());
+        assertFalse(results.get(0).isSuccess());
+        assertTrue(results.get(0).getFailure().getCause() instanceof AssertionError);
+
+    }
+
+    @Test
+    public void rejected_documents_must_fail() throws Exception {
+
+        List<XMLBatch.Result> results = new ArrayList<>();
+        XMLEasy.batch(documents(3)).executor(task -> { throw new RejectedExecutionException(); }).forEach(results::add);
+        assertEquals(3,results.size());
+        assertTrue(results.stream().noneMatch(XMLBatch.Result::isSuccess));
+
+    }
+
+}
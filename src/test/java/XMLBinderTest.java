@@ -0,0 +1,136 @@
+import org.emerjoin.xmleasy.XMLBinder;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyPath;
+import org.emerjoin.xmleasy.XMLNumberFormatException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class XMLBinderTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    static class Car {
+
+        @XMLEasyPath("brand")
+        String brand;
+
+        @XMLEasyPath("model")
+        String model;
+
+        @XMLEasyPath("@color")
+        String color;
+
+        @XMLEasyPath("@wash-date")
+        String washDate;
+
+    }
+
+    static class Washer {
+
+        @XMLEasyPath("name/first-name")
+        String firstName;
+
+        @XMLEasyPath("name/surname")
+        String surname;
+
+        @XMLEasyPath("age")
+        int age;
+
+        @XMLEasyPath("shift")
+        Integer shift;
+
+    }
+
+    static class Reading {
+
+        @XMLEasyPath(".")
+        double value;
+
+        @XMLEasyPath("@count")
+        long count = -1;
+
+    }
+
+    private static List<Car> cars(XMLEasy xml){
+
+        XMLBinder<Car> binder = XMLEasy.binder(Car.class);
+        return xml.child("cars").streamChildren("car").map(binder::bind).collect(Collectors.toList());
+
+    }
+
+    @Test
+    public void cars_must_be_bound() throws Exception {
+
+        List<Car> cars = cars(new XMLEasy(url(XML_DOCUMENT_PATH)));
+        assertEquals(2,cars.size());
+        assertEquals("Toyota",cars.get(0).brand);
+        assertEquals("Supra",cars.get(0).model);
+        assertEquals("red",cars.get(0).color);
+        assertEquals("12/12/2014",cars.get(0).washDate);
+        assertEquals("BMW",cars.get(1).brand);
+        assertNull(cars.get(1).washDate);
+
+    }
+
+    @Test
+    public void nested_paths_and_numbers_must_be_bound() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        Washer washer = xml.child("washers").child("washer").bind(Washer.class);
+        assertEquals("Mario",washer.firstName);
+        assertEquals("Junior",washer.surname);
+        assertEquals(24,washer.age);
+        assertNull(washer.shift);
+
+    }
+
+    @Test
+    public void compact_and_streamed_elements_must_be_bound() throws Exception {
+
+        List<Car> cars = cars(XMLEasy.compact(url(XML_DOCUMENT_PATH)));
+        assertEquals("Toyota",cars.get(0).brand);
+        assertEquals("black",cars.get(1).color);
+
+        List<Washer> washers = new ArrayList<>();
+        XMLEasy.stream(url(XML_DOCUMENT_PATH)).each("washers/washer",washer -> washers.add(washer.bind(Washer.class)));
+        assertEquals(3,washers.size());
+        assertEquals("Aurio",washers.get(2).firstName);
+        assertEquals(21,washers.get(2).age);
+
+    }
+
+    @Test
+    public void own_content_must_be_bound_and_absent_values_left_unchanged() throws Exception {
+
+        byte[] bytes = "<reading> 12.5 </reading>".getBytes(StandardCharsets.UTF_8);
+        Reading reading = new XMLEasy(new ByteArrayInputStream(bytes)).bind(Reading.class);
+        assertEquals(12.5,reading.value,0);
+        assertEquals(-1,reading.count);
+
+    }
+
+    @Test(expected = XMLNumberFormatException.class)
+    public void invalid_numbers_must_be_rejected() throws Exception {
+
+        byte[] bytes = "<reading count='many'>1</reading>".getBytes(StandardCharsets.UTF_8);
+        new XMLEasy(new ByteArrayInputStream(bytes)).bind(Reading.class);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void classes_without_binders_must_be_rejected() throws Exception {
+
+        XMLEasy.binder(String.class);
+
+    }
+
+}
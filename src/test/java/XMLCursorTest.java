@@ -0,0 +1,99 @@
+import org.emerjoin.xmleasy.XMLCursor;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class XMLCursorTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    private XMLEasy getInstance() throws Exception {
+        return new XMLEasy(url(XML_DOCUMENT_PATH));
+    }
+
+    @Test
+    public void cursor_must_navigate_without_changing_the_instance() throws Exception {
+
+        XMLEasy xml = getInstance();
+        XMLCursor cursor = xml.cursor();
+        assertSame(cursor,cursor.child("washers").firstChild("washer").child("name").child("first-name"));
+        assertEquals("Mario",cursor.getContent());
+        assertEquals("Carwash",xml.getTag());
+
+    }
+
+    @Test
+    public void cursor_must_reset_to_marked_positions() throws Exception {
+
+        XMLCursor cursor = getInstance().cursor().child("washers").lastChild().mark();
+        assertEquals("Aurio",cursor.child("name").mark().child("first-name").getContent());
+        assertEquals("Tino",cursor.reset().child("surname").getContent());
+        assertEquals("21",cursor.reset().child("age").getContent());
+        cursor.parent().parent().parent();
+        assertEquals("Carwash",cursor.getTag());
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void reset_without_mark_must_fail() throws Exception {
+
+        getInstance().cursor().reset();
+
+    }
+
+    @Test
+    public void cursor_must_be_reusable_across_elements() throws Exception {
+
+        XMLEasy cars = getInstance().child("cars");
+        XMLCursor cursor = cars.cursor();
+        List<String> brands = new ArrayList<>();
+        for(Element car: cars.listChildren("car")) {
+            cursor.moveTo(car);
+            if(cursor.attribute("wash-date",null)==null)
+                brands.add(cursor.child("brand").getContent());
+        }
+
+        assertEquals(1,brands.size());
+        assertEquals("BMW",brands.get(0));
+
+    }
+
+    @Test
+    public void try_child_must_not_move_when_missing() throws Exception {
+
+        XMLCursor cursor = getInstance().cursor();
+        assertFalse(cursor.tryChild("car"));
+        assertEquals("Carwash",cursor.getTag());
+        assertTrue(cursor.tryChild("cars"));
+        assertEquals("cars",cursor.getTag());
+
+    }
+
+    @Test
+    public void snapshot_must_be_frozen() throws Exception {
+
+        XMLEasy snapshot = getInstance().cursor().child("cars").snapshot();
+        assertEquals("Toyota",snapshot.firstChild().child("brand").getContent());
+        assertEquals("cars",snapshot.getTag());
+
+    }
+
+    @Test
+    public void snapshots_of_immutable_documents_must_be_immutable() throws Exception {
+
+        XMLEasy snapshot = XMLEasy.immutable(url(XML_DOCUMENT_PATH)).cursor().child("cars").snapshot();
+        assertTrue(snapshot.isImmutable());
+        assertEquals("Toyota",snapshot.firstChild().child("brand").getContent());
+        assertEquals("cars",snapshot.getTag());
+        assertFalse(getInstance().cursor().child("cars").snapshot().isImmutable());
+
+    }
+
+}
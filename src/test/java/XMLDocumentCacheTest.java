@@ -0,0 +1,288 @@
+import com.sun.net.httpserver.HttpServer;
+import org.emerjoin.xmleasy.XMLDocumentCache;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class XMLDocumentCacheTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private volatile String body = "<config><version>1</version></config>";
+    private volatile String tag = "\"v1\"";
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile CountDownLatch requested = new CountDownLatch(0);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void startServer() throws Exception {
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1",0),0);
+        server.createContext("/config.xml", exchange -> {
+            requests.incrementAndGet();
+            requested.countDown();
+            try {
+                release.await();
+            }catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+            }
+            String current = tag;
+            exchange.getResponseHeaders().set("ETag",current);
+            if(current.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))){
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304,-1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200,bytes.length);
+            try(OutputStream output = exchange.getResponseBody()){
+                output.write(bytes);
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+    }
+
+    @After
+    public void stopServer(){
+
+        server.stop(0);
+        serverExecutor.shutdownNow();
+
+    }
+
+    private URL configURL() throws Exception {
+
+        return new URL("http://127.0.0.1:"+server.getAddress().getPort()+"/config.xml");
+
+    }
+
+    private static File write(File file, String content) throws Exception {
+
+        try(OutputStream output = new FileOutputStream(file)){
+            output.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return file;
+
+    }
+
+    @Test
+    public void unchanged_files_must_not_be_parsed_again() throws Exception {
+
+        File file = File.createTempFile("xmleasy",".xml");
+        file.deleteOnExit();
+        write(file,"<config><version>1</version></config>");
+        file.setLastModified(1_000_000_000_000L);
+        XMLDocumentCache cache = XMLDocumentCache.builder().timeToLive(0,TimeUnit.SECONDS).build();
+
+        XMLEasy first = cache.get(url(file));
+        assertSame(first,cache.get(url(file)));
+        assertEquals(1,cache.getLoads());
+        assertEquals(1,cache.getRevalidations());
+
+        write(file,"<config><version>22</version></config>");
+        file.setLastModified(1_000_000_060_000L);
+        XMLEasy second = cache.get(url(file));
+        assertNotSame(first,second);
+        assertEquals("22",second.child("version").getContent());
+        assertEquals("1",first.child("version").getContent());
+
+    }
+
+    @Test
+    public void file_urls_with_unescaped_characters_must_be_revalidated() throws Exception {
+
+        File directory = Files.createTempDirectory("xmleasy documents").toFile();
+        File file = write(new File(directory,"config.xml"),"<config><version>1</version></config>");
+        try {
+            URL url = new URL("file","",file.getAbsolutePath());
+            XMLDocumentCache cache = XMLDocumentCache.builder().timeToLive(0,TimeUnit.SECONDS).build();
+            XMLEasy first = cache.get(url);
+            assertSame(first,cache.get(url));
+            assertEquals(1,cache.getLoads());
+            assertEquals(1,cache.getRevalidations());
+        }finally {
+            file.delete();
+            directory.delete();
+        }
+
+    }
+
+    @Test
+    public void documents_must_not_be_revalidated_before_their_time_to_live_elapses() throws Exception {
+
+        XMLDocumentCache cache = XMLDocumentCache.builder().timeToLive(1,TimeUnit.HOURS).build();
+        XMLEasy first = cache.get(configURL());
+        body = "<config><version>2</version></config>";
+        tag = "\"v2\"";
+        assertSame(first,cache.get(configURL()));
+        assertEquals(1,requests.get());
+        assertEquals(1,cache.getHits());
+
+    }
+
+    @Test
+    public void documents_must_be_served_without_revalidation_by_default() throws Exception {
+
+        XMLDocumentCache cache = XMLDocumentCache.builder().build();
+        XMLEasy first = cache.get(configURL());
+        assertSame(first,cache.get(configURL()));
+        assertEquals(1,requests.get());
+        assertEquals(1,cache.getHits());
+
+    }
+
+    @Test
+    public void http_documents_must_be_revalidated_with_conditional_requests() throws Exception {
+
+        XMLDocumentCache cache = XMLDocumentCache.builder().timeToLive(0,TimeUnit.SECONDS).build();
+        XMLEasy first = cache.get(configURL());
+        assertSame(first,cache.get(configURL()));
+        assertEquals(1,notModified.get());
+        assertEquals(1,cache.getLoads());
+
+        body = "<config><version>2</version></config>";
+        tag = "\"v2\"";
+        XMLEasy second = cache.get(configURL());
+        assertEquals("2",second.child("version").getContent());
+        assertEquals(2,cache.getLoads());
+        assertEquals(3,requests.get());
+
+    }
+
+    @Test
+    public void concurrent_misses_must_load_the_document_once() throws Exception {
+
+        int rounds = 20;
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for(int round=0;round<rounds;round++){
+                release = new CountDownLatch(1);
+                requested = new CountDownLatch(1);
+                CountDownLatch ready = new CountDownLatch(threads);
+                XMLDocumentCache cache = XMLDocumentCache.builder().timeToLive(1,TimeUnit.HOURS).build();
+                List<Future<XMLEasy>> futures = new ArrayList<>();
+                for(int i=0;i<threads;i++)
+                    futures.add(executor.submit(() -> {
+                        ready.countDown();
+                        ready.await();
+                        return cache.get(configURL());
+                    }));
+                //Every lookup is started, and the first load is blocked in the server until released
+                ready.await();
+                requested.await();
+                release.countDown();
+                XMLEasy document = futures.get(0).get();
+                for(Future<XMLEasy> future: futures)
+                    assertSame(document,future.get());
+                assertEquals(1,cache.getLoads());
+            }
+        }finally {
+            executor.shutdown();
+        }
+
+        assertEquals(rounds,requests.get());
+
+    }
+
+    @Test
+    public void errors_must_be_rethrown_to_concurrent_misses() throws Exception {
+
+        release = new CountDownLatch(1);
+        requested = new CountDownLatch(1);
+        XMLDocumentCache cache = XMLDocumentCache.builder().weigher(document -> {
+            throw new AssertionError("Weigher failure");
+        }).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<XMLEasy>> futures = new ArrayList<>();
+            for(int i=0;i<4;i++)
+                futures.add(executor.submit(() -> cache.get(configURL())));
+            requested.await();
+            release.countDown();
+            for(Future<XMLEasy> future: futures){
+                try {
+                    future.get(10,TimeUnit.SECONDS);
+                    fail("Failed load must not be returned");
+                }catch (ExecutionException ex){
+                    assertTrue(ex.getCause() instanceof AssertionError);
+                }
+            }
+        }finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0,cache.size());
+
+    }
+
+    @Test
+    public void least_recently_used_documents_must_be_evicted() throws Exception {
+
+        List<URL> urls = new ArrayList<>();
+        for(int i=0;i<3;i++){
+            File file = File.createTempFile("xmleasy",".xml");
+            file.deleteOnExit();
+            urls.add(url(write(file,"<config><version>"+i+"</version></config>")));
+        }
+
+        XMLDocumentCache cache = XMLDocumentCache.builder().maxEntries(2).build();
+        for(URL url: urls)
+            cache.get(url);
+        assertEquals(2,cache.size());
+        assertEquals(1,cache.getEvictions());
+
+        long size = new File(urls.get(0).toURI()).length();
+        XMLDocumentCache weighted = XMLDocumentCache.builder().maxWeight(size*2).build();
+        for(URL url: urls)
+            weighted.get(url);
+        assertEquals(2,weighted.size());
+        assertEquals(size*2,weighted.getWeight());
+
+    }
+
+    @Test
+    public void failed_loads_must_not_be_cached() throws Exception {
+
+        XMLDocumentCache cache = XMLDocumentCache.builder().build();
+        URL missing = new URL("http://127.0.0.1:"+server.getAddress().getPort()+"/missing.xml");
+        for(int i=0;i<2;i++){
+            try {
+                cache.get(missing);
+                fail("Missing document must not be loaded");
+            }catch (XMLException ex){
+                assertEquals(0,cache.size());
+            }
+        }
+
+    }
+
+}
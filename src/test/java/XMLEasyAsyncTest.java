@@ -0,0 +1,84 @@
+import org.emerjoin.xmleasy.InvalidXMLDocumentException;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLException;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.emerjoin.xmleasy.Paths.*;
+import static org.junit.Assert.*;
+
+public class XMLEasyAsyncTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+    private static final String PERSON_PATH = "test-cases"+File.separator+"person"+File.separator;
+    private static final String[] XML_SCHEMAS = {PERSON_PATH +"person.xsd", PERSON_PATH +"details.xsd"};
+
+
+    @Test
+    public void documents_must_be_loaded_asynchronously() throws Exception {
+
+        List<CompletableFuture<XMLEasy>> futures = new ArrayList<>();
+        for(int i=0;i<100;i++)
+            futures.add(XMLEasy.loadAsync(url(XML_DOCUMENT_PATH)));
+        for(CompletableFuture<XMLEasy> future: futures)
+            assertEquals("Toyota",future.get().child("cars").child("car").child("brand").getContent());
+
+    }
+
+    @Test
+    public void documents_must_be_loaded_on_the_given_executor() throws Exception {
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable,"loader"));
+        List<String> threads = new CopyOnWriteArrayList<>();
+        //The thread is recorded by the task itself: a dependent stage may run on the calling thread
+        Executor recording = task -> executor.execute(() -> {
+            threads.add(Thread.currentThread().getName());
+            task.run();
+        });
+        try {
+            XMLEasy.loadAsync(url(XML_DOCUMENT_PATH),recording).get();
+            assertEquals(Collections.singletonList("loader"),threads);
+        }finally {
+            executor.shutdown();
+        }
+
+    }
+
+    @Test
+    public void documents_must_be_validated_asynchronously() throws Exception {
+
+        URL[] schemas = urls(XML_SCHEMAS);
+        XMLEasy.loadAsync(url(PERSON_PATH+"document1.xml")).thenCompose(xml -> xml.validateAsync(schemas)).get();
+        try {
+            XMLEasy.loadAsync(url(PERSON_PATH+"document2.xml")).thenCompose(xml -> xml.validateAsync(schemas)).get();
+            fail("Invalid document must not be validated");
+        }catch (ExecutionException ex){
+            assertTrue(ex.getCause() instanceof InvalidXMLDocumentException);
+        }
+
+    }
+
+    @Test
+    public void load_failures_must_complete_exceptionally() throws Exception {
+
+        try {
+            XMLEasy.loadAsync(new File("test-cases"+File.separator+"missing.xml").toURI().toURL()).get();
+            fail("Missing document must not be loaded");
+        }catch (ExecutionException ex){
+            assertTrue(ex.getCause() instanceof XMLException);
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+import org.emerjoin.xmleasy.XMLDocumentTooLargeException;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyFeeder;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.emerjoin.xmleasy.XMLException;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class XMLEasyFeederTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    private static byte[] document() throws Exception {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(InputStream input = url(XML_DOCUMENT_PATH).openStream()){
+            byte[] buffer = new byte[4096];
+            int read;
+            while((read = input.read(buffer))>0)
+                output.write(buffer,0,read);
+        }
+
+        return output.toByteArray();
+
+    }
+
+    private static List<String> streamed(String path) throws Exception {
+
+        List<String> contents = new ArrayList<>();
+        XMLEasy.stream(url(XML_DOCUMENT_PATH)).each(path, element -> contents.add(element.getContent()));
+        return contents;
+
+    }
+
+    private static List<String> fed(String path, byte[] bytes, int chunkSize) {
+
+        List<String> contents = new ArrayList<>();
+        XMLEasyFeeder feeder = XMLEasy.feeder(path, element -> contents.add(element.getContent()));
+        for(int offset=0;offset<bytes.length;offset+=chunkSize)
+            feeder.feed(bytes,offset,Math.min(chunkSize,bytes.length-offset));
+        feeder.end();
+        return contents;
+
+    }
+
+    @Test
+    public void fed_elements_must_match_streamed_elements_whatever_the_chunk_size() throws Exception {
+
+        byte[] bytes = document();
+        String[] paths = {"cars/car","/Carwash/cars/car[@color='black']/brand","//name","washers/washer[2]",
+                "washers/washer[age=24]","*/*[1]"};
+        for(String path: paths){
+            List<String> expected = streamed(path);
+            assertFalse(path,expected.isEmpty());
+            for(int chunkSize: new int[]{1,7,64,bytes.length})
+                assertEquals(path+" in chunks of "+chunkSize,expected,fed(path,bytes,chunkSize));
+        }
+
+    }
+
+    @Test
+    public void records_must_be_supplied_as_soon_as_they_close() throws Exception {
+
+        List<String> brands = new ArrayList<>();
+        XMLEasyFeeder feeder = XMLEasy.feeder("cars/car", car -> brands.add(car.child("brand").getContent()));
+        feeder.feed(ByteBuffer.wrap("<Carwash><cars><car color='red'><brand>Toyota</brand></car><car><bra"
+                .getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1,brands.size());
+        feeder.feed(ByteBuffer.wrap("nd>BMW</brand></car></cars></Carwash>".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(2,brands.size());
+        feeder.end();
+        assertTrue(feeder.isEnded());
+
+    }
+
+    @Test
+    public void characters_split_across_chunks_must_be_decoded() throws Exception {
+
+        byte[] bytes = "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?><a><b title=\"caf&#233; &amp; cr\u00E8me\">\u00E9t\u00E9 &lt;3 <![CDATA[<ok>]]></b></a>"
+                .getBytes(StandardCharsets.UTF_8);
+        List<String> titles = new ArrayList<>();
+        List<String> contents = new ArrayList<>();
+        XMLEasyFeeder feeder = XMLEasy.feeder("b", b -> {
+            titles.add(b.attribute("title"));
+            contents.add(b.getContent());
+        });
+        for(byte value: bytes)
+            feeder.feed(new byte[]{value},0,1);
+        feeder.end();
+
+        assertEquals("caf\u00E9 & cr\u00E8me",titles.get(0));
+        assertEquals("\u00E9t\u00E9 <3 <ok>",contents.get(0));
+
+    }
+
+    @Test(expected = XMLException.class)
+    public void mismatched_end_tags_must_be_rejected() throws Exception {
+
+        XMLEasy.feeder("b", b -> {}).feed(ByteBuffer.wrap("<a><b></a>".getBytes(StandardCharsets.UTF_8)));
+
+    }
+
+    @Test
+    public void incomplete_documents_must_be_rejected_on_end() throws Exception {
+
+        XMLEasyFeeder feeder = XMLEasy.feeder("b", b -> {});
+        feeder.feed(ByteBuffer.wrap("<a><b/>".getBytes(StandardCharsets.UTF_8)));
+        try {
+            feeder.end();
+            fail("Incomplete document must be rejected");
+        }catch (XMLException ex){
+            assertTrue(feeder.isEnded());
+        }
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void ended_feeders_must_not_accept_chunks() throws Exception {
+
+        XMLEasyFeeder feeder = XMLEasy.feeder("b", b -> {});
+        feeder.feed(ByteBuffer.wrap("<a/>".getBytes(StandardCharsets.UTF_8)));
+        feeder.end();
+        feeder.feed(ByteBuffer.wrap("<a/>".getBytes(StandardCharsets.UTF_8)));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void child_predicates_must_only_be_allowed_in_the_last_step() throws Exception {
+
+        XMLEasy.feeder("washers/washer[age=24]/name", name -> {});
+
+    }
+
+    private static List<String> feedInChunks(String document, int chunkSize) {
+
+        byte[] bytes = document.getBytes(StandardCharsets.UTF_8);
+        return fed("b",bytes,chunkSize);
+
+    }
+
+    @Test
+    public void malformed_character_data_and_comments_must_be_rejected() throws Exception {
+
+        String[] documents = {"<a><!-- x -- y --></a>","<a><!-- x ---></a>","<a>x ]]> y<b/></a>","<a><b>x ]]> y</b></a>",
+                "<a>&bogus;<b/></a>","<a>x & y<b/></a>","<a>&#0;<b/></a>","<a><b>&#x110000;</b></a>","<a>&#+65;<b/></a>",
+                "<a><c t='&#1;'/><b/></a>"};
+        for(String document: documents){
+            for(int chunkSize: new int[]{1,3,document.length()}){
+                try {
+                    feedInChunks(document,chunkSize);
+                    fail(document+" must be rejected in chunks of "+chunkSize);
+                }catch (XMLException ex){
+                    //expected
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void well_formed_character_data_must_be_accepted_whatever_the_chunk_size() throws Exception {
+
+        String document = "<a>]] &gt; &#x00000041;&#66;]<!---->]]<c t='&#x43;'>&amp;]]</c><b>]]&gt;</b></a>";
+        for(int chunkSize=1;chunkSize<=document.length();chunkSize++)
+            assertEquals(Collections.singletonList("]]>"),feedInChunks(document,chunkSize));
+
+    }
+
+    @Test
+    public void buffered_input_must_not_exceed_the_maximum_document_size() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().maxDocumentSize(64).build();
+        List<String> records = new ArrayList<>();
+        XMLEasyFeeder feeder = parser.feeder("b",b -> records.add(b.getContent()));
+        StringBuilder document = new StringBuilder("<a>");
+        for(int i=0;i<100;i++)
+            document.append("<b>").append(i).append("</b>");
+        byte[] bytes = document.append("</a>").toString().getBytes(StandardCharsets.UTF_8);
+        for(int offset=0;offset<bytes.length;offset+=16)
+            feeder.feed(bytes,offset,Math.min(16,bytes.length-offset));
+        feeder.end();
+        assertEquals(100,records.size());
+
+        XMLEasyFeeder limited = parser.feeder("b",b -> {});
+        limited.feed(ByteBuffer.wrap("<a><b title='".getBytes(StandardCharsets.UTF_8)));
+        try {
+            for(int i=0;i<10;i++)
+                limited.feed(ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.UTF_8)));
+            fail("Buffered input must be limited");
+        }catch (XMLDocumentTooLargeException ex){
+            assertTrue(limited.isEnded());
+        }
+
+    }
+
+    @Test(timeout = 10000)
+    public void tags_split_over_many_chunks_must_be_scanned_once() throws Exception {
+
+        StringBuilder value = new StringBuilder();
+        for(int i=0;i<200000;i++)
+            value.append((char) ('a'+i%26));
+        byte[] bytes = ("<a><c title='"+value+"'>"+value+"</c><b title='"+value+"'/></a>").getBytes(StandardCharsets.UTF_8);
+        List<String> titles = new ArrayList<>();
+        XMLEasyFeeder feeder = XMLEasy.feeder("b",b -> titles.add(b.attribute("title")));
+        for(byte b: bytes)
+            feeder.feed(new byte[]{b},0,1);
+        feeder.end();
+        assertEquals(Collections.singletonList(value.toString()),titles);
+
+    }
+
+}
@@ -0,0 +1,179 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.emerjoin.xmleasy.SchemaRegistry;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyHistogramMetrics;
+import org.emerjoin.xmleasy.XMLEasyJfrMetrics;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.emerjoin.xmleasy.XMLEasyMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.emerjoin.xmleasy.Paths.urls;
+import static org.junit.Assert.*;
+
+public class XMLEasyMetricsTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+    private static final String PERSON_PATH = "test-cases"+File.separator+"person"+File.separator;
+    private static final String[] XML_SCHEMAS = {PERSON_PATH+"person.xsd", PERSON_PATH+"details.xsd"};
+
+    @After
+    public void uninstall(){
+
+        XMLEasyMetrics.install(XMLEasyMetrics.NONE);
+
+    }
+
+    @Test
+    public void no_metrics_must_be_installed_by_default() throws Exception {
+
+        assertSame(XMLEasyMetrics.NONE,XMLEasyMetrics.installed());
+
+    }
+
+    @Test
+    public void loading_and_navigation_must_be_reported() throws Exception {
+
+        List<String> events = new ArrayList<>();
+        XMLEasyMetrics.install(new XMLEasyMetrics() {
+
+            @Override
+            public void documentRead(long bytes, long nanos) {
+                events.add("read:"+bytes);
+            }
+
+            @Override
+            public void documentParsed(long nanos, long allocatedBytes) {
+                events.add("parsed");
+            }
+
+            @Override
+            public void navigated(int visitedNodes) {
+                events.add("navigated");
+            }
+
+        });
+
+        URL document = url(XML_DOCUMENT_PATH);
+        XMLEasy xml = new XMLEasy(document);
+        assertEquals("read:"+new File(document.toURI()).length(),events.get(0));
+        assertEquals("parsed",events.get(1));
+        events.clear();
+        xml.child("cars").listChildren("car");
+        assertEquals(2,events.size());
+        assertTrue(events.stream().allMatch("navigated"::equals));
+
+    }
+
+    @Test
+    public void cursor_navigation_must_be_reported() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        XMLEasyHistogramMetrics metrics = new XMLEasyHistogramMetrics();
+        XMLEasyMetrics.install(metrics);
+        xml.cursor().child("cars").lastChild("car");
+
+        assertEquals(2,metrics.getVisitedNodes().getCount());
+        assertTrue(metrics.getVisitedNodes().getPercentile(0)>0);
+
+    }
+
+    @Test
+    public void only_indexing_lookups_must_be_reported() throws Exception {
+
+        XMLEasy xml = XMLEasyParser.builder().childIndex(16).build().parse(url(XML_DOCUMENT_PATH));
+        XMLEasyHistogramMetrics metrics = new XMLEasyHistogramMetrics();
+        XMLEasyMetrics.install(metrics);
+        for(int i=0;i<3;i++)
+            xml.freeze().child("washers").listChildren("washer");
+
+        assertEquals(2,metrics.getVisitedNodes().getCount());
+        assertTrue(metrics.getVisitedNodes().getPercentile(0)>0);
+
+    }
+
+    @Test
+    public void histograms_must_record_every_measurement() throws Exception {
+
+        XMLEasyHistogramMetrics metrics = new XMLEasyHistogramMetrics();
+        XMLEasyMetrics.install(metrics);
+        SchemaRegistry.getDefault().invalidate(urls(XML_SCHEMAS));
+
+        XMLEasy person = new XMLEasy(url(PERSON_PATH+"document1.xml"));
+        person.validate(urls(XML_SCHEMAS));
+        person.validate(urls(XML_SCHEMAS));
+        XMLEasy.compact(url(XML_DOCUMENT_PATH)).child("washers").listChildren("washer");
+
+        assertEquals(2,metrics.getReadDurations().getCount());
+        assertEquals(2,metrics.getParseDurations().getCount());
+        assertTrue(metrics.getBytesRead()>0);
+        assertEquals(2,metrics.getValidationDurations().getCount());
+        assertEquals(1,metrics.getSchemaCompilations().getCount());
+        assertEquals(1,metrics.getSchemaCacheMisses());
+        assertEquals(1,metrics.getSchemaCacheHits());
+        assertEquals(2,metrics.getVisitedNodes().getCount());
+        assertTrue(metrics.getVisitedNodes().getMax()>0);
+        assertTrue(metrics.getParseDurations().getPercentile(99)<=metrics.getParseDurations().getMax());
+
+        metrics.reset();
+        assertEquals(0,metrics.getParseDurations().getCount());
+        assertEquals(0,metrics.getBytesRead());
+
+    }
+
+    @Test
+    public void percentiles_must_be_bounded_by_powers_of_two() throws Exception {
+
+        XMLEasyHistogramMetrics metrics = new XMLEasyHistogramMetrics();
+        for(int visited=1;visited<=100;visited++)
+            metrics.navigated(visited);
+        XMLEasyHistogramMetrics.Histogram histogram = metrics.getVisitedNodes();
+
+        assertEquals(100,histogram.getCount());
+        assertEquals(50.5,histogram.getMean(),0.001);
+        assertEquals(63,histogram.getPercentile(50));
+        assertEquals(100,histogram.getPercentile(99));
+        assertEquals(1,histogram.getPercentile(0));
+
+    }
+
+    @Test
+    public void flight_recorder_events_must_be_emitted() throws Exception {
+
+        XMLEasyMetrics.install(new XMLEasyJfrMetrics());
+        Path dump = Files.createTempFile("xmleasy",".jfr");
+        try(Recording recording = new Recording()){
+            recording.enable("org.emerjoin.xmleasy.DocumentRead");
+            recording.enable("org.emerjoin.xmleasy.DocumentParsed");
+            recording.enable("org.emerjoin.xmleasy.Navigation");
+            recording.start();
+            new XMLEasy(url(XML_DOCUMENT_PATH)).child("cars");
+            recording.stop();
+            recording.dump(dump);
+
+            List<String> names = RecordingFile.readAllEvents(dump).stream()
+                    .map(RecordedEvent::getEventType)
+                    .map(type -> type.getName())
+                    .filter(name -> name.startsWith("org.emerjoin.xmleasy."))
+                    .collect(Collectors.toList());
+            assertTrue(names.toString(),names.contains("org.emerjoin.xmleasy.DocumentRead"));
+            assertTrue(names.toString(),names.contains("org.emerjoin.xmleasy.DocumentParsed"));
+            assertTrue(names.toString(),names.contains("org.emerjoin.xmleasy.Navigation"));
+        }finally {
+            Files.deleteIfExists(dump);
+        }
+
+    }
+
+}
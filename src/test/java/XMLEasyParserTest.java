@@ -0,0 +1,200 @@
+import org.emerjoin.xmleasy.InvalidXMLDocumentException;
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLEasyParser;
+import org.emerjoin.xmleasy.XMLException;
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.emerjoin.xmleasy.Paths.*;
+import static org.junit.Assert.*;
+
+public class XMLEasyParserTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+    private static final String PERSON_PATH = "test-cases"+File.separator+"person"+File.separator;
+    private static final String[] XML_SCHEMAS = {PERSON_PATH +"person.xsd", PERSON_PATH +"details.xsd"};
+
+
+    @Test
+    public void default_parser_must_keep_whitespace_nodes() throws Exception {
+
+        XMLEasy xml = XMLEasyParser.getDefault().parse(url(XML_DOCUMENT_PATH));
+        assertEquals(Node.TEXT_NODE,xml.getElement().getFirstChild().getNodeType());
+
+    }
+
+    @Test
+    public void whitespace_nodes_must_be_stripped() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().stripWhitespace(true).build();
+        XMLEasy xml = parser.parse(url(XML_DOCUMENT_PATH));
+        assertEquals("cars",xml.getElement().getFirstChild().getNodeName());
+        assertEquals("Toyota",xml.child("cars").child("car").child("brand").getContent());
+
+    }
+
+    @Test
+    public void namespace_aware_parser_must_resolve_namespaces() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().namespaceAware(true).build();
+        byte[] bytes = "<p:person xmlns:p=\"urn:person\"><p:name>Mario</p:name></p:person>"
+                .getBytes(StandardCharsets.UTF_8);
+        XMLEasy xml = parser.parse(new ByteArrayInputStream(bytes));
+        assertEquals("urn:person",xml.getElement().getNamespaceURI());
+        assertEquals("person",xml.getElement().getLocalName());
+
+    }
+
+    @Test
+    public void parser_must_be_reusable() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().build();
+        for(int i=0;i<3;i++)
+            assertEquals("Carwash",parser.parse(url(XML_DOCUMENT_PATH)).getTag());
+
+    }
+
+    @Test
+    public void documents_without_retained_source_must_be_validated_from_url() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().retainSource(false).build();
+        parser.parse(url(PERSON_PATH+"document1.xml")).validate(urls(XML_SCHEMAS));
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void streams_without_retained_source_must_not_be_validated() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().retainSource(false).build();
+        try(InputStream stream = url(PERSON_PATH+"document1.xml").openStream()) {
+            parser.parse(stream).validate(urls(XML_SCHEMAS));
+        }
+
+    }
+
+    @Test
+    public void large_files_must_be_parsed_and_validated() throws Exception {
+
+        File file = File.createTempFile("xmleasy",".xml");
+        file.deleteOnExit();
+        try(Writer writer = new OutputStreamWriter(new FileOutputStream(file),StandardCharsets.UTF_8)){
+            writer.write("<p:Person xmlns:p=\"http://examples/case1\" xmlns:d=\"http://examples/person/details\">");
+            writer.write("<p:name><p:first-name>Mario</p:first-name><p:last-name>Junior</p:last-name></p:name>");
+            writer.write("<d:info><d:age>12</d:age><d:height>13.2</d:height></d:info>");
+            for(int i=0;i<20000;i++)
+                writer.write("<!-- padding comment -->");
+            writer.write("</p:Person>");
+        }
+
+        XMLEasy xml = new XMLEasy(url(file));
+        assertEquals("Mario",xml.child("p:name").child("p:first-name").getContent());
+        xml.validate(urls(XML_SCHEMAS));
+
+    }
+
+    @Test
+    public void retained_large_files_must_not_depend_on_the_file() throws Exception {
+
+        File file = File.createTempFile("xmleasy",".xml");
+        file.deleteOnExit();
+        try(Writer writer = new OutputStreamWriter(new FileOutputStream(file),StandardCharsets.UTF_8)){
+            writer.write("<p:Person xmlns:p=\"http://examples/case1\" xmlns:d=\"http://examples/person/details\">");
+            writer.write("<p:name><p:first-name>Mario</p:first-name><p:last-name>Junior</p:last-name></p:name>");
+            writer.write("<d:info><d:age>12</d:age><d:height>13.2</d:height></d:info>");
+            for(int i=0;i<20000;i++)
+                writer.write("<!-- padding comment -->");
+            writer.write("</p:Person>");
+        }
+
+        XMLEasy xml = XMLEasyParser.getDefault().parse(url(file));
+        try(RandomAccessFile truncated = new RandomAccessFile(file,"rw")){
+            truncated.setLength(0);
+        }
+        xml.validate(urls(XML_SCHEMAS));
+
+    }
+
+    @Test
+    public void validating_parser_must_accept_valid_documents() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().schemas(urls(XML_SCHEMAS)).build();
+        assertTrue(parser.isNamespaceAware());
+        for(int i=0;i<2;i++) {
+            XMLEasy xml = parser.parse(url(PERSON_PATH + "document1.xml"));
+            assertEquals("Mario", xml.child("p:name").child("p:first-name").getContent());
+        }
+        assertEquals("Person",parser.parseCompact(url(PERSON_PATH+"document1.xml")).getTag().replace("p:",""));
+
+    }
+
+    @Test(expected = InvalidXMLDocumentException.class)
+    public void validating_parser_must_reject_invalid_documents() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().schemas(urls(XML_SCHEMAS)).build();
+        parser.parse(url(PERSON_PATH+"document2.xml"));
+
+    }
+
+    @Test(expected = InvalidXMLDocumentException.class)
+    public void validating_parser_must_reject_invalid_compact_documents() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().schemas(urls(XML_SCHEMAS)).build();
+        parser.parseCompact(url(PERSON_PATH+"document2.xml"));
+
+    }
+
+    @Test
+    public void validating_parser_must_report_malformed_documents_as_load_failures() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().schemas(urls(XML_SCHEMAS)).build();
+        byte[] bytes = "<p:Person xmlns:p=\"http://examples/case1\"><p:name>".getBytes(StandardCharsets.UTF_8);
+        try {
+            parser.parse(new ByteArrayInputStream(bytes));
+            fail("Malformed document must not be parsed");
+        }catch (XMLException ex){
+            assertFalse(ex instanceof InvalidXMLDocumentException);
+        }
+        assertEquals("Carwash",XMLEasyParser.builder().build().parse(url(XML_DOCUMENT_PATH)).getTag());
+        parser.parse(url(PERSON_PATH+"document1.xml"));
+
+    }
+
+    @Test
+    public void parsers_must_be_shared_by_more_threads_than_pooled_builders() throws Exception {
+
+        XMLEasyParser parser = XMLEasyParser.builder().build();
+        XMLEasyParser validating = XMLEasyParser.builder().schemas(urls(XML_SCHEMAS)).build();
+        int threads = 4 * Runtime.getRuntime().availableProcessors() + 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for(int i=0;i<threads*4;i++) {
+                results.add(executor.submit(() -> parser.parse(url(XML_DOCUMENT_PATH)).getTag()));
+                results.add(executor.submit(() -> validating.parse(url(PERSON_PATH+"document1.xml"))
+                        .child("p:name").child("p:first-name").getContent()));
+            }
+            for(int i=0;i<results.size();i+=2) {
+                assertEquals("Carwash", results.get(i).get());
+                assertEquals("Mario", results.get(i+1).get());
+            }
+        }finally {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
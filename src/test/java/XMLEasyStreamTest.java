@@ -0,0 +1,117 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLPath;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class XMLEasyStreamTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+
+    @Test
+    public void each_car_must_be_streamed() throws Exception {
+
+        List<String> brands = new ArrayList<>();
+        List<String> colors = new ArrayList<>();
+        XMLEasy.stream(url(XML_DOCUMENT_PATH)).each("cars/car", car -> {
+            colors.add(car.attribute("color"));
+            brands.add(car.child("brand").getContent());
+        });
+
+        assertEquals(2,brands.size());
+        assertEquals("Toyota",brands.get(0));
+        assertEquals("BMW",brands.get(1));
+        assertEquals("black",colors.get(1));
+
+    }
+
+    @Test
+    public void nested_elements_must_be_streamed() throws Exception {
+
+        List<String> names = new ArrayList<>();
+        XMLEasy.stream(url(XML_DOCUMENT_PATH))
+                .each("washers/washer/name", name -> names.add(name.child("first-name").getContent()))
+                .each("*/client", client -> names.add(client.child("name").getContent()));
+
+        assertEquals(4,names.size());
+        assertEquals("Aurio",names.get(2));
+        assertEquals("John Doe",names.get(3));
+
+    }
+
+    @Test
+    public void elements_with_the_same_tag_in_other_paths_must_not_be_streamed() throws Exception {
+
+        byte[] bytes = "<a><b><c>1</c><b><c>2</c></b></b><c>3</c><b><c>4</c></b></a>".getBytes(StandardCharsets.UTF_8);
+        List<String> values = new ArrayList<>();
+        XMLEasy.stream(new ByteArrayInputStream(bytes)).each("b/c", c -> values.add(c.getContent()));
+        assertEquals(2,values.size());
+        assertEquals("1",values.get(0));
+        assertEquals("4",values.get(1));
+
+    }
+
+    @Test
+    public void compiled_paths_must_stream_matching_elements() throws Exception {
+
+        List<String> brands = new ArrayList<>();
+        XMLEasy.stream(url(XML_DOCUMENT_PATH)).each(XMLPath.compile("/Carwash/cars/car[@color='black']/brand"),
+                brand -> brands.add(brand.getContent()));
+        assertEquals(1,brands.size());
+        assertEquals("BMW",brands.get(0));
+
+    }
+
+    @Test
+    public void streamed_values_must_match_selected_elements() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        String[] expressions = {"washers/washer[age=24]/name/first-name", "washers/washer[age='21'][2]/name",
+                "//name", "washers//first-name", "*/*[1]", "cars/car[@wash-date]/brand", "/Carwash/*[2]",
+                "//washer[@missing][age]", "washers/washer[3]/age"};
+        for(String expression: expressions){
+            List<String> expected = xml.select(expression).stream().map(el -> el.getTextContent())
+                    .collect(Collectors.toList());
+            List<String> values = new ArrayList<>();
+            List<String> contents = new ArrayList<>();
+            XMLEasy.stream(url(XML_DOCUMENT_PATH)).eachValue(expression,values::add)
+                    .each(expression,element -> contents.add(element.getElement().getTextContent()));
+            assertEquals(expression,expected,values);
+            assertEquals(expression,expected,contents);
+        }
+
+    }
+
+    @Test
+    public void nested_matches_must_be_streamed_in_document_order() throws Exception {
+
+        byte[] bytes = "<a><b><c>1<b><c>2</c></b></c></b><b x='y'><c>3</c></b></a>".getBytes(StandardCharsets.UTF_8);
+        List<String> values = new ArrayList<>();
+        XMLEasy.stream(new ByteArrayInputStream(bytes)).eachValue("//b[c]/c",values::add);
+        assertEquals(3,values.size());
+        assertEquals("12",values.get(0));
+        assertEquals("2",values.get(1));
+        assertEquals("3",values.get(2));
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void input_streams_must_be_streamed_once() throws Exception {
+
+        try(InputStream input = url(XML_DOCUMENT_PATH).openStream()) {
+            XMLEasy.stream(input).each("cars/car", car -> { }).each("cars/car", car -> { });
+        }
+
+    }
+
+}
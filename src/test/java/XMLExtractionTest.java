@@ -0,0 +1,94 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLExtraction;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.junit.Assert.*;
+
+public class XMLExtractionTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    @Test
+    public void every_path_must_be_extracted_in_one_pass() throws Exception {
+
+        List<String> brands = new ArrayList<>();
+        List<String> ages = new ArrayList<>();
+        List<String> colors = new ArrayList<>();
+        XMLEasy.extract(url(XML_DOCUMENT_PATH))
+                .onValue("cars/car/brand",brands::add)
+                .onValue("washers/washer/age",ages::add)
+                .on("cars/car",car -> colors.add(car.attribute("color")))
+                .run();
+
+        assertEquals(2,brands.size());
+        assertEquals("BMW",brands.get(1));
+        assertEquals(3,ages.size());
+        assertEquals("24",ages.get(0));
+        assertEquals("black",colors.get(1));
+
+    }
+
+    @Test
+    public void extracted_values_must_match_selected_elements() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        String[] expressions = {"washers/washer[age=24]/name/first-name", "washers/washer[age='21'][2]/name",
+                "washers/washer[2]/name", "washers/washer[age='21']/name", "//name", "washers//first-name", "*/*[1]",
+                "cars/car[@wash-date]/brand", "/Carwash/*[2]", "/Carwash", "washers/washer[3]/age", "*/*[2]"};
+        List<List<String>> values = new ArrayList<>();
+        XMLExtraction extraction = XMLEasy.extract(url(XML_DOCUMENT_PATH));
+        for(String expression: expressions){
+            List<String> list = new ArrayList<>();
+            values.add(list);
+            extraction.onValue(expression,list::add);
+        }
+
+        extraction.run();
+        for(int i=0;i<expressions.length;i++){
+            List<String> expected = xml.select(expressions[i]).stream().map(el -> el.getTextContent())
+                    .collect(Collectors.toList());
+            assertEquals(expressions[i],expected,values.get(i));
+        }
+
+    }
+
+    @Test
+    public void consumers_of_the_same_element_must_be_called_in_registration_order() throws Exception {
+
+        byte[] bytes = "<a><b>1</b><b>2</b></a>".getBytes(StandardCharsets.UTF_8);
+        List<String> calls = new ArrayList<>();
+        XMLEasy.extract(new ByteArrayInputStream(bytes))
+                .onValue("b",value -> calls.add("first "+value))
+                .on("b",b -> calls.add("second "+b.getContent()))
+                .onValue("//b",value -> calls.add("third "+value))
+                .run();
+
+        assertEquals(6,calls.size());
+        assertEquals("first 1",calls.get(0));
+        assertEquals("second 1",calls.get(1));
+        assertEquals("third 1",calls.get(2));
+        assertEquals("first 2",calls.get(3));
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void input_streams_must_be_extracted_once() throws Exception {
+
+        try(InputStream input = url(XML_DOCUMENT_PATH).openStream()) {
+            XMLExtraction extraction = XMLEasy.extract(input).onValue("cars/car/brand",brand -> { });
+            extraction.run();
+            extraction.run();
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+import org.emerjoin.xmleasy.XMLEasy;
+import org.emerjoin.xmleasy.XMLPath;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.emerjoin.xmleasy.Paths.url;
+import static org.emerjoin.xmleasy.XMLEasy.easy;
+import static org.junit.Assert.*;
+
+public class XMLPathTest {
+
+    private static final String XML_DOCUMENT_PATH = "test-cases"+File.separator+"carwash"+File.separator+"Document.xml";
+
+    private static List<String> contents(List<Element> elements){
+
+        return elements.stream().map(Element::getTextContent).collect(Collectors.toList());
+
+    }
+
+    @Test
+    public void child_predicate_must_select_matching_washer() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        List<Element> names = xml.select("washers/washer[age=24]/name/first-name");
+        assertEquals(1,names.size());
+        assertEquals("Mario",names.get(0).getTextContent());
+
+    }
+
+    @Test
+    public void attribute_predicates_must_be_supported() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        assertEquals("BMW",xml.select("cars/car[@color='black']/brand").get(0).getTextContent());
+        assertEquals("Toyota",xml.select("cars/car[@wash-date]/brand").get(0).getTextContent());
+        assertTrue(xml.select("cars/car[@color=\"yellow\"]").isEmpty());
+
+    }
+
+    @Test
+    public void positional_predicates_must_count_from_one() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        assertEquals("Romildo",xml.select("washers/washer[2]/name/first-name").get(0).getTextContent());
+        assertEquals("Aurio",xml.select("washers/washer[age='21'][2]/name/first-name").get(0).getTextContent());
+        assertTrue(xml.select("washers/washer[4]").isEmpty());
+
+    }
+
+    @Test
+    public void descendant_steps_must_return_document_order() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        assertEquals(4,xml.select("//name").size());
+        assertEquals("Mario",xml.select("washers//first-name").get(0).getTextContent());
+        assertEquals(3,xml.select(".//washer//first-name").size());
+        assertEquals(3,xml.select("*/*[1]").size());
+
+    }
+
+    @Test
+    public void absolute_paths_must_start_at_document_element() throws Exception {
+
+        XMLEasy xml = new XMLEasy(url(XML_DOCUMENT_PATH));
+        XMLEasy washers = easy(xml.child("washers").getElement());
+        assertEquals(2,washers.select("/Carwash/cars/car").size());
+        assertTrue(washers.select("/cars").isEmpty());
+
+    }
+
+    @Test
+    public void compiled_paths_must_be_reusable() throws Exception {
+
+        XMLPath path = XMLPath.compile("cars/car/brand");
+        XMLEasy dom = new XMLEasy(url(XML_DOCUMENT_PATH));
+        XMLEasy compact = XMLEasy.compact(url(XML_DOCUMENT_PATH));
+        assertEquals(contents(dom.select(path)),contents(compact.select(path)));
+        assertEquals("Toyota",dom.selectFirst(path).get().getTextContent());
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalid_paths_must_be_rejected() throws Exception {
+
+        XMLPath.compile("cars/car[@color='red'");
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void positions_must_start_at_one() throws Exception {
+
+        XMLPath.compile("cars/car[0]");
+
+    }
+
+}